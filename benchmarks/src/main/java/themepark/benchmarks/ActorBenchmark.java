@@ -0,0 +1,91 @@
+package themepark.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import themepark.ParkWorkers;
+import themepark.Ride;
+import themepark.RideActor;
+import themepark.Visitor;
+import themepark.VisitorQueue;
+
+/**
+ * Park throughput in actor mode
+ * Each operation sends every ride a batch of arrivals followed by enough cycles to board them, then waits for
+ * all rides to finish; comparing workers=1 with more workers shows how throughput scales with cores
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ActorBenchmark {
+    private static final int ARRIVALS = 64;  // Visitors per ride per operation
+    private static final int CAPACITY = 8;   // Seats per cycle
+
+    @Param({"8", "64"})
+    public int rideCount;
+
+    @Param({"1", "4"})
+    public int workerCount;
+
+    private ParkWorkers workers;
+    private List<RideActor> actors;
+    private List<Visitor> arrivals;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.muteSystemOut();
+        workers = new ParkWorkers(workerCount);
+        for (int i = 0; i < rideCount; i++) {
+            workers.register(new Ride("Ride " + i, CAPACITY, BenchmarkData.operator(), new VisitorQueue(false, 0)));
+        }
+        actors = workers.getActors();
+        arrivals = new ArrayList<>(ARRIVALS);
+        for (int i = 0; i < ARRIVALS; i++) {
+            arrivals.add(BenchmarkData.visitor(i));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        workers.close();
+        BenchmarkData.restoreSystemOut();
+    }
+
+    @Benchmark
+    public long arriveAndBoard() {
+        List<CompletableFuture<Integer>> boarded = new ArrayList<>(actors.size());
+        for (RideActor actor : actors) {
+            actor.addVisitorsToQueue(arrivals);
+            boarded.add(actor.runCycles(ARRIVALS / CAPACITY));
+        }
+        long total = 0;
+        for (CompletableFuture<Integer> rideBoarded : boarded) {
+            total += rideBoarded.join();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long totalVisitors() {
+        return workers.totalVisitors().join();
+    }
+}
@@ -0,0 +1,64 @@
+package themepark.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import themepark.Employee;
+import themepark.Visitor;
+
+/**
+ * Shared test data and helpers for the benchmarks
+ */
+final class BenchmarkData {
+    private static final String[] NAMES = {"Jane Smith", "Tom Lee", "Amy Chen", "Lucy Wang", "Bob Jones"};
+    private static final String[] DATES = {"2025-11-28", "2025-11-29", "2025-11-30", "2025-12-01"};
+
+    private static PrintStream originalOut;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Create a visitor with a unique ticket ID ("TICKET" + index) and realistic, mostly shared field values
+     * @param index Visitor number
+     * @return Visitor: New visitor
+     */
+    static Visitor visitor(int index) {
+        return new Visitor(NAMES[index % NAMES.length], 18 + index % 60, "555-000-" + (index % 10000),
+                "TICKET" + index, DATES[index % DATES.length]);
+    }
+
+    /**
+     * Create an array of visitors with ticket IDs TICKET0 .. TICKET(count - 1)
+     * @param count Number of visitors
+     * @return Visitor[]: New visitors
+     */
+    static Visitor[] visitors(int count) {
+        Visitor[] visitors = new Visitor[count];
+        for (int i = 0; i < count; i++) {
+            visitors[i] = visitor(i);
+        }
+        return visitors;
+    }
+
+    static Employee operator() {
+        return new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster");
+    }
+
+    /**
+     * Silence System.out so that the status messages printed by Ride do not end up in the measurements
+     */
+    static synchronized void muteSystemOut() {
+        if (originalOut == null) {
+            originalOut = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    static synchronized void restoreSystemOut() {
+        if (originalOut != null) {
+            System.setOut(originalOut);
+            originalOut = null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package themepark.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import themepark.HistoryJournal;
+import themepark.Ride;
+import themepark.Visitor;
+import themepark.VisitorQueue;
+
+/**
+ * runOneCycle cost across ride sizes
+ * Each operation queues maxCapacity visitors and then runs one cycle that boards all of them,
+ * so the score divided by maxCapacity is the per-seat cost
+ * With journaled=true every cycle is also appended to a HistoryJournal (default group-commit mode),
+ * which shows what durability costs per cycle
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class CycleBenchmark {
+    @Param({"1", "4", "40", "200"})
+    public int maxCapacity;
+
+    @Param({"false", "true"})
+    public boolean concurrentQueue;
+
+    @Param({"false", "true"})
+    public boolean journaled;
+
+    private Ride ride;
+    private Path journalFile;
+    private HistoryJournal journal;
+    private Visitor[] visitors;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        BenchmarkData.muteSystemOut(); // runOneCycle() prints one status line per cycle
+        visitors = BenchmarkData.visitors(maxCapacity);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws IOException {
+        // A fresh ride per iteration keeps the history from growing across the whole run
+        ride = new Ride("Thunderbolt", maxCapacity, BenchmarkData.operator(),
+                new VisitorQueue(concurrentQueue, VisitorQueue.UNBOUNDED));
+        if (journaled) {
+            journalFile = Files.createTempFile("cycle-benchmark", ".journal");
+            journal = new HistoryJournal(journalFile);
+            ride.setJournal(journal);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws IOException {
+        if (journal != null) {
+            journal.close();
+            Files.deleteIfExists(journalFile);
+            journal = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BenchmarkData.restoreSystemOut();
+    }
+
+    @Benchmark
+    public int boardOneCycle() {
+        for (Visitor visitor : visitors) {
+            ride.addVisitorToQueue(visitor);
+        }
+        ride.runOneCycle();
+        return ride.numberOfVisitors();
+    }
+}
@@ -0,0 +1,89 @@
+package themepark.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import themepark.Employee;
+import themepark.Ride;
+import themepark.StaffDispatcher;
+import themepark.Visitor;
+
+/**
+ * StaffDispatcher reassignment latency
+ * Rides are split over a few ride types with fewer operators than rides; each operation grows one ride's queue
+ * and re-dispatches, either for that ride alone (updateDemand) or for the whole park (rebalance)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class DispatchBenchmark {
+    private static final String[] RIDE_TYPES = {"Roller Coaster", "Water Ride", "Ferris Wheel", "Dark Ride"};
+
+    @Param({"100", "500"})
+    public int rideCount;
+
+    private StaffDispatcher dispatcher;
+    private Ride[] rides;
+    private Visitor visitor;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.muteSystemOut();
+        dispatcher = new StaffDispatcher();
+        rides = new Ride[rideCount];
+        for (int i = 0; i < rideCount; i++) {
+            rides[i] = new Ride("Ride " + i, 4 + i % 37, null);
+            dispatcher.addRide(rides[i], RIDE_TYPES[i % RIDE_TYPES.length]);
+        }
+        for (int i = 0; i < rideCount * 3 / 4; i++) {
+            dispatcher.addEmployee(new Employee("Operator " + i, 30, "000-000-0000", "EMP" + i, RIDE_TYPES[i % RIDE_TYPES.length]));
+        }
+        visitor = BenchmarkData.visitor(0);
+        next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        BenchmarkData.restoreSystemOut();
+    }
+
+    @Benchmark
+    public int updateDemand() {
+        Ride ride = nextRide();
+        return dispatcher.updateDemand(ride);
+    }
+
+    @Benchmark
+    public int rebalance() {
+        nextRide();
+        return dispatcher.rebalance();
+    }
+
+    // Queues a visitor at the next ride in a skewed order, draining it now and then so demand keeps moving
+    private Ride nextRide() {
+        Ride ride = rides[(next++ * 7919) % rides.length];
+        if (ride.getQueue().size() > 200) {
+            ride.getQueue().drainTo(new ArrayList<>(), Integer.MAX_VALUE);
+        }
+        ride.getQueue().offer(visitor);
+        return ride;
+    }
+}
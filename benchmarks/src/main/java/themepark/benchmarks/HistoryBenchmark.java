@@ -0,0 +1,70 @@
+package themepark.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import themepark.Ride;
+import themepark.Visitor;
+
+/**
+ * checkVisitorFromHistory latency for hits and misses at different history sizes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class HistoryBenchmark {
+    private static final int PROBES = 4096; // Visitors probed in rotation (power of two)
+
+    @Param({"1000", "1000000", "10000000"})
+    public int historySize;
+
+    private Ride ride;
+    private Visitor[] riddenProbes;
+    private Visitor[] unknownProbes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ride = new Ride("Thunderbolt", 4, BenchmarkData.operator());
+        for (int i = 0; i < historySize; i++) {
+            ride.addVisitorToHistory(BenchmarkData.visitor(i));
+        }
+        riddenProbes = new Visitor[PROBES];
+        unknownProbes = new Visitor[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            riddenProbes[i] = BenchmarkData.visitor((int) ((long) i * historySize / PROBES));
+            unknownProbes[i] = BenchmarkData.visitor(historySize + i);
+        }
+    }
+
+    @Benchmark
+    public boolean checkRiddenVisitor() {
+        next = (next + 1) & (PROBES - 1);
+        return ride.checkVisitorFromHistory(riddenProbes[next]);
+    }
+
+    @Benchmark
+    public boolean checkUnknownVisitor() {
+        next = (next + 1) & (PROBES - 1);
+        return ride.checkVisitorFromHistory(unknownProbes[next]);
+    }
+
+    @Benchmark
+    public int numberOfVisitors() {
+        return ride.numberOfVisitors();
+    }
+}
@@ -0,0 +1,80 @@
+package themepark.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import themepark.HistoryExporter;
+import themepark.HistoryFormat;
+import themepark.HistoryImporter;
+import themepark.Ride;
+
+/**
+ * Export (Part 6) and import (Part 7) of a full ride history, per format and compression
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class IoBenchmark {
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"CSV", "BINARY"})
+    public HistoryFormat format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private Ride ride;
+    private HistoryExporter exporter;
+    private HistoryImporter importer;
+    private Path exportFile;
+    private Path importFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        ride = new Ride("Thunderbolt", 4, BenchmarkData.operator());
+        for (int i = 0; i < records; i++) {
+            ride.addVisitorToHistory(BenchmarkData.visitor(i));
+        }
+        exporter = new HistoryExporter(format, gzip);
+        importer = new HistoryImporter(true);
+        exportFile = Files.createTempFile("themepark-export", ".tmp");
+        importFile = Files.createTempFile("themepark-import", ".tmp");
+        exporter.export(ride.getHistory(), importFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(exportFile);
+        Files.deleteIfExists(importFile);
+    }
+
+    @Benchmark
+    public long exportHistory() throws IOException {
+        return exporter.export(ride.getHistory(), exportFile);
+    }
+
+    @Benchmark
+    public long importHistory() throws IOException {
+        Ride target = new Ride("Thunderbolt", 4, null);
+        return importer.importHistory(importFile, target).getRecordsImported();
+    }
+}
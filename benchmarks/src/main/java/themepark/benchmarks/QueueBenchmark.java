@@ -0,0 +1,99 @@
+package themepark.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import themepark.Ride;
+import themepark.Visitor;
+import themepark.VisitorQueue;
+
+/**
+ * addVisitorToQueue / removeVisitorFromQueue throughput
+ * The "gates" group runs entry-scanner producers against one ride-loop consumer on a shared concurrent queue;
+ * the number of producer threads is 4 by default and can be changed with -tg, e.g. "-tg 1,1", "-tg 8,1", "-tg 16,1"
+ * The queue is bounded, so once producers outrun the consumer part of the enqueue score is rejected offers (backpressure)
+ * The single-threaded benchmark measures the standard (LinkedList) queue for comparison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+    private static final int VISITORS = 1024;       // Distinct visitors cycled through by each thread
+    private static final int QUEUE_CAPACITY = 1 << 20; // Bounded so producers cannot outrun the consumer forever
+
+    @State(Scope.Group)
+    public static class SharedRide {
+        Ride ride;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            ride = new Ride("Thunderbolt", 4, BenchmarkData.operator(), new VisitorQueue(true, QUEUE_CAPACITY));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Gate {
+        Visitor[] visitors;
+        int next;
+
+        @Setup
+        public void setUp() {
+            visitors = BenchmarkData.visitors(VISITORS);
+        }
+
+        Visitor nextVisitor() {
+            Visitor visitor = visitors[next];
+            next = (next + 1) & (VISITORS - 1);
+            return visitor;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SingleThreadedRide {
+        Ride ride;
+        Visitor[] visitors;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            ride = new Ride("Thunderbolt", 4, BenchmarkData.operator());
+            visitors = BenchmarkData.visitors(VISITORS);
+        }
+    }
+
+    @Benchmark
+    @Group("gates")
+    @GroupThreads(4)
+    public boolean enqueue(SharedRide shared, Gate gate) {
+        return shared.ride.tryAddVisitorToQueue(gate.nextVisitor());
+    }
+
+    @Benchmark
+    @Group("gates")
+    @GroupThreads(1)
+    public Visitor dequeue(SharedRide shared) {
+        return shared.ride.getQueue().poll();
+    }
+
+    @Benchmark
+    public Visitor standardQueueAddRemove(SingleThreadedRide state) {
+        state.ride.addVisitorToQueue(state.visitors[state.next]);
+        state.next = (state.next + 1) & (VISITORS - 1);
+        return state.ride.getQueue().poll();
+    }
+}
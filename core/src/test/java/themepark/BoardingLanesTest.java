@@ -0,0 +1,166 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * BoardingLanesTest class - Per-cycle lane mix, seat credit carry-over, slot admission and unused seats
+ */
+class BoardingLanesTest {
+    private final VisitorQueue regular = new VisitorQueue(false, 0);
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void eachCycleFollowsTheMixInPriorityOrder() {
+        BoardingLanes lanes = lanes(0.5, 0.25);
+        fill(lanes, 20, 20, 20);
+        assertEquals(List.of("F0", "F1", "V0", "R0"), cycle(lanes, 4));
+        assertEquals(List.of("F2", "F3", "V1", "R1"), cycle(lanes, 4));
+        assertEquals(List.of("F4", "F5", "F6", "F7", "V2", "V3", "R2", "R3"), cycle(lanes, 8));
+    }
+
+    @Test
+    void fractionalSharesCarryCreditToLaterCycles() {
+        // A one-seat ride cannot split a seat 50/50 in one cycle, so the lanes take turns
+        BoardingLanes lanes = lanes(0.5, 0);
+        fill(lanes, 10, 0, 10);
+        List<String> boarded = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            boarded.addAll(cycle(lanes, 1));
+        }
+        assertEquals(List.of("F0", "R0", "F1", "R1", "F2", "R2"), boarded);
+
+        // Three seats at 50/50: the extra seat fast pass took in one cycle is paid back in the next
+        BoardingLanes three = lanes(0.5, 0);
+        regular.drainTo(new ArrayList<>(), Integer.MAX_VALUE);
+        fill(three, 10, 0, 10);
+        assertEquals(List.of("F0", "R0", "F1"), cycle(three, 3));
+        assertEquals(List.of("F2", "R1", "R2"), cycle(three, 3));
+        assertEquals(List.of("F3", "R3", "F4"), cycle(three, 3));
+    }
+
+    @Test
+    void idleLaneDoesNotBankCredit() {
+        BoardingLanes lanes = lanes(0.5, 0);
+        fill(lanes, 0, 0, 30);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(4, regularCount(cycle(lanes, 4))); // Fast pass empty: its seats go to the regular lane
+        }
+        fill(lanes, 10, 0, 0);
+        assertEquals(List.of("F0", "F1", "R12", "R13"), cycle(lanes, 4)); // Back to the mix: nothing banked, nothing owed
+        assertEquals(List.of("F2", "F3", "R14", "R15"), cycle(lanes, 4));
+    }
+
+    @Test
+    void reservationsAreFiledBySlotAndBoardOnceTheSlotStarts() {
+        BoardingLanes lanes = lanes(0, 1.0);
+        lanes.setSlotLength(100);
+        lanes.setSlotCapacity(2);
+        assertTrue(lanes.reserve(visitor("V0"), 150));
+        assertTrue(lanes.reserve(visitor("V1"), 100));
+        assertFalse(lanes.reserve(visitor("V2"), 199)); // Slot 100-199 is full
+        assertTrue(lanes.reserve(visitor("V3"), 250));
+        assertTrue(lanes.reserve(visitor("V4"), -1));   // Slot -100..-1
+        assertEquals(2, lanes.getReservations(199));
+        assertEquals(1, lanes.getReservations(200));
+        assertEquals(0, lanes.getReservations(300));
+        assertEquals(4, lanes.getVirtualCount());
+        assertEquals(-100, lanes.getNextSlotStart());
+
+        lanes.setSlotLength(50); // Refused while reservations are filed under the old slots
+        assertEquals(100, lanes.getSlotLength());
+
+        now.set(-101);
+        assertFalse(lanes.hasBoardable());
+        assertEquals(List.of(), cycle(lanes, 4));
+        now.set(99);
+        assertEquals(List.of("V4"), cycle(lanes, 4));
+        now.set(100); // Slot 100 has started; slot 200 has not
+        assertEquals(List.of("V0", "V1"), cycle(lanes, 4));
+        assertEquals(List.of(), cycle(lanes, 4));
+        now.set(1_000);
+        assertEquals(List.of("V3"), cycle(lanes, 4));
+        assertEquals(0, lanes.getVirtualCount());
+        assertEquals(-1, lanes.getNextSlotStart());
+    }
+
+    @Test
+    void unusedSeatsFallBackToTheRegularQueue() {
+        BoardingLanes lanes = lanes(0.25, 0.5);
+        lanes.setSlotLength(10);
+        fill(lanes, 1, 0, 10);
+        lanes.reserve(visitor("V0"), 0);
+        lanes.reserve(visitor("V1"), 20); // Not due yet
+        assertEquals(List.of("F0", "V0", "R0", "R1"), cycle(lanes, 4));
+        assertEquals(List.of("R2", "R3", "R4", "R5"), cycle(lanes, 4));
+        now.set(20);
+        assertEquals(List.of("V1", "R6", "R7", "R8"), cycle(lanes, 4));
+    }
+
+    @Test
+    void reservationWaitsCountFromTheSlotStart() {
+        BoardingLanes lanes = lanes(0, 1.0);
+        lanes.setClock(now::get, TimeUnit.MILLISECONDS);
+        lanes.setSlotLength(100);
+        lanes.reserve(visitor("V0"), 100); // Booked at 0 for slot 100
+        now.set(150);
+        long[] queuedAt = new long[1];
+        long before = System.nanoTime();
+        assertEquals(1, lanes.drainTo(new ArrayList<>(), 1, queuedAt));
+        long after = System.nanoTime();
+        long waited = TimeUnit.MILLISECONDS.toNanos(50); // From the slot start, not from the booking
+        assertTrue(queuedAt[0] >= before - waited && queuedAt[0] <= after - waited);
+    }
+
+    private BoardingLanes lanes(double fastPassShare, double virtualShare) {
+        BoardingLanes lanes = new BoardingLanes(regular, fastPassShare, virtualShare);
+        lanes.setClock(now::get);
+        lanes.setSlotLength(1);
+        return lanes;
+    }
+
+    // Fills the lanes with F0.., V0.. (due now) and R0..
+    private void fill(BoardingLanes lanes, int fastPass, int virtual, int regulars) {
+        for (int i = 0; i < fastPass; i++) {
+            lanes.offerFastPass(visitor("F" + i), 0);
+        }
+        for (int i = 0; i < virtual; i++) {
+            lanes.reserve(visitor("V" + i), now.get());
+        }
+        for (int i = 0; i < regulars; i++) {
+            regular.offer(visitor("R" + i));
+        }
+    }
+
+    private static List<String> cycle(BoardingLanes lanes, int seats) {
+        List<Visitor> boarded = new ArrayList<>();
+        lanes.drainTo(boarded, seats, null);
+        List<String> tickets = new ArrayList<>();
+        for (Visitor visitor : boarded) {
+            tickets.add(visitor.getTicketId());
+        }
+        return tickets;
+    }
+
+    private static int regularCount(List<String> tickets) {
+        int count = 0;
+        for (String ticket : tickets) {
+            if (ticket.startsWith("R")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Visitor visitor(String ticketId) {
+        return new Visitor("Guest " + ticketId, 30, "555-0100", ticketId, "2025-11-28");
+    }
+}
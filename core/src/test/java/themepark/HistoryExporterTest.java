@@ -0,0 +1,132 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * HistoryExporterTest class - Exact CSV quoting and binary layout, and null fields through export and import
+ */
+class HistoryExporterTest {
+    @TempDir
+    Path folder;
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws IOException {
+        List<Visitor> visitors = List.of(
+                new Visitor("Jane Smith", 28, "987-654-3210", "T1", "2025-11-28"),
+                new Visitor("Smith, Jane", 28, "line\nbreak", "T2", "carriage\rreturn"),
+                new Visitor("Tom \"TJ\" Lee", 12, "\"", "T3", "2025-11-29"),
+                new Visitor("Zoë 😀", 64, "", "T4", null),
+                new Visitor(null, 0, null, "\uD800x", "Simulated"));
+        Path file = folder.resolve("history.csv");
+        assertEquals(5, new HistoryExporter(HistoryFormat.CSV, false).export(visitors, file));
+
+        String expected = HistoryFormat.CSV_HEADER + "\n"
+                + "Jane Smith,28,987-654-3210,T1,2025-11-28\n"
+                + "\"Smith, Jane\",28,\"line\nbreak\",T2,\"carriage\rreturn\"\n"
+                + "\"Tom \"\"TJ\"\" Lee\",12,\"\"\"\",T3,2025-11-29\n"
+                + "Zoë 😀,64,\"\",T4,\n"   // Empty string quoted, null left empty
+                + ",0,,?x,Simulated\n";     // Unpaired surrogate written as '?', like String.getBytes()
+        assertEquals(expected, Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void binaryLayoutMatchesTheDocumentedFormat() throws IOException {
+        Path file = folder.resolve("history.bin");
+        new HistoryExporter(HistoryFormat.BINARY, false).export(List.of(new Visitor("Zoë", 41, null, "T7", "2025-11-28")), file);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+
+        assertEquals(HistoryFormat.BINARY_MAGIC, bytes.getInt());
+        assertEquals(HistoryFormat.BINARY_VERSION, bytes.getInt());
+        assertEquals(4 * 5 + 4 + 2 + 10, bytes.getInt()); // Record length: five ints plus the string bytes
+        assertEquals("Zoë", string(bytes));
+        assertEquals(41, bytes.getInt());
+        assertEquals(-1, bytes.getInt());                  // Null contact number
+        assertEquals("T7", string(bytes));
+        assertEquals("2025-11-28", string(bytes));
+        assertFalse(bytes.hasRemaining());
+    }
+
+    @Test
+    void nullsAndEmptyStringsSurviveARoundTripInBothFormats() throws IOException {
+        for (HistoryFormat format : HistoryFormat.values()) {
+            List<Visitor> visitors = roundTrip(format, 64, List.of(
+                    new Visitor(null, 30, "", "T1", null),
+                    new Visitor("", 31, null, null, ""),
+                    new Visitor("Amy", 32, "555-0100", "T3", "2025-11-28")));
+            assertNull(visitors.get(0).getName(), format.name());
+            assertEquals("", visitors.get(0).getContactNumber());
+            assertNull(visitors.get(0).getVisitDate());
+            assertEquals("", visitors.get(1).getName());
+            assertNull(visitors.get(1).getContactNumber());
+            assertNull(visitors.get(1).getTicketId());
+            assertEquals("", visitors.get(1).getVisitDate());
+            assertEquals("Amy", visitors.get(2).getName());
+        }
+    }
+
+    @Test
+    void fieldsLongerThanTheBufferRoundTripInBothFormats() throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            name.append(i % 3 == 0 ? "ä" : i % 3 == 1 ? "😀" : "a,\"");
+        }
+        Visitor visitor = new Visitor(name.toString(), 99, "555-0100", "T1", "2025-11-28");
+        for (HistoryFormat format : HistoryFormat.values()) {
+            for (boolean gzip : new boolean[] {false, true}) {
+                Visitor imported = roundTrip(format, gzip, 64, List.of(visitor, visitor)).get(1);
+                assertEquals(visitor.getName(), imported.getName(), format + " gzip=" + gzip);
+                assertEquals(99, imported.getAge());
+            }
+        }
+    }
+
+    @Test
+    void utf8LengthMatchesStringGetBytes() {
+        String[] values = {"", "abc", "Zoë", "李雷", "😀", "a\uD800", "\uDC00b", "😀\uD83D"};
+        for (String value : values) {
+            assertEquals(value.getBytes(StandardCharsets.UTF_8).length, HistoryExporter.utf8Length(value), value);
+        }
+        assertEquals(-1, HistoryExporter.utf8Length(null));
+    }
+
+    private List<Visitor> roundTrip(HistoryFormat format, int bufferSize, List<Visitor> visitors) throws IOException {
+        return roundTrip(format, false, bufferSize, visitors);
+    }
+
+    private List<Visitor> roundTrip(HistoryFormat format, boolean gzip, int bufferSize, List<Visitor> visitors) throws IOException {
+        Path file = Files.createTempFile(folder, "history", gzip ? ".gz" : ".dat");
+        new HistoryExporter(format, gzip, bufferSize).export(visitors, file);
+        Ride ride = new Ride("Imported", 4, null);
+        HistoryImporter.ImportResult result = new HistoryImporter(true).importHistory(file, ride);
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        List<Visitor> imported = new ArrayList<>();
+        Iterator<Visitor> iterator = ride.getHistory().iterator();
+        while (iterator.hasNext()) {
+            imported.add(iterator.next());
+        }
+        assertEquals(visitors.size(), imported.size());
+        return imported;
+    }
+
+    // Reads an int byte length followed by that many UTF-8 bytes
+    private static String string(ByteBuffer bytes) {
+        byte[] text = new byte[bytes.getInt()];
+        bytes.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+}
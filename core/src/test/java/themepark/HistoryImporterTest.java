@@ -0,0 +1,157 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * HistoryImporterTest class - Export/import round trips and chunked, memory-mapped parsing
+ * The large files are several MB, so with four pool workers they are split into several 1 MB chunks
+ */
+class HistoryImporterTest {
+    private static final int LARGE = 120_000; // Records in the multi-chunk files
+
+    private static ForkJoinPool pool;
+
+    @TempDir
+    Path folder;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void csvRoundTripKeepsEveryField() throws IOException {
+        assertRoundTrip(HistoryFormat.CSV, false, awkwardVisitors());
+    }
+
+    @Test
+    void binaryRoundTripKeepsEveryField() throws IOException {
+        assertRoundTrip(HistoryFormat.BINARY, false, awkwardVisitors());
+    }
+
+    @Test
+    void gzipRoundTripsInBothFormats() throws IOException {
+        assertRoundTrip(HistoryFormat.CSV, true, visitors(5_000));
+        assertRoundTrip(HistoryFormat.BINARY, true, visitors(5_000));
+    }
+
+    @Test
+    void chunkedImportKeepsFileOrder() throws IOException {
+        List<Visitor> visitors = visitors(LARGE);
+        for (HistoryFormat format : HistoryFormat.values()) {
+            Path file = folder.resolve("large-" + format);
+            new HistoryExporter(format, false).export(visitors, file);
+            assertTrue(Files.size(file) > 4L << 20, "File must span several chunks");
+            assertRoundTrip(format, false, visitors);
+        }
+    }
+
+    @Test
+    void lenientImportSkipsBadLinesWithFileLineNumbers() throws IOException {
+        Path file = csvWithBadLine(LARGE, 100_000);
+        Ride ride = new Ride("Imported", 4, null);
+        HistoryImporter.ImportResult result = new HistoryImporter(false, pool).importHistory(file, ride);
+
+        assertEquals(LARGE - 1, result.getRecordsImported());
+        assertEquals(LARGE - 1, ride.getHistory().size());
+        assertEquals(List.of("Line 100002: Expected 5 fields but found 1"), result.getErrors()); // Header is line 1
+        assertEquals("T100001", ride.getHistory().get(100_000).getTicketId()); // Later chunks still in order
+    }
+
+    @Test
+    void strictImportAddsNothingOnBadLine() throws IOException {
+        Path file = csvWithBadLine(LARGE, 100_000);
+        Ride ride = new Ride("Imported", 4, null);
+        IOException failure = assertThrows(IOException.class,
+                () -> new HistoryImporter(true, pool).importHistory(file, ride));
+
+        assertEquals("Line 100002: Expected 5 fields but found 1", failure.getMessage());
+        assertEquals(0, ride.getHistory().size());
+    }
+
+    @Test
+    void truncatedBinaryFileKeepsWholeRecords() throws IOException {
+        Path file = folder.resolve("history.bin");
+        new HistoryExporter(HistoryFormat.BINARY, false).export(visitors(10), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        Ride ride = new Ride("Imported", 4, null);
+        HistoryImporter.ImportResult result = new HistoryImporter(false, pool).importHistory(file, ride);
+        assertEquals(9, result.getRecordsImported());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Record 10: "), result.getErrors().get(0));
+    }
+
+    private void assertRoundTrip(HistoryFormat format, boolean gzip, List<Visitor> visitors) throws IOException {
+        Path file = Files.createTempFile(folder, "history", gzip ? ".gz" : ".dat");
+        new HistoryExporter(format, gzip).export(visitors, file);
+        Ride ride = new Ride("Imported", 4, null);
+        HistoryImporter.ImportResult result = new HistoryImporter(true, pool).importHistory(file, ride);
+
+        assertEquals(visitors.size(), result.getRecordsImported());
+        assertTrue(result.getErrors().isEmpty());
+        Iterator<Visitor> imported = ride.getHistory().iterator();
+        for (Visitor expected : visitors) {
+            Visitor actual = imported.next();
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getAge(), actual.getAge());
+            assertEquals(expected.getContactNumber(), actual.getContactNumber());
+            assertEquals(expected.getTicketId(), actual.getTicketId());
+            assertEquals(expected.getVisitDate(), actual.getVisitDate());
+        }
+    }
+
+    private Path csvWithBadLine(int records, int badRecord) throws IOException {
+        StringBuilder csv = new StringBuilder(HistoryFormat.CSV_HEADER).append('\n');
+        for (int i = 0; i < records; i++) {
+            if (i == badRecord) {
+                csv.append("not a record\n");
+            } else {
+                csv.append("Guest ").append(i).append(",30,555-0100,T").append(i).append(",2025-11-28\n");
+            }
+        }
+        Path file = folder.resolve("bad.csv");
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    // Values that need CSV quoting, non-ASCII text and a visit date that is not "YYYY-MM-DD"
+    private static List<Visitor> awkwardVisitors() {
+        List<Visitor> visitors = new ArrayList<>();
+        visitors.add(new Visitor("Smith, Jane", 28, "987-654-3210", "TICKET001", "2025-11-28"));
+        visitors.add(new Visitor("Tom \"TJ\" Lee", 12, "111-222-3333", "TICKET002", "2025-11-29"));
+        visitors.add(new Visitor("Zoë Müller", 64, "+49 30 1234", "TICKET003", "Simulated"));
+        visitors.add(new Visitor("", 0, "", "TICKET004", "2025-02-30"));
+        return visitors;
+    }
+
+    private static List<Visitor> visitors(int count) {
+        List<Visitor> visitors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            visitors.add(new Visitor("Guest " + i, i % 90, "555-" + i, "T" + i, "2025-11-" + (10 + i % 20)));
+        }
+        return visitors;
+    }
+}
@@ -0,0 +1,254 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * HistoryJournalTest class - Replay of journaled history, torn-tail recovery and write-ahead behaviour
+ */
+class HistoryJournalTest {
+    @TempDir
+    Path folder;
+
+    @Test
+    void replayRestoresEveryRideInBoardingOrder() throws IOException {
+        Path file = folder.resolve("history.journal");
+        Ride coaster = ride("Thunderbolt");
+        Ride wheel = ride("Sky Wheel");
+        try (HistoryJournal journal = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            coaster.setJournal(journal);
+            wheel.setJournal(journal);
+            board(coaster, 0, 5);
+            board(wheel, 100, 3);
+            coaster.addVisitorToHistory(new Visitor("Zoë Müller", 64, null, "T999", "Simulated"));
+        }
+
+        Ride restoredCoaster = new Ride("Thunderbolt", 2, null);
+        Ride restoredWheel = new Ride("Sky Wheel", 2, null);
+        assertEquals(9, HistoryJournal.replay(file, List.of(restoredCoaster, restoredWheel)));
+        assertEquals(tickets(coaster), tickets(restoredCoaster));
+        assertEquals(tickets(wheel), tickets(restoredWheel));
+        Visitor last = restoredCoaster.getHistory().get(5);
+        assertEquals("Zoë Müller", last.getName());
+        assertNull(last.getContactNumber());
+        assertEquals("Simulated", last.getVisitDate());
+    }
+
+    @Test
+    void tornTailIsIgnoredByReplayAndCutOffOnReopen() throws IOException {
+        Path file = folder.resolve("history.journal");
+        Ride coaster = ride("Thunderbolt");
+        try (HistoryJournal journal = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            coaster.setJournal(journal);
+            board(coaster, 0, 4); // Two batches of two
+        }
+        long complete = Files.size(file);
+        try (HistoryJournal journal = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            coaster.setJournal(journal);
+            board(coaster, 10, 2);
+        }
+        // Simulate a crash in the middle of writing the third batch
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(complete + (Files.size(file) - complete) / 2);
+        }
+
+        Ride restored = new Ride("Thunderbolt", 2, null);
+        assertEquals(4, HistoryJournal.replay(file, List.of(restored)));
+
+        // Reopening cuts the torn batch off, so new batches follow the last complete one
+        try (HistoryJournal journal = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            Ride reopened = ride("Thunderbolt");
+            reopened.setJournal(journal);
+            board(reopened, 20, 2);
+        }
+        Ride again = new Ride("Thunderbolt", 2, null);
+        assertEquals(6, HistoryJournal.replay(file, List.of(again)));
+        assertEquals(List.of("T0", "T1", "T2", "T3", "T20", "T21"), tickets(again));
+    }
+
+    @Test
+    void failedAppendKeepsBatchOutOfHistoryAndRetriesIt() throws IOException {
+        Path file = folder.resolve("history.journal");
+        Ride coaster = ride("Thunderbolt");
+        HistoryJournal journal = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS);
+        coaster.setJournal(journal);
+        for (int i = 0; i < 4; i++) {
+            coaster.addVisitorToQueue(visitor(i));
+        }
+        assertEquals(2, coaster.boardOneCycle());
+        journal.close(); // Appends fail from now on
+
+        assertEquals(0, coaster.boardOneCycle());
+        assertEquals(2, coaster.getHistory().size());
+        assertEquals(0, coaster.getQueue().size());
+        assertTrue(coaster.addAllToHistory(new ArrayList<>()));
+        assertFalse(coaster.addAllToHistory(new ArrayList<>(List.of(visitor(50)))));
+        coaster.addVisitorToHistory(visitor(51));
+        assertEquals(2, coaster.getHistory().size());
+
+        try (HistoryJournal reopened = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+            coaster.setJournal(reopened);
+            assertEquals(2, coaster.boardOneCycle()); // The held batch boards first
+        }
+        assertEquals(List.of("T0", "T1", "T2", "T3"), tickets(coaster));
+        Ride restored = new Ride("Thunderbolt", 2, null);
+        HistoryJournal.replay(file, List.of(restored));
+        assertEquals(tickets(coaster), tickets(restored));
+    }
+
+    @Test
+    void heldBatchBoardsOnceWhenCyclesRace() throws Exception {
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                Path file = folder.resolve("race-" + round + ".journal");
+                Ride coaster = new Ride("Thunderbolt", 2, new Employee("Operator", 30, "000-000-0000", "EMP001", "General"),
+                        new VisitorQueue(true, VisitorQueue.UNBOUNDED));
+                HistoryJournal failing = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS);
+                failing.close();
+                coaster.setJournal(failing);
+                for (int i = 0; i < 10; i++) {
+                    coaster.addVisitorToQueue(visitor(i));
+                }
+                assertEquals(0, coaster.boardOneCycle()); // T0 and T1 are now held
+
+                try (HistoryJournal journal = new HistoryJournal(file, true, HistoryJournal.DEFAULT_FLUSH_INTERVAL_MILLIS)) {
+                    coaster.setJournal(journal);
+                    CountDownLatch start = new CountDownLatch(1);
+                    List<Future<?>> cycles = new ArrayList<>();
+                    for (int t = 0; t < threads; t++) {
+                        cycles.add(pool.submit(() -> {
+                            start.await();
+                            while (coaster.boardOneCycle() > 0) {
+                                // Keep boarding
+                            }
+                            return null;
+                        }));
+                    }
+                    start.countDown();
+                    for (Future<?> cycle : cycles) {
+                        cycle.get(30, TimeUnit.SECONDS);
+                    }
+                }
+                List<String> boarded = tickets(coaster);
+                assertEquals(10, boarded.size(), "Round " + round + ": " + boarded);
+                assertEquals(10, new HashSet<>(boarded).size(), "Round " + round + ": " + boarded);
+                assertEquals(List.of("T0", "T1"), boarded.subList(0, 2)); // The held batch boarded first
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void interruptedAppenderKeepsWaitingWithoutSpinning() throws Exception {
+        Path file = folder.resolve("history.journal");
+        Ride coaster = ride("Thunderbolt");
+        List<Visitor> batch = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            batch.add(visitor(i));
+        }
+        // A long flush interval keeps the flusher gathering, so the appender fills the pending buffer and blocks
+        HistoryJournal journal = new HistoryJournal(file, false, TimeUnit.MINUTES.toMillis(1));
+        AtomicInteger appends = new AtomicInteger();
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread appender = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    journal.append(coaster, batch);
+                    appends.incrementAndGet();
+                }
+                interruptKept.set(true);
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        appender.setDaemon(true);
+        appender.start();
+        awaitState(appender, Thread.State.WAITING);
+        int appendsBeforeInterrupt = appends.get();
+        appender.interrupt();
+        Thread.sleep(50);
+
+        // Checked before touching the journal: a spinning appender would never let go of its lock
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuBefore = threads.getThreadCpuTime(appender.getId());
+        Thread.sleep(300);
+        long cpuUsed = threads.getThreadCpuTime(appender.getId()) - cpuBefore;
+        assertTrue(cpuUsed < TimeUnit.MILLISECONDS.toNanos(100), "Blocked appender used " + cpuUsed + " ns of CPU");
+        assertEquals(Thread.State.WAITING, appender.getState());
+        assertEquals(appendsBeforeInterrupt, appends.get());
+
+        journal.sync(); // Wakes the flusher, which makes room in the pending buffer
+        appender.join(TimeUnit.SECONDS.toMillis(30));
+        assertFalse(appender.isAlive());
+        assertNull(error.get());
+        assertTrue(interruptKept.get()); // The blocked append finished, then the loop saw the interrupt
+        assertEquals(appendsBeforeInterrupt + 1, appends.get());
+        journal.close();
+
+        Ride restored = new Ride("Thunderbolt", 2, null);
+        assertEquals(appends.get() * 1_000L, HistoryJournal.replay(file, List.of(restored)));
+    }
+
+    // Waits until the thread reaches the given state (fails after 30 seconds)
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (thread.getState() != state) {
+            assertTrue(System.nanoTime() < deadline, "Thread never reached " + state);
+            Thread.sleep(1);
+        }
+    }
+
+    private static Ride ride(String name) {
+        return new Ride(name, 2, new Employee("Operator", 30, "000-000-0000", "EMP001", "General"));
+    }
+
+    // Queues count visitors numbered from first and runs cycles until they have all boarded
+    private static void board(Ride ride, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            ride.addVisitorToQueue(visitor(i));
+        }
+        while (ride.boardOneCycle() > 0) {
+            // Keep boarding
+        }
+    }
+
+    private static Visitor visitor(int number) {
+        return new Visitor("Guest " + number, 30, "555-0100", "T" + number, "2025-11-28");
+    }
+
+    private static List<String> tickets(Ride ride) {
+        List<String> tickets = new ArrayList<>();
+        for (Visitor visitor : ride.getHistory()) {
+            tickets.add(visitor.getTicketId());
+        }
+        return tickets;
+    }
+}
@@ -0,0 +1,91 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * LatencyHistogramTest class - Bucket boundaries, percentile accuracy and counters of LatencyHistogram
+ */
+class LatencyHistogramTest {
+    private static final double RELATIVE_ERROR = 1.0 / 32; // One sub-bucket out of 32 per power of two
+    private static final long FAR_ABOVE = 1L << 50;        // Recorded with each probe so the probe is not the maximum
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, reportedValue(value), "Value " + value);
+        }
+    }
+
+    @Test
+    void largerValuesShareSubBucketsOfEachPowerOfTwo() {
+        assertEquals(65, reportedValue(64));   // From 64, buckets are two wide: [64, 65]
+        assertEquals(65, reportedValue(65));
+        assertEquals(67, reportedValue(66));
+        assertEquals(127, reportedValue(126)); // Last sub-bucket below 128
+        assertEquals(131, reportedValue(128)); // Four wide from 128: [128, 131]
+        assertEquals((1L << 20) + (1L << 15) - 1, reportedValue(1L << 20));
+        assertEquals((1L << 20) - 1, reportedValue((1L << 20) - 1)); // Top of the previous power of two
+    }
+
+    @Test
+    void everyValueIsReportedWithinTheRelativeError() {
+        for (long value = 1; value > 0 && value < (1L << 49); value = value * 3 + 7) {
+            long reported = reportedValue(value);
+            assertTrue(reported >= value, "Value " + value + " reported as " + reported);
+            assertTrue(reported - value <= value * RELATIVE_ERROR, "Value " + value + " reported as " + reported);
+        }
+    }
+
+    @Test
+    void percentilesOfAUniformSpreadAreAccurate() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+        assertEquals(100_000, histogram.getMax());
+        for (double percentile : new double[] {1, 25, 50, 90, 95, 99, 99.9}) {
+            double expected = percentile * 1_000;
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= expected && reported <= expected * (1 + RELATIVE_ERROR),
+                    "P" + percentile + " reported as " + reported);
+        }
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0)); // The smallest value
+    }
+
+    @Test
+    void extremeValuesAreClampedOrKept() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5); // Recorded as 0
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+    }
+
+    @Test
+    void emptyAndResetHistogramsReportZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0.0, histogram.getMean());
+        histogram.record(1_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    // Records the value and a much larger one; the median is then the upper bound of the value's bucket
+    private static long reportedValue(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(FAR_ABOVE);
+        return histogram.getValueAtPercentile(50);
+    }
+}
@@ -0,0 +1,86 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ParkSimulationTest class - Repeatable runs for a fixed seed, and the lanes' clock after a run
+ */
+class ParkSimulationTest {
+    @Test
+    void sameSeedGivesTheSameDay() {
+        List<Ride> first = rides();
+        List<Ride> second = rides();
+        SimulationReport a = simulation(first, 42L).run(5_000);
+        SimulationReport b = simulation(second, 42L).run(5_000);
+
+        assertEquals(a.toString(), b.toString());
+        assertEquals(a.getTotalBoarded(), b.getTotalBoarded());
+        for (int r = 0; r < first.size(); r++) {
+            SimulationReport.RideStats x = a.getRides().get(r);
+            SimulationReport.RideStats y = b.getRides().get(r);
+            assertEquals(x.getArrivals(), y.getArrivals());
+            assertEquals(x.getTurnedAway(), y.getTurnedAway());
+            assertEquals(x.getBoarded(), y.getBoarded());
+            assertEquals(x.getLeftInQueue(), y.getLeftInQueue());
+            assertEquals(x.getMaxQueueLength(), y.getMaxQueueLength());
+            assertEquals(x.getAverageQueueLength(), y.getAverageQueueLength());
+            assertEquals(x.getAverageWait(), y.getAverageWait());
+            assertEquals(x.getWaitPercentile(95), y.getWaitPercentile(95));
+            assertEquals(tickets(first.get(r).getHistory()), tickets(second.get(r).getHistory())); // Same riders, same order
+        }
+        assertTrue(a.getTotalBoarded() > 0);
+
+        SimulationReport other = simulation(rides(), 43L).run(5_000);
+        assertNotEquals(a.toString(), other.toString());
+    }
+
+    @Test
+    void lanesGetTheirClockBackAfterTheRun() {
+        List<Ride> rides = rides();
+        BoardingLanes lanes = rides.get(0).getLanes();
+        LongSupplier clock = () -> 123L;
+        lanes.setClock(clock);
+        long unitNanos = lanes.getClockUnitNanos();
+        simulation(rides, 42L).run(1_000);
+        assertSame(clock, lanes.getClock());
+        assertEquals(unitNanos, lanes.getClockUnitNanos());
+    }
+
+    // A coaster with lanes and a bounded queue, and a plain ride
+    private static List<Ride> rides() {
+        Ride coaster = new Ride("Thunderbolt", 12, operator(), new VisitorQueue(false, 200));
+        coaster.enableLanes(0.3, 0.2).setSlotLength(15 * 60_000L);
+        Ride wheel = new Ride("Sky Wheel", 30, operator());
+        return List.of(coaster, wheel);
+    }
+
+    private static ParkSimulation simulation(List<Ride> rides, long seed) {
+        ParkSimulation simulation = new ParkSimulation(8 * 60, seed);
+        simulation.setArrivalDistribution(ArrivalDistribution.peak(0.4));
+        simulation.setLaneUsage(0.2, 0.3, 45);
+        simulation.addRide(rides.get(0), 3.0, 2.0);
+        simulation.addRide(rides.get(1), 10.0, 1.0);
+        return simulation;
+    }
+
+    private static Employee operator() {
+        return new Employee("Operator", 30, "000-000-0000", "EMP001", "General");
+    }
+
+    private static List<String> tickets(Iterable<Visitor> visitors) {
+        List<String> tickets = new ArrayList<>();
+        for (Visitor visitor : visitors) {
+            tickets.add(visitor.getTicketId());
+        }
+        return tickets;
+    }
+}
@@ -0,0 +1,169 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ParkSnapshotTest class - Snapshot round trips and history lookups across the mapped and heap parts after a load
+ */
+class ParkSnapshotTest {
+    @TempDir
+    Path folder;
+
+    @Test
+    void loadRestoresSettingsQueuesLanesAndHistory() throws IOException {
+        Ride coaster = new Ride("Thunderbolt", 3,
+                new Employee("Zoë Müller", 41, null, "EMP007", "Roller Coaster"), new VisitorQueue(true, 50));
+        BoardingLanes lanes = coaster.enableLanes(0.5, 0.25);
+        lanes.setSlotLength(1_000);
+        lanes.setSlotCapacity(4);
+        lanes.setClock(() -> 0L); // Reservations below are not due yet
+        for (int i = 0; i < 4; i++) {
+            coaster.addVisitorToQueue(visitor(i));
+        }
+        coaster.addVisitorToFastPass(visitor(10));
+        assertTrue(coaster.reserveVirtualQueue(visitor(20), 5_500));
+        assertTrue(coaster.reserveVirtualQueue(visitor(21), 5_900));
+        assertTrue(coaster.reserveVirtualQueue(visitor(22), 9_000));
+        coaster.addVisitorToHistory(new Visitor("Tom \"TJ\" Lee", 12, null, "T30", "Simulated"));
+        Ride empty = new Ride("Sky Wheel", 6, null);
+
+        Path file = folder.resolve("park.snapshot");
+        long size = ParkSnapshot.write(file, List.of(coaster, empty));
+        assertEquals(Files.size(file), size);
+        List<Ride> rides = ParkSnapshot.load(file);
+
+        assertEquals(2, rides.size());
+        Ride restored = rides.get(0);
+        assertEquals("Thunderbolt", restored.getRideName());
+        assertEquals(3, restored.getMaxCapacity());
+        assertEquals("EMP007", restored.getOperator().getEmployeeId());
+        assertEquals("Zoë Müller", restored.getOperator().getName());
+        assertNull(restored.getOperator().getContactNumber());
+        assertTrue(restored.getQueue().isConcurrent());
+        assertEquals(50, restored.getQueue().getCapacity());
+        assertEquals(List.of("T0", "T1", "T2", "T3"), tickets(restored.getQueue().copy()));
+
+        BoardingLanes restoredLanes = restored.getLanes();
+        assertEquals(0.5, restoredLanes.getFastPassShare());
+        assertEquals(0.25, restoredLanes.getVirtualShare());
+        assertEquals(1_000, restoredLanes.getSlotLength());
+        assertEquals(4, restoredLanes.getSlotCapacity());
+        assertEquals(1, restoredLanes.getFastPassLength());
+        assertEquals(3, restoredLanes.getVirtualCount());
+        assertEquals(2, restoredLanes.getReservations(5_000));
+        assertEquals(1, restoredLanes.getReservations(9_000));
+
+        Visitor rider = restored.getHistory().get(0);
+        assertEquals("Tom \"TJ\" Lee", rider.getName());
+        assertNull(rider.getContactNumber());
+        assertEquals("Simulated", rider.getVisitDate());
+
+        Ride restoredEmpty = rides.get(1);
+        assertEquals("Sky Wheel", restoredEmpty.getRideName());
+        assertNull(restoredEmpty.getOperator());
+        assertNull(restoredEmpty.getLanes());
+        assertTrue(restoredEmpty.getQueue().isEmpty());
+        assertEquals(0, restoredEmpty.getHistory().size());
+    }
+
+    @Test
+    void countRidesSpansMappedAndHeapHistoryAfterLoad() throws IOException {
+        Ride ride = new Ride("Thunderbolt", 4, new Employee("Operator", 30, "000-000-0000", "EMP001", "General"));
+        for (int i = 0; i < 10; i++) {
+            ride.addVisitorToHistory(visitor(i));
+        }
+        ride.addVisitorToHistory(visitor(3)); // T3 rode twice before the snapshot
+        Path file = folder.resolve("park.snapshot");
+        ParkSnapshot.write(file, List.of(ride));
+
+        Ride restored = ParkSnapshot.load(file).get(0);
+        RideHistory history = restored.getHistory();
+        assertEquals(11, history.size());
+        assertEquals(2, history.countRides("T3"));
+        assertTrue(history.containsTicket("T9"));
+        assertFalse(history.containsTicket("T100"));
+
+        // New boardings go to the heap part; a ticket from the snapshot carries its earlier rides forward
+        restored.addVisitorToQueue(visitor(3));
+        restored.addVisitorToQueue(visitor(100));
+        restored.addVisitorToQueue(visitor(100));
+        restored.addVisitorToQueue(visitor(5));
+        assertEquals(4, restored.boardOneCycle());
+
+        assertEquals(15, history.size());
+        assertEquals(3, history.countRides("T3"));
+        assertEquals(2, history.countRides("T100"));
+        assertEquals(2, history.countRides("T5"));
+        assertEquals(1, history.countRides("T9"));
+        assertEquals(0, history.countRides("T999"));
+        assertTrue(history.containsTicket("T100"));
+        assertFalse(history.containsTicket("T999"));
+        assertFalse(history.containsTicket(null));
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add("T" + i);
+        }
+        expected.addAll(List.of("T3", "T3", "T100", "T100", "T5"));
+        assertEquals(expected, tickets(history));
+        assertEquals("Guest 100", history.get(13).getName());
+    }
+
+    @Test
+    void snapshotOfLoadedRideWritesBothParts() throws IOException {
+        Ride ride = new Ride("Thunderbolt", 4, null);
+        for (int i = 0; i < 5; i++) {
+            ride.addVisitorToHistory(visitor(i));
+        }
+        Path first = folder.resolve("first.snapshot");
+        ParkSnapshot.write(first, List.of(ride));
+        Ride restored = ParkSnapshot.load(first).get(0);
+        restored.addVisitorToHistory(visitor(0));
+        restored.addVisitorToHistory(visitor(50));
+
+        Path second = folder.resolve("second.snapshot");
+        ParkSnapshot.write(second, List.of(restored));
+        RideHistory history = ParkSnapshot.load(second).get(0).getHistory();
+        assertEquals(List.of("T0", "T1", "T2", "T3", "T4", "T0", "T50"), tickets(history));
+        assertEquals(2, history.countRides("T0"));
+        assertEquals(1, history.countRides("T50"));
+    }
+
+    @Test
+    void loadRejectsFilesThatAreNotSnapshots() throws IOException {
+        Path file = folder.resolve("park.snapshot");
+        Files.write(file, new byte[32]);
+        assertThrows(IOException.class, () -> ParkSnapshot.load(file));
+
+        ParkSnapshot.write(file, List.of(new Ride("Thunderbolt", 4, null)));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> ParkSnapshot.load(file));
+    }
+
+    private static Visitor visitor(int number) {
+        return new Visitor("Guest " + number, 30, "555-0100", "T" + number, "2025-11-28");
+    }
+
+    private static List<String> tickets(Iterable<Visitor> visitors) {
+        List<String> tickets = new ArrayList<>();
+        for (Visitor visitor : visitors) {
+            tickets.add(visitor.getTicketId());
+        }
+        return tickets;
+    }
+}
@@ -0,0 +1,50 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ParkWorkersTest class - Registration and scatter-gather queries in actor mode
+ */
+class ParkWorkersTest {
+    @Test
+    void registerRejectsDuplicateRideNames() {
+        try (ParkWorkers workers = new ParkWorkers(2)) {
+            RideActor first = workers.register(ride("Thunderbolt"));
+            assertThrows(IllegalArgumentException.class, () -> workers.register(ride("Thunderbolt")));
+            assertSame(first, workers.getActor("Thunderbolt"));
+            assertEquals(1, workers.getActors().size());
+        }
+    }
+
+    @Test
+    void scatterGathersAnswersFromEveryRide() {
+        try (ParkWorkers workers = new ParkWorkers(2)) {
+            String[] rideNames = {"Thunderbolt", "Splash Mountain", "Sky Wheel"};
+            for (int r = 0; r < rideNames.length; r++) {
+                RideActor actor = workers.register(ride(rideNames[r]));
+                for (int i = 0; i < 5 + r; i++) {
+                    actor.addVisitorToQueue(visitor(r * 10 + i));
+                }
+            }
+            assertEquals(12L, workers.runOneCycleEverywhere().join()); // 4 seats on each ride
+            assertEquals(12L, workers.totalVisitors().join());
+            assertEquals(6L, workers.totalQueueLength().join());
+            assertEquals(List.of("Splash Mountain"), workers.ridesTakenBy("T10").join());
+            assertEquals(List.of(), workers.ridesTakenBy("T4").join()); // Still waiting for the Thunderbolt
+        }
+    }
+
+    private static Ride ride(String name) {
+        return new Ride(name, 4, new Employee("Operator", 30, "000-000-0000", "EMP001", "General"), new VisitorQueue(false, 0));
+    }
+
+    private static Visitor visitor(int number) {
+        return new Visitor("Guest " + number, 30, "555-0100", "T" + number, "2025-11-28");
+    }
+}
@@ -0,0 +1,163 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * RideHistoryTest class - Ticket lookups across the heap and mapped parts, raw date codes and captured images
+ */
+class RideHistoryTest {
+    @TempDir
+    Path folder;
+
+    @Test
+    void ticketLookupsSpanHeapPartAndMappedBase() throws IOException {
+        RideHistory history = loaded(List.of(visitor("Amy", 0), visitor("Bob", 1), visitor("Bob", 1), visitor("Cat", 2)));
+        history.add(visitor("Bob", 1));         // Ticket already in the base, same profile
+        history.add(visitor("Bobby", 2));       // Ticket already in the base, changed name: new profile, count carried
+        history.add(visitor("Dan", 3));         // New ticket, heap only
+        history.add(visitor("Dan", 3));
+
+        assertEquals(8, history.size());
+        assertTrue(history.containsTicket("T0")); // Base only
+        assertEquals(1, history.countRides("T0"));
+        assertEquals(3, history.countRides("T1"));
+        assertEquals(2, history.countRides("T2"));
+        assertEquals("Bobby", history.get(5).getName());
+        assertEquals("Cat", history.get(3).getName());
+        assertEquals(2, history.countRides("T3"));
+        assertFalse(history.containsTicket("T4"));
+        assertEquals(0, history.countRides("T4"));
+        assertFalse(history.containsTicket(null));
+        assertEquals(0, history.countRides(null));
+    }
+
+    @Test
+    void ticketLookupsSurviveBloomFilterGrowth() throws IOException {
+        RideHistory history = loaded(List.of(visitor("Base", 0)));
+        int tickets = 3_000; // Past the filter's initial 1024 tickets, so it is rebuilt twice
+        for (int i = 1; i <= tickets; i++) {
+            history.add(visitor("Guest", i));
+        }
+        history.add(visitor("Base", 0));
+        for (int i = 0; i <= tickets; i++) {
+            assertTrue(history.containsTicket("T" + i), "T" + i);
+        }
+        assertEquals(2, history.countRides("T0"));
+        assertEquals(1, history.countRides("T" + tickets));
+        int unknownFound = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (history.containsTicket("X" + i)) {
+                unknownFound++;
+            }
+        }
+        assertEquals(0, unknownFound); // Filter hits are confirmed by the index, so no false positives leak out
+    }
+
+    @Test
+    void rawDatesAreStoredAtBasePlusDictionaryIndex() {
+        RideHistory history = new RideHistory();
+        String[] dates = {"Unknown", "2025-11-28", "Simulated", "Unknown", "2025-02-30", "Simulated"};
+        for (int i = 0; i < dates.length; i++) {
+            history.add(new Visitor("Guest " + i, 30, "555-0100", "T" + i, dates[i]));
+        }
+        RideHistory.Image image = history.capture();
+        assertEquals(List.of("Unknown", "Simulated", "2025-02-30"), image.getRawDates());
+        int[] expectedCodes = {
+            VisitDates.INVALID, VisitDates.parse("2025-11-28"), VisitDates.INVALID + 1,
+            VisitDates.INVALID, VisitDates.INVALID + 2, VisitDates.INVALID + 1
+        };
+        for (int i = 0; i < dates.length; i++) {
+            assertEquals(expectedCodes[i], image.recordDate(i), dates[i]);
+            Visitor rider = history.get(i);
+            assertEquals(dates[i], rider.getVisitDate());
+            assertEquals(VisitDates.parse(dates[i]), rider.getVisitEpochDay());
+        }
+    }
+
+    @Test
+    void rawDatesFromTheBaseKeepTheirCodes() throws IOException {
+        RideHistory history = loaded(List.of(
+                new Visitor("Amy", 30, null, "T0", "Simulated"), new Visitor("Bob", 30, null, "T1", "Unknown")));
+        history.add(new Visitor("Cat", 30, null, "T2", "Unknown"));   // Already in the base dictionary
+        history.add(new Visitor("Dan", 30, null, "T3", "Tomorrow"));  // New raw date, next index
+        RideHistory.Image image = history.capture();
+        assertEquals(List.of("Simulated", "Unknown", "Tomorrow"), image.getRawDates());
+        assertEquals(VisitDates.INVALID + 1, image.recordDate(2));
+        assertEquals(VisitDates.INVALID + 2, image.recordDate(3));
+        assertEquals(List.of("Simulated", "Unknown", "Unknown", "Tomorrow"), dates(history));
+    }
+
+    @Test
+    void imageIsUnchangedByLaterAppendsToSharedArrays() {
+        RideHistory history = new RideHistory();
+        history.add(visitor("Amy", 0));
+        history.add(new Visitor("Bob", 40, "555-0100", "T1", "Unknown"));
+        history.add(visitor("Amy", 0));
+        RideHistory.Image image = history.capture();
+
+        // Within capacity: the history writes past the image's count in the very arrays the image holds
+        history.add(new Visitor("Cat", 25, "555-0100", "T2", "Later"));
+        history.add(visitor("Amy Changed", 0));
+        assertImage(image);
+
+        // Past capacity: the history moves to new arrays, the image keeps the old ones
+        for (int i = 3; i < 100; i++) {
+            history.add(visitor("Guest", i));
+        }
+        assertImage(image);
+        assertEquals(102, history.size());
+        assertEquals(List.of("Unknown", "Later"), history.capture().getRawDates());
+    }
+
+    // The three records captured above, read through the image
+    private static void assertImage(RideHistory.Image image) {
+        assertEquals(3, image.getRecordCount());
+        assertEquals(2, image.getProfileCount());
+        assertEquals(List.of("Unknown"), image.getRawDates());
+        int[] profiles = {0, 1, 0};
+        for (int i = 0; i < profiles.length; i++) {
+            assertEquals(profiles[i], image.recordProfile(i));
+        }
+        assertEquals(VisitDates.parse("2025-11-28"), image.recordDate(0));
+        assertEquals(VisitDates.INVALID, image.recordDate(1));
+        assertEquals("Amy", image.profileName(0));
+        assertEquals("T0", image.profileTicket(0));
+        assertEquals(30, image.profileAge(0));
+        assertEquals("Bob", image.profileName(1));
+        assertEquals(40, image.profileAge(1));
+        assertEquals("555-0100", image.profileContact(1));
+    }
+
+    // Writes the visitors to a snapshot and returns the loaded history, whose records all sit in the mapped base
+    private RideHistory loaded(List<Visitor> visitors) throws IOException {
+        Ride ride = new Ride("Thunderbolt", 4, null);
+        for (Visitor visitor : visitors) {
+            ride.addVisitorToHistory(visitor);
+        }
+        Path file = folder.resolve("park.snapshot");
+        ParkSnapshot.write(file, List.of(ride));
+        return ParkSnapshot.load(file).get(0).getHistory();
+    }
+
+    private static Visitor visitor(String name, int number) {
+        return new Visitor(name, 30, "555-0100", "T" + number, "2025-11-28");
+    }
+
+    private static List<String> dates(RideHistory history) {
+        List<String> dates = new ArrayList<>();
+        for (Visitor visitor : history) {
+            dates.add(visitor.getVisitDate());
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,127 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * RideMetricsTest class - Ride counters and wait times with metrics disabled and enabled
+ */
+class RideMetricsTest {
+    private static final long PAUSE_MILLIS = 30; // Time visitors are kept waiting in the wait-time tests
+
+    @Test
+    void disabledMetricsRecordNothing() {
+        Ride ride = ride("Thunderbolt", 2, new VisitorQueue());
+        assertNull(ride.getMetrics());
+        for (int i = 0; i < 5; i++) {
+            ride.addVisitorToQueue(visitor(i));
+        }
+        assertEquals(2, ride.boardOneCycle());
+
+        // Enabling starts from zero; visitors queued while metrics were off board without a wait time
+        RideMetrics metrics = ride.enableMetrics();
+        assertSame(metrics, ride.enableMetrics());
+        assertEquals(0, metrics.getEnqueueCount());
+        assertEquals(3, metrics.getQueueLength());
+        assertEquals(2, ride.boardOneCycle());
+        assertEquals(2, metrics.getBoardedCount());
+        assertEquals(0, metrics.getWaitTimes().getCount());
+
+        ride.disableMetrics();
+        assertNull(ride.getMetrics());
+        assertEquals(1, ride.boardOneCycle());
+        assertEquals(2, metrics.getBoardedCount()); // The detached metrics no longer change
+    }
+
+    @Test
+    void enabledMetricsCountQueueAndCycles() {
+        Ride ride = ride("Thunderbolt", 2, new VisitorQueue(false, 5));
+        RideMetrics metrics = ride.enableMetrics();
+        for (int i = 0; i < 6; i++) {
+            ride.addVisitorToQueue(visitor(i)); // The sixth is turned away by the full queue
+        }
+        assertFalse(ride.tryAddVisitorToQueue(visitor(6)));
+        assertEquals(5, metrics.getEnqueueCount());
+        assertEquals(5, metrics.getQueueLength());
+
+        ride.removeVisitorFromQueue();
+        while (ride.boardOneCycle() > 0) {
+            // Cycles of 2, 2 and 0
+        }
+        RideMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals("Thunderbolt", snapshot.getRideName());
+        assertEquals(5, snapshot.getDequeueCount()); // One removal and four boardings
+        assertEquals(4, snapshot.getBoardedCount());
+        assertEquals(2, snapshot.getCycleCount());
+        assertEquals(0, snapshot.getQueueLength());
+        assertEquals(1.0, snapshot.getSeatUtilization());
+        assertEquals(4, metrics.getWaitTimes().getCount());
+        assertEquals(2, metrics.getCycleLatency().getCount());
+
+        ride.addVisitorToQueue(visitor(7));
+        ride.boardOneCycle();
+        assertEquals(5, metrics.getSeatsFilled());
+        assertEquals(6, metrics.getSeatsOffered());
+        assertEquals(5.0 / 6, metrics.getSeatUtilization(), 1e-9);
+
+        metrics.reset();
+        assertEquals(0, metrics.getBoardedCount());
+        assertEquals(0, metrics.getWaitTimes().getCount());
+        assertEquals(0.0, metrics.getSeatUtilization());
+    }
+
+    @Test
+    void waitTimesRunFromJoiningEachRidesQueue() throws InterruptedException {
+        for (boolean concurrent : new boolean[] {false, true}) {
+            Ride first = ride("Thunderbolt", 4, new VisitorQueue(concurrent, VisitorQueue.UNBOUNDED));
+            Ride second = ride("Sky Wheel", 4, new VisitorQueue(concurrent, VisitorQueue.UNBOUNDED));
+            first.enableMetrics();
+            second.enableMetrics();
+            Visitor visitor = visitor(1);
+            first.addVisitorToQueue(visitor);
+            Thread.sleep(PAUSE_MILLIS);
+            second.addVisitorToQueue(visitor); // Same visitor, queued on a second ride later
+            assertEquals(1, second.boardOneCycle());
+            assertEquals(1, first.boardOneCycle());
+
+            long firstWait = first.getMetrics().getWaitTimes().getMax();
+            long secondWait = second.getMetrics().getWaitTimes().getMax();
+            assertTrue(firstWait >= TimeUnit.MILLISECONDS.toNanos(PAUSE_MILLIS), "First ride wait " + firstWait);
+            assertTrue(secondWait < firstWait, "Second ride wait " + secondWait + ", first " + firstWait);
+            assertTrue(first.getMetrics().getWaitTimeMaxMillis() >= PAUSE_MILLIS);
+        }
+    }
+
+    @Test
+    void fullAndPartialCyclesReuseJoinTimesCorrectly() throws InterruptedException {
+        Ride ride = ride("Thunderbolt", 3, new VisitorQueue());
+        RideMetrics metrics = ride.enableMetrics();
+        for (int i = 0; i < 3; i++) {
+            ride.addVisitorToQueue(visitor(i));
+        }
+        Thread.sleep(PAUSE_MILLIS);
+        assertEquals(3, ride.boardOneCycle()); // Three long waits
+
+        ride.addVisitorToQueue(visitor(3));
+        assertEquals(1, ride.boardOneCycle()); // One short wait; earlier join times must not be counted again
+        LatencyHistogram waits = metrics.getWaitTimes();
+        assertEquals(4, waits.getCount());
+        assertTrue(waits.getValueAtPercentile(25) < TimeUnit.MILLISECONDS.toNanos(PAUSE_MILLIS));
+        assertTrue(waits.getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(PAUSE_MILLIS));
+    }
+
+    private static Ride ride(String name, int capacity, VisitorQueue queue) {
+        return new Ride(name, capacity, new Employee("Operator", 30, "000-000-0000", "EMP001", "General"), queue);
+    }
+
+    private static Visitor visitor(int number) {
+        return new Visitor("Guest " + number, 30, "555-0100", "T" + number, "2025-11-28");
+    }
+}
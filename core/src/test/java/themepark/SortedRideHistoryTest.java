@@ -0,0 +1,133 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SortedRideHistoryTest class - Sort order, ranges and detaching of sorted history views
+ */
+class SortedRideHistoryTest {
+    // Names that share long prefixes, differ only in case or length, or use characters above one byte
+    private static final String[] NAMES = {
+        "Tom Lee", "Alexandra Smith", "Alexandra Jones", "Alexandr", "Alexandra", "amy", "Amy", "",
+        "Zoë Müller", "Zoe Muller", "Łukasz", "Ł", "李雷", "李", "Tom Lee", "Alexandra\u0000", "ÿÿÿÿÿÿÿÿa", "ÿÿÿÿÿÿÿÿ"
+    };
+
+    @Test
+    void nameViewMatchesStringOrderWithTiesInInsertionOrder() {
+        RideHistory history = new RideHistory();
+        for (int i = 0; i < NAMES.length; i++) {
+            history.add(visitor(NAMES[i], 30, i));
+        }
+        List<Visitor> expected = new ArrayList<>();
+        history.forEach(expected::add);
+        expected.sort(Comparator.comparing(Visitor::getName)); // Stable, so equal names keep insertion order
+
+        assertEquals(tickets(expected), tickets(history.sortedView(SortedRideHistory.BY_NAME).toList()));
+    }
+
+    @Test
+    void packedPrefixNeverContradictsStringOrder() {
+        for (String a : NAMES) {
+            for (String b : NAMES) {
+                int byPrefix = Long.compare(SortedRideHistory.prefix(a), SortedRideHistory.prefix(b));
+                if (byPrefix != 0) {
+                    assertEquals(byPrefix, Integer.signum(a.compareTo(b)), a + " vs " + b);
+                }
+            }
+        }
+        assertEquals(SortedRideHistory.prefix(null), SortedRideHistory.prefix(""));
+    }
+
+    @Test
+    void rangeIncludesBothBoundsAndIsEmptyWhenNothingMatches() {
+        RideHistory history = new RideHistory();
+        String[] names = {"Dan", "Amy", "Cat", "Bob", "Da", "Ben", "Dana"};
+        for (int i = 0; i < names.length; i++) {
+            history.add(visitor(names[i], 10 + i * 5, i));
+        }
+        SortedRideHistory<String> byName = history.sortedView(SortedRideHistory.BY_NAME);
+        assertEquals(List.of("Ben", "Bob", "Cat", "Da"), names(byName.range("Ben", "Da")));
+        assertEquals(List.of("Amy"), names(byName.range("Amy", "Amy")));
+        assertEquals(List.of("Bob", "Cat"), names(byName.range("Bo", "D"))); // Bounds need not be stored keys
+        assertTrue(byName.range("Da", "Ben").isEmpty());
+        assertTrue(byName.range("Eve", "Zed").isEmpty());
+        assertThrows(IllegalStateException.class, () -> byName.range(0L, 10L));
+
+        SortedRideHistory<Long> byAge = history.numericSortedView(SortedRideHistory.BY_AGE); // Ages 10, 15, ... 40
+        assertEquals(List.of("Cat", "Bob", "Da"), names(byAge.range(20, 30)));
+        assertEquals(List.of("Cat", "Bob", "Da"), names(byAge.range(20L, 30L)));
+        assertEquals(List.of("Dan"), names(byAge.range(Long.MIN_VALUE, 10)));
+        assertTrue(byAge.range(31, 34).isEmpty());
+        assertTrue(byAge.range(30, 20).isEmpty());
+    }
+
+    @Test
+    void detachedViewKeepsItsRecordsButStopsUpdating() {
+        RideHistory history = new RideHistory();
+        history.add(visitor("Tom", 30, 0));
+        history.add(visitor("Amy", 30, 1));
+        SortedRideHistory<String> view = history.sortedView(SortedRideHistory.BY_NAME);
+        assertSame(view, history.sortedView(SortedRideHistory.BY_NAME));
+
+        view.detach();
+        history.add(visitor("Bob", 30, 2));
+        assertEquals(2, view.size());
+        assertEquals(List.of("Amy", "Tom"), names(view.toList()));
+
+        SortedRideHistory<String> fresh = history.sortedView(SortedRideHistory.BY_NAME);
+        assertNotSame(view, fresh);
+        assertEquals(List.of("Amy", "Bob", "Tom"), names(fresh.toList()));
+    }
+
+    @Test
+    void viewsCreatedBeforeAndAfterInsertsAgree() {
+        RideHistory history = new RideHistory();
+        for (int i = 0; i < NAMES.length / 2; i++) {
+            history.add(visitor(NAMES[i], 30, i));
+        }
+        SortedRideHistory<String> before = history.sortedView(SortedRideHistory.BY_NAME);
+        SortedRideHistory<Long> agesBefore = history.numericSortedView(SortedRideHistory.BY_AGE);
+        for (int i = NAMES.length / 2; i < NAMES.length; i++) {
+            history.add(visitor(NAMES[i], 30, i));
+        }
+        Function<Visitor, String> sameKey = Visitor::getName; // A different function, so a new view is backfilled
+        SortedRideHistory<String> after = history.sortedView(sameKey);
+
+        assertNotSame(before, after);
+        assertEquals(NAMES.length, before.size());
+        assertEquals(tickets(before.toList()), tickets(after.toList()));
+        assertEquals(tickets(before.first(5)), tickets(after.first(5)));
+        assertEquals(tickets(history), tickets(agesBefore.toList())); // Equal ages keep insertion order
+    }
+
+    private static Visitor visitor(String name, int age, int number) {
+        return new Visitor(name, age, "555-0100", "T" + number, "2025-11-28");
+    }
+
+    private static List<String> names(List<Visitor> visitors) {
+        List<String> names = new ArrayList<>();
+        for (Visitor visitor : visitors) {
+            names.add(visitor.getName());
+        }
+        return names;
+    }
+
+    private static List<String> tickets(Iterable<Visitor> visitors) {
+        List<String> tickets = new ArrayList<>();
+        for (Visitor visitor : visitors) {
+            tickets.add(visitor.getTicketId());
+        }
+        return tickets;
+    }
+}
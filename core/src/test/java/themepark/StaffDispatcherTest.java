@@ -0,0 +1,180 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * StaffDispatcherTest class - Matching by specialization, hysteresis, incremental rebalancing and staff changes
+ */
+class StaffDispatcherTest {
+    private static final String COASTER = "Roller Coaster";
+    private static final String WATER = "Water Ride";
+
+    @Test
+    void staffOnlyOperateRidesOfTheirSpecialization() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride coaster = ride("Thunderbolt", 4, 8);
+        Ride rapids = ride("Rapids", 4, 20);
+        dispatcher.addRide(coaster, COASTER);
+        dispatcher.addRide(rapids, WATER);
+        Employee coasterOperator = employee("EMP001", "  roller COASTER "); // Case and spaces are ignored
+        dispatcher.addEmployee(coasterOperator);
+
+        assertSame(coasterOperator, coaster.getOperator());
+        assertSame(coaster, dispatcher.getAssignment(coasterOperator));
+        assertNull(rapids.getOperator()); // Busier, but the only employee is not qualified
+        assertEquals(List.of(rapids), dispatcher.getUnstaffedRides());
+    }
+
+    @Test
+    void addRideKeepsAQualifiedOperatorAndDropsAnUnqualifiedOne() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride coaster = ride("Thunderbolt", 4, 0);
+        Employee qualified = employee("EMP001", COASTER);
+        coaster.setOperator(qualified);
+        dispatcher.addRide(coaster, COASTER);
+        assertSame(qualified, coaster.getOperator());
+
+        Ride rapids = ride("Rapids", 4, 0);
+        rapids.setOperator(employee("EMP002", COASTER));
+        dispatcher.addRide(rapids, WATER);
+        assertNull(rapids.getOperator());
+    }
+
+    @Test
+    void operatorMovesOnlyWhenDemandClearsTheHysteresis() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride first = ride("Thunderbolt", 4, 8);  // 2 cycles of backlog
+        Ride second = ride("Cyclone", 4, 0);
+        dispatcher.addRide(first, COASTER);
+        dispatcher.addRide(second, COASTER);
+        Employee operator = employee("EMP001", COASTER);
+        dispatcher.addEmployee(operator);
+        assertSame(first, dispatcher.getAssignment(operator));
+
+        queue(second, 10); // 2.5 cycles: not more than 25% busier than 2
+        assertEquals(0, dispatcher.updateDemand(second));
+        assertSame(first, dispatcher.getAssignment(operator));
+
+        queue(second, 1); // 2.75 cycles
+        assertEquals(1, dispatcher.updateDemand(second));
+        assertSame(second, dispatcher.getAssignment(operator));
+        assertNull(first.getOperator());
+        assertEquals(1, dispatcher.getReassignmentCount());
+
+        queue(first, 2); // 2.5 cycles against 2.75: no bouncing back
+        assertEquals(0, dispatcher.updateDemand(first));
+        assertSame(second, dispatcher.getAssignment(operator));
+
+        dispatcher.setHysteresis(0); // Any improvement moves
+        queue(first, 2); // 3 cycles
+        assertEquals(1, dispatcher.updateDemand(first));
+        assertSame(first, dispatcher.getAssignment(operator));
+        assertEquals(0.0, dispatcher.getHysteresis());
+    }
+
+    @Test
+    void anyQueueBeatsAnEmptyRide() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride first = ride("Thunderbolt", 40, 0);
+        Ride second = ride("Cyclone", 40, 0);
+        dispatcher.addRide(first, COASTER);
+        dispatcher.addRide(second, COASTER);
+        Employee operator = employee("EMP001", COASTER);
+        dispatcher.addEmployee(operator);
+        Ride idle = dispatcher.getAssignment(operator) == first ? second : first;
+
+        queue(idle, 1);
+        assertEquals(1, dispatcher.updateDemand(idle));
+        assertSame(idle, dispatcher.getAssignment(operator));
+    }
+
+    @Test
+    void rebalanceOnlyResettlesGroupsWhoseDemandChanged() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride[] coasters = {ride("C1", 4, 4), ride("C2", 4, 8), ride("C3", 4, 12)};
+        Ride[] waterRides = {ride("W1", 4, 4), ride("W2", 4, 0)};
+        for (Ride ride : coasters) {
+            dispatcher.addRide(ride, COASTER);
+        }
+        for (Ride ride : waterRides) {
+            dispatcher.addRide(ride, WATER);
+        }
+        dispatcher.addEmployee(employee("EMP001", COASTER));
+        dispatcher.addEmployee(employee("EMP002", COASTER));
+        dispatcher.addEmployee(employee("EMP003", WATER));
+        assertNull(coasters[0].getOperator()); // The two busiest coasters are staffed
+        Employee waterOperator = waterRides[0].getOperator();
+        assertSame(waterRides[0], dispatcher.getAssignment(waterOperator));
+        assertEquals(List.of(coasters[0], waterRides[1]), dispatcher.getUnstaffedRides()); // Busiest first
+
+        assertEquals(0, dispatcher.rebalance()); // Nothing changed
+
+        queue(coasters[0], 20);        // C1: 6 cycles, now the busiest coaster
+        coasters[1].getQueue().poll(); // C2: 1.75 cycles, now the quietest staffed coaster
+        assertEquals(1, dispatcher.rebalance());
+        assertNull(coasters[1].getOperator());
+        assertTrue(coasters[0].getOperator() != null && coasters[2].getOperator() != null);
+        assertSame(waterOperator, waterRides[0].getOperator()); // The water group was not touched
+        assertEquals(1, dispatcher.getReassignmentCount());
+    }
+
+    @Test
+    void removedEmployeeCannotBeDispatchedAfterChangingSpecialization() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Employee employee = employee("EMP001", COASTER);
+        dispatcher.addEmployee(employee); // Idle: no coaster registered yet
+        employee.setRideSpecialization(WATER);
+        dispatcher.removeEmployee(employee);
+        assertTrue(dispatcher.getIdleEmployees().isEmpty());
+
+        Ride coaster = ride("Thunderbolt", 4, 8);
+        dispatcher.addRide(coaster, COASTER);
+        assertNull(coaster.getOperator());
+        assertNull(dispatcher.getAssignment(employee));
+    }
+
+    @Test
+    void removingAnOperatorHandsTheRideToAnIdleColleague() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride coaster = ride("Thunderbolt", 4, 8);
+        dispatcher.addRide(coaster, COASTER);
+        Employee first = employee("EMP001", COASTER);
+        Employee second = employee("EMP002", COASTER);
+        dispatcher.addEmployee(first);
+        dispatcher.addEmployee(second);
+        assertSame(first, coaster.getOperator());
+        assertEquals(List.of(second), dispatcher.getIdleEmployees());
+
+        first.setRideSpecialization(WATER); // Still leaves the coaster group it was added under
+        dispatcher.removeEmployee(first);
+        assertSame(second, coaster.getOperator());
+        assertNull(dispatcher.getAssignment(first));
+
+        dispatcher.removeRide(coaster);
+        assertNull(coaster.getOperator());
+        assertEquals(List.of(second), dispatcher.getIdleEmployees());
+    }
+
+    private static Ride ride(String name, int capacity, int waiting) {
+        Ride ride = new Ride(name, capacity, null);
+        queue(ride, waiting);
+        return ride;
+    }
+
+    private static void queue(Ride ride, int visitors) {
+        for (int i = 0; i < visitors; i++) {
+            ride.addVisitorToQueue(new Visitor("Guest " + i, 30, "555-0100", "T" + i, "2025-11-28"));
+        }
+    }
+
+    private static Employee employee(String id, String specialization) {
+        return new Employee("Operator " + id, 30, "000-000-0000", id, specialization);
+    }
+}
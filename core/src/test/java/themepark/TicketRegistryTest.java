@@ -0,0 +1,137 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * TicketRegistryTest class - Canonical visitors, interned visit dates and cross-ride lookups
+ */
+class TicketRegistryTest {
+    @Test
+    void registerReturnsOneVisitorPerTicket() {
+        TicketRegistry registry = new TicketRegistry();
+        Visitor first = registry.register("Jane Smith", 28, "987-654-3210", "T1", "2025-11-28");
+        Visitor again = registry.register("Someone Else", 40, "000", "T1", "2025-11-29");
+        assertSame(first, again);
+        assertEquals("Jane Smith", again.getName()); // An existing ticket keeps its original details
+        assertSame(first, registry.lookup("T1"));
+        assertNull(registry.lookup("T2"));
+        assertNull(registry.lookup(null));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void visitDatesAreInterned() {
+        TicketRegistry registry = new TicketRegistry();
+        String date = new String("2025-11-28");
+        String sameDate = new String("2025-11-28");
+        assertNotSame(date, sameDate);
+        Visitor first = registry.register("Guest 1", 30, "555-0100", "T1", date);
+        Visitor second = registry.register("Guest 2", 30, "555-0101", "T2", sameDate);
+        assertSame(first.getVisitDate(), second.getVisitDate());
+        assertSame(registry.intern(new String("2025-11-28")), first.getVisitDate());
+        assertNull(registry.intern(null));
+    }
+
+    @Test
+    void canonicalizeRegistersACopyAndNeverChangesTheArgument() {
+        TicketRegistry registry = new TicketRegistry();
+        String date = new String("2025-11-28");
+        Visitor caller = new Visitor("Jane Smith", 28, "987-654-3210", "T1", date);
+        Visitor canonical = registry.canonicalize(caller);
+        assertNotSame(caller, canonical);
+        assertSame(date, caller.getVisitDate()); // The caller's object is untouched
+        assertEquals("Jane Smith", canonical.getName());
+        assertEquals("T1", canonical.getTicketId());
+        assertSame(canonical, registry.canonicalize(new Visitor("Jane Smith", 28, "987-654-3210", "T1", "2025-11-28")));
+
+        Visitor noTicket = new Visitor("No Ticket", 10, "000", null, "2025-11-28");
+        assertSame(noTicket, registry.canonicalize(noTicket));
+        assertNull(registry.canonicalize(null));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void ridesShareCanonicalVisitorsAndReportBoardings() {
+        TicketRegistry registry = new TicketRegistry();
+        Ride coaster = ride("Thunderbolt");
+        Ride wheel = ride("Sky Wheel");
+        Ride carousel = ride("Carousel");
+        coaster.setTicketRegistry(registry);
+        wheel.setTicketRegistry(registry);
+
+        coaster.addVisitorToQueue(new Visitor("Jane Smith", 28, "987-654-3210", "T1", "2025-11-28"));
+        wheel.addVisitorToQueue(new Visitor("Jane Smith", 28, "987-654-3210", "T1", "2025-11-28"));
+        coaster.addVisitorToQueue(new Visitor("Tom Lee", 12, "111-222-3333", "T2", "2025-11-28"));
+        assertSame(coaster.getQueue().copy().get(0), wheel.getQueue().copy().get(0)); // One object in both queues
+
+        coaster.boardOneCycle();
+        wheel.boardOneCycle();
+        assertTrue(registry.hasRidden("T1", coaster));
+        assertTrue(registry.hasRidden("T1", wheel));
+        assertTrue(registry.hasRidden("T2", coaster));
+        assertFalse(registry.hasRidden("T2", wheel));
+        assertFalse(registry.hasRidden("T1", carousel));
+        assertFalse(registry.hasRidden("T9", coaster));
+        assertFalse(registry.hasRidden(null, coaster));
+        assertEquals(2, registry.ridesTaken("T1").size());
+        assertTrue(registry.ridesTaken("T9").isEmpty());
+
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertFalse(registry.hasRidden("T1", coaster));
+    }
+
+    @Test
+    void recordRidesRegistersUnknownTicketsEvenWhileClearing() throws InterruptedException {
+        TicketRegistry registry = new TicketRegistry();
+        Ride coaster = ride("Thunderbolt");
+        List<Visitor> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Visitor("Guest " + i, 30, "555-0100", "T" + i, "2025-11-28"));
+        }
+        registry.recordRides(coaster, batch);
+        assertEquals(100, registry.size());
+        assertTrue(registry.hasRidden("T42", coaster));
+        assertNotSame(batch.get(42), registry.lookup("T42"));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread clearer = new Thread(() -> {
+            while (running.get()) {
+                registry.clear();
+            }
+        });
+        clearer.start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            while (System.nanoTime() < deadline && error.get() == null) {
+                try {
+                    registry.recordRides(coaster, batch);
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            }
+        } finally {
+            running.set(false);
+            clearer.join();
+        }
+        assertNull(error.get());
+    }
+
+    private static Ride ride(String name) {
+        return new Ride(name, 4, new Employee("Operator", 30, "000-000-0000", "EMP001", "General"));
+    }
+}
@@ -0,0 +1,85 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * VisitDatesTest class - Date parsing and formatting against java.time, invalid input and the format cache
+ */
+class VisitDatesTest {
+    @Test
+    void everyDayRoundTripsLikeLocalDate() {
+        long last = LocalDate.of(9999, 12, 31).toEpochDay();
+        for (long day = LocalDate.of(0, 1, 1).toEpochDay(); day <= last; day++) {
+            String text = LocalDate.ofEpochDay(day).toString();
+            assertEquals(day, VisitDates.parse(text), text);
+            assertEquals(text, VisitDates.format((int) day));
+        }
+    }
+
+    @Test
+    void leapDaysAndMonthEnds() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), VisitDates.parse("2024-02-29"));
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), VisitDates.parse("2000-02-29")); // Divisible by 400
+        assertEquals(VisitDates.parse("2024-02-29") + 1, VisitDates.parse("2024-03-01"));
+        assertEquals(VisitDates.parse("2025-02-28") + 1, VisitDates.parse("2025-03-01"));
+        assertEquals(VisitDates.parse("2025-12-31") + 1, VisitDates.parse("2026-01-01"));
+        assertEquals(0, VisitDates.parse("1970-01-01"));
+        assertEquals(-1, VisitDates.parse("1969-12-31"));
+        assertEquals("1969-12-31", VisitDates.format(-1));
+        assertEquals("2024-02-29", VisitDates.format(VisitDates.parse("2024-02-29")));
+    }
+
+    @Test
+    void datesThatDoNotExistAreInvalid() {
+        String[] dates = {
+            "2025-02-29", "2025-02-30", "1900-02-29", "2100-02-29", "2025-04-31", "2025-06-31", "2025-09-31",
+            "2025-11-31", "2025-01-32", "2025-00-10", "2025-13-01", "2025-01-00"
+        };
+        for (String date : dates) {
+            assertEquals(VisitDates.INVALID, VisitDates.parse(date), date);
+        }
+    }
+
+    @Test
+    void malformedStringsAreInvalid() {
+        String[] dates = {
+            null, "", "Unknown", "2025-1-01", "2025-01-1", "2025/01/01", "2025-01-01 ", " 2025-01-1", "+025-01-01",
+            "-025-01-01", "20a5-01-01", "2025-0x-01", "2025-01-0x", "2025--1-01", "20250101", "2025-01-01T10:00"
+        };
+        for (String date : dates) {
+            assertEquals(VisitDates.INVALID, VisitDates.parse(date), String.valueOf(date));
+        }
+        assertEquals("Unknown", VisitDates.format(VisitDates.INVALID));
+        assertEquals(VisitDates.INVALID, new Visitor().getVisitEpochDay());
+    }
+
+    @Test
+    void daysSharingACacheSlotFormatCorrectly() {
+        int day = VisitDates.parse("2025-11-28");
+        int collision = day + 1024; // Same slot in the 1024-entry direct-mapped cache
+        for (int i = 0; i < 3; i++) {
+            assertEquals("2025-11-28", VisitDates.format(day));
+            assertEquals(LocalDate.ofEpochDay(collision).toString(), VisitDates.format(collision));
+        }
+        String cached = VisitDates.format(day);
+        assertSame(cached, VisitDates.format(day)); // Repeated days share one String
+    }
+
+    @Test
+    void isBetweenIsInclusiveAndRejectsInvalid() {
+        int from = VisitDates.parse("2025-12-01");
+        int to = VisitDates.parse("2025-12-31");
+        assertTrue(VisitDates.isBetween(from, from, to));
+        assertTrue(VisitDates.isBetween(to, from, to));
+        assertFalse(VisitDates.isBetween(from - 1, from, to));
+        assertFalse(VisitDates.isBetween(to + 1, from, to));
+        assertFalse(VisitDates.isBetween(VisitDates.INVALID, Integer.MIN_VALUE, to));
+    }
+}
@@ -0,0 +1,183 @@
+package themepark;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * VisitorQueueTest class - FIFO order and bounded-capacity backpressure of VisitorQueue
+ */
+class VisitorQueueTest {
+    private static final int PRODUCERS = 8;
+    private static final int OFFERS_PER_PRODUCER = 20_000;
+
+    @Test
+    void keepsFifoOrderInBothModes() {
+        for (boolean concurrent : new boolean[] {false, true}) {
+            VisitorQueue queue = new VisitorQueue(concurrent, VisitorQueue.UNBOUNDED);
+            for (int i = 0; i < 5; i++) {
+                assertTrue(queue.offer(visitor(i)));
+            }
+            assertEquals("T0", queue.poll().getTicketId());
+            List<Visitor> drained = new ArrayList<>();
+            assertEquals(3, queue.drainTo(drained, 3));
+            assertEquals("T1", drained.get(0).getTicketId());
+            assertEquals("T3", drained.get(2).getTicketId());
+            assertEquals(1, queue.size());
+            assertEquals("T4", queue.copy().get(0).getTicketId());
+        }
+    }
+
+    @Test
+    void reportsJoinTimesOnlyForTimedOffers() {
+        for (boolean concurrent : new boolean[] {false, true}) {
+            VisitorQueue queue = new VisitorQueue(concurrent, VisitorQueue.UNBOUNDED);
+            assertTrue(queue.offer(visitor(0)));
+            assertTrue(queue.offer(visitor(1), 1_000L));
+            assertTrue(queue.offer(visitor(2), 2_000L));
+            assertTrue(queue.offer(visitor(3)));
+            assertEquals("T1", queue.copy().get(1).getTicketId());
+
+            List<Visitor> drained = new ArrayList<>();
+            long[] queuedAt = {-1, -1, -1, -1, -1, -1};
+            assertEquals(4, queue.drainTo(drained, 10, queuedAt, 1));
+            for (int i = 0; i < 4; i++) {
+                assertEquals("T" + i, drained.get(i).getTicketId());
+            }
+            assertArrayEquals(new long[] {-1, 0, 1_000L, 2_000L, 0, -1}, queuedAt); // Untimed entries report 0
+        }
+    }
+
+    @Test
+    void rejectsOffersOnceFull() {
+        VisitorQueue queue = new VisitorQueue(false, 2);
+        assertTrue(queue.offer(visitor(1)));
+        assertTrue(queue.offer(visitor(2)));
+        assertFalse(queue.offer(visitor(3)));
+        assertFalse(queue.offer(visitor(3), 5, TimeUnit.MILLISECONDS));
+        assertEquals(2, queue.size());
+        queue.poll();
+        assertTrue(queue.offer(visitor(3)));
+        queue.drainTo(new ArrayList<>(), Integer.MAX_VALUE);
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void contendedOffersFillExactlyToCapacity() throws Exception {
+        int capacity = 1_000;
+        VisitorQueue queue = new VisitorQueue(true, capacity);
+        AtomicInteger accepted = new AtomicInteger();
+        runProducers(queue, accepted, null);
+        assertEquals(capacity, accepted.get());
+        assertEquals(capacity, queue.size());
+        assertEquals(capacity, queue.copy().size());
+    }
+
+    @Test
+    void contendedOffersNeverExceedCapacityWhileDraining() throws Exception {
+        int capacity = 64;
+        VisitorQueue queue = new VisitorQueue(true, capacity);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        AtomicInteger maxSeen = new AtomicInteger();
+        List<Visitor> boarded = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            while (producing.get() || !queue.isEmpty()) {
+                maxSeen.accumulateAndGet(queue.size(), Math::max);
+                queue.drainTo(boarded, 8);
+            }
+        });
+        consumer.start();
+        runProducers(queue, accepted, maxSeen);
+        producing.set(false);
+        consumer.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertFalse(consumer.isAlive());
+        assertTrue(maxSeen.get() <= capacity, "Queue held " + maxSeen.get() + " visitors, capacity " + capacity);
+        assertEquals(accepted.get(), boarded.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void standardCopyFromAnotherThreadSeesWholeChanges() throws Exception {
+        VisitorQueue queue = new VisitorQueue(false, 0);
+        AtomicBoolean owning = new AtomicBoolean(true);
+        Thread owner = new Thread(() -> {
+            List<Visitor> boarded = new ArrayList<>();
+            for (int i = 0; i < 200_000; i++) {
+                queue.offer(visitor(i));
+                if (i % 5 == 4) {
+                    queue.drainTo(boarded, 3);
+                }
+                if (i % 11 == 0) {
+                    queue.poll();
+                }
+            }
+            owning.set(false);
+        });
+        owner.start();
+        int copies = 0;
+        while (owning.get() || copies == 0) {
+            // The owner only ever adds the next ticket at the back and removes from the front,
+            // so any whole-change copy is a run of consecutive ticket numbers
+            List<Visitor> copy = queue.copy();
+            for (int i = 1; i < copy.size(); i++) {
+                assertEquals(number(copy.get(i - 1)) + 1, number(copy.get(i)));
+            }
+            copies++;
+        }
+        owner.join(TimeUnit.SECONDS.toMillis(30));
+        assertFalse(owner.isAlive());
+        assertEquals(queue.size(), queue.copy().size());
+    }
+
+    // Runs PRODUCERS threads that all start offering at once; optionally records the largest size() they see
+    private static void runProducers(VisitorQueue queue, AtomicInteger accepted, AtomicInteger maxSeen) throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            done.add(producers.submit(() -> {
+                start.await();
+                for (int i = 0; i < OFFERS_PER_PRODUCER; i++) {
+                    if (queue.offer(visitor(producer * OFFERS_PER_PRODUCER + i))) {
+                        accepted.incrementAndGet();
+                    }
+                    if (maxSeen != null) {
+                        maxSeen.accumulateAndGet(queue.size(), Math::max);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> producer : done) {
+            producer.get(30, TimeUnit.SECONDS);
+        }
+        producers.shutdown();
+    }
+
+    private static int number(Visitor visitor) {
+        return Integer.parseInt(visitor.getTicketId().substring(1));
+    }
+
+    private static Visitor visitor(int number) {
+        return new Visitor("Guest " + number, 30, "000-000-0000", "T" + number, "2025-11-28");
+    }
+}
@@ -0,0 +1,62 @@
+package themepark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of visitor arrival times over a simulated park day (used by ParkSimulation)
+ * Each visitor's arrival time is sampled independently, so a fixed number of visitors drawn from
+ * uniform() behaves like a Poisson arrival process over the day
+ */
+@FunctionalInterface
+public interface ArrivalDistribution {
+    /**
+     * Sample one visitor's arrival time
+     * @param random Random number source (the simulation passes a seeded generator for repeatable runs)
+     * @param dayLength Length of the park day in minutes
+     * @return double: Arrival time in minutes after opening, between 0 and dayLength
+     */
+    double sampleArrivalTime(SplittableRandom random, double dayLength);
+
+    /**
+     * Arrivals spread evenly over the whole day
+     * @return ArrivalDistribution: Uniform arrivals
+     */
+    static ArrivalDistribution uniform() {
+        return (random, dayLength) -> random.nextDouble() * dayLength;
+    }
+
+    /**
+     * Arrivals ramping up to a single peak and back down (triangular distribution)
+     * @param peakFraction Position of the peak as a fraction of the day (0.0 = opening, 0.5 = midday, 1.0 = closing)
+     * @return ArrivalDistribution: Triangular arrivals
+     */
+    static ArrivalDistribution peak(double peakFraction) {
+        final double peak = Math.max(0.0, Math.min(1.0, peakFraction));
+        return (random, dayLength) -> {
+            double u = random.nextDouble();
+            double fraction = (u < peak)
+                    ? Math.sqrt(u * peak)
+                    : 1.0 - Math.sqrt((1.0 - u) * (1.0 - peak));
+            return fraction * dayLength;
+        };
+    }
+
+    /**
+     * Arrivals clustered around a time of day (normal distribution, truncated to the opening hours)
+     * @param meanMinutes Busiest time in minutes after opening
+     * @param deviationMinutes Standard deviation in minutes
+     * @return ArrivalDistribution: Normal arrivals
+     */
+    static ArrivalDistribution normal(double meanMinutes, double deviationMinutes) {
+        return (random, dayLength) -> {
+            double time;
+            do {
+                // Box-Muller transform
+                double u1 = 1.0 - random.nextDouble();
+                double u2 = random.nextDouble();
+                time = meanMinutes + deviationMinutes * Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+            } while (time < 0.0 || time >= dayLength);
+            return time;
+        };
+    }
+}
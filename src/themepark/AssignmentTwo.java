@@ -0,0 +1,277 @@
+package themepark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Main class for Assignment 2 - Theme Park Management System
+ * Serves as the entry point for testing all components of the system
+ * Contains methods to test different parts of the assignment requirements
+ */
+public class AssignmentTwo {
+
+    // Method placeholders (to be implemented gradually later)
+    /**
+     * Placeholder method for testing Part Three requirements
+     * Will contain logic for queue management functionality
+     */
+    public void partThree() {}
+
+    /**
+     * Placeholder method for testing Part Four A requirements
+     * Will contain logic for basic ride history management
+     */
+    public void partFourA() {}
+
+    /**
+     * Tests Part Four B requirements: sorting ride history
+     * Builds sorted views by visit date and by age, then runs a date range query
+     */
+    public void partFourB() {
+        Employee operator = new Employee("Sara Kim", 41, "222-333-4444", "EMP003", "Ferris Wheel");
+        Ride ferrisWheel = new Ride("Sky Wheel", 8, operator);
+        SortedRideHistory<Long> byDate = ferrisWheel.sortRideHistoryByNumber(SortedRideHistory.BY_VISIT_DATE);
+
+        ferrisWheel.addVisitorToHistory(new Visitor("Lucy Wang", 22, "000-111-2222", "TICKET005", "2025-11-30"));
+        ferrisWheel.addVisitorToHistory(new Visitor("Tom Lee", 12, "111-222-3333", "TICKET002", "2025-11-28"));
+        ferrisWheel.addVisitorToHistory(new Visitor("Amy Chen", 34, "444-555-6666", "TICKET003", "2025-11-29"));
+        ferrisWheel.addVisitorToHistory(new Visitor("Jane Smith", 28, "987-654-3210", "TICKET001", "2025-11-28"));
+
+        System.out.println("History sorted by visit date:");
+        for (Visitor visitor : byDate) {
+            System.out.println("  " + visitor);
+        }
+
+        System.out.println("History sorted by age:");
+        SortedRideHistory<Long> byAge = ferrisWheel.sortRideHistoryByNumber(SortedRideHistory.BY_AGE);
+        for (Visitor visitor : byAge) {
+            System.out.println("  " + visitor);
+        }
+        byAge.detach(); // Only needed once, so stop updating it on every boarding
+
+        System.out.println("Visitors between 2025-11-28 and 2025-11-29:");
+        for (Visitor visitor : byDate.range(VisitDates.parse("2025-11-28"), VisitDates.parse("2025-11-29"))) {
+            System.out.println("  " + visitor);
+        }
+    }
+
+    /**
+     * Placeholder method for testing Part Five requirements
+     * Will contain logic for ride cycle operations
+     */
+    public void partFive() {}
+
+    /**
+     * Tests Part Six requirements: exporting ride history to files
+     * Fills a ride's history and writes it out as CSV, gzip-compressed CSV and binary
+     */
+    public void partSix() {
+        Employee operator = new Employee("Mike Brown", 30, "555-123-4567", "EMP002", "Water Ride");
+        Ride waterRide = new Ride("Splash Mountain", 5, operator);
+
+        waterRide.addVisitorToHistory(new Visitor("Jane Smith", 28, "987-654-3210", "TICKET001", "2025-11-28"));
+        waterRide.addVisitorToHistory(new Visitor("Tom Lee", 12, "111-222-3333", "TICKET002", "2025-11-28"));
+        waterRide.addVisitorToHistory(new Visitor("Amy Chen", 34, "444-555-6666", "TICKET003", "2025-11-29"));
+        waterRide.addVisitorToHistory(new Visitor("Bob \"The Builder\", Jr.", 45, "777-888-9999", "TICKET004", "2025-11-29"));
+        waterRide.addVisitorToHistory(new Visitor("Lucy Wang", 22, "000-111-2222", "TICKET005", "2025-11-30"));
+
+        waterRide.exportRideHistory("ride_history.csv");
+        waterRide.exportRideHistory("ride_history.csv.gz");
+        waterRide.exportRideHistory("ride_history.bin");
+    }
+
+    /**
+     * Tests Part Seven requirements: importing ride history from files
+     * Reads back the files written by partSix() into new rides and prints the imported history
+     */
+    public void partSeven() {
+        Ride csvRide = new Ride("Splash Mountain", 5, null);
+        csvRide.importRideHistory("ride_history.csv");
+        System.out.println("Number of visitors imported: " + csvRide.numberOfVisitors());
+        csvRide.printRideHistory();
+
+        Ride binaryRide = new Ride("Splash Mountain", 5, null);
+        binaryRide.importRideHistory("ride_history.bin");
+        System.out.println("Number of visitors imported: " + binaryRide.numberOfVisitors());
+    }
+
+    /**
+     * Boards a ride from fast-pass, virtual-queue and regular lanes
+     * Half of each cycle's seats go to fast-pass holders and a quarter to virtual-queue reservations whose
+     * return slot has started; the regular queue gets the rest plus any seats the other lanes cannot fill
+     */
+    public void priorityLanes() {
+        Ride thunderbolt = new Ride("Thunderbolt", 4, new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster"));
+        BoardingLanes lanes = thunderbolt.enableLanes(0.5, 0.25);
+        long now = System.currentTimeMillis();
+
+        thunderbolt.addVisitorToFastPass(new Visitor("Jane Smith", 28, "987-654-3210", "TICKET001", "2025-12-01"));
+        thunderbolt.addVisitorToFastPass(new Visitor("Tom Lee", 12, "111-222-3333", "TICKET002", "2025-12-01"));
+        thunderbolt.addVisitorToFastPass(new Visitor("Amy Chen", 34, "444-555-6666", "TICKET003", "2025-12-01"));
+        thunderbolt.reserveVirtualQueue(new Visitor("Lucy Wang", 22, "000-111-2222", "TICKET004", "2025-12-01"), now);
+        thunderbolt.reserveVirtualQueue(new Visitor("Bob Jones", 45, "333-444-5555", "TICKET005", "2025-12-01"),
+                now + BoardingLanes.DEFAULT_SLOT_LENGTH); // Next slot: not boarding yet
+        thunderbolt.addVisitorToQueue(new Visitor("Sam Green", 30, "666-777-8888", "TICKET006", "2025-12-01"));
+        thunderbolt.addVisitorToQueue(new Visitor("Mia Park", 19, "999-000-1111", "TICKET007", "2025-12-01"));
+
+        thunderbolt.runOneCycle();
+        thunderbolt.runOneCycle();
+        thunderbolt.printRideHistory();
+        System.out.println("Fast-pass lane: " + lanes.getFastPassLength() + ", reservations waiting for their slot: "
+                + lanes.getVirtualCount() + ", regular queue: " + thunderbolt.getQueue().size());
+    }
+
+    /**
+     * Journals ride history durably and rebuilds it after a (simulated) restart
+     * Every cycle's riders are appended to ride_history.journal before they reach the in-memory history
+     */
+    public void journalHistory() {
+        Path journalFile = Paths.get("ride_history.journal");
+        Ride thunderbolt = new Ride("Thunderbolt", 2, new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster"));
+        try (HistoryJournal journal = new HistoryJournal(journalFile)) {
+            thunderbolt.setJournal(journal);
+            thunderbolt.addVisitorToQueue(new Visitor("Jane Smith", 28, "987-654-3210", "TICKET001", "2025-12-01"));
+            thunderbolt.addVisitorToQueue(new Visitor("Tom Lee", 12, "111-222-3333", "TICKET002", "2025-12-01"));
+            thunderbolt.addVisitorToQueue(new Visitor("Amy Chen", 34, "444-555-6666", "TICKET003", "2025-12-01"));
+            thunderbolt.runOneCycle();
+            thunderbolt.runOneCycle();
+        } catch (IOException e) {
+            System.out.println("Error: Could not use history journal " + journalFile + ": " + e.getMessage());
+            return;
+        }
+
+        Ride restarted = new Ride("Thunderbolt", 2, null);
+        try {
+            long restored = HistoryJournal.replay(journalFile, Collections.singletonList(restarted));
+            System.out.println("Restored " + restored + " visitors from " + journalFile);
+            restarted.printRideHistory();
+        } catch (IOException e) {
+            System.out.println("Error: Could not replay history journal " + journalFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Simulates a park day for capacity planning
+     * Runs a 12-hour day with several rides and prints throughput, queue length and wait time figures
+     */
+    public void simulateParkDay() {
+        ParkSimulation simulation = new ParkSimulation(12 * 60, 42L);
+        simulation.setArrivalDistribution(ArrivalDistribution.peak(0.4));
+        simulation.addRide(new Ride("Thunderbolt", 24, new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster")), 3.0, 3.0);
+        simulation.addRide(new Ride("Splash Mountain", 12, new Employee("Mike Brown", 30, "555-123-4567", "EMP002", "Water Ride")), 5.0, 2.0);
+        simulation.addRide(new Ride("Sky Wheel", 40, new Employee("Sara Kim", 41, "222-333-4444", "EMP003", "Ferris Wheel")), 15.0, 1.0);
+        System.out.print(simulation.run(6000));
+    }
+
+    /**
+     * Dispatches ride operators to where the queues are
+     * Two roller coasters share one qualified operator, who is moved when the other coaster's queue grows longer
+     */
+    public void dispatchStaff() {
+        StaffDispatcher dispatcher = new StaffDispatcher();
+        Ride thunderbolt = new Ride("Thunderbolt", 8, null);
+        Ride cyclone = new Ride("Cyclone", 8, null);
+        dispatcher.addRide(thunderbolt, "Roller Coaster");
+        dispatcher.addRide(cyclone, "Roller Coaster");
+        dispatcher.addEmployee(new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster"));
+
+        for (int i = 0; i < 16; i++) {
+            thunderbolt.addVisitorToQueue(new Visitor("Guest " + i, 20, "000-000-0000", "TICK1" + i, "2025-12-01"));
+        }
+        dispatcher.rebalance();
+        System.out.println("Thunderbolt operator: " + thunderbolt.getOperator().getName());
+
+        for (int i = 0; i < 40; i++) {
+            cyclone.addVisitorToQueue(new Visitor("Guest " + i, 20, "000-000-0000", "TICK2" + i, "2025-12-01"));
+        }
+        System.out.println("Operators moved: " + dispatcher.updateDemand(cyclone));
+        System.out.println("Cyclone operator: " + cyclone.getOperator().getName());
+        System.out.println("Unstaffed rides: " + dispatcher.getUnstaffedRides().size());
+    }
+
+    /**
+     * Runs three rides in actor mode
+     * Each ride is owned by one worker thread; visitors and cycles are sent to it as messages, and
+     * park-wide totals and ticket lookups are gathered from every ride
+     */
+    public void actorPark() {
+        try (ParkWorkers workers = new ParkWorkers(2)) {
+            String[] rideNames = {"Thunderbolt", "Splash Mountain", "Sky Wheel"};
+            for (int r = 0; r < rideNames.length; r++) {
+                Employee operator = new Employee("Operator " + r, 30, "000-000-0000", "EMP10" + r, "General");
+                RideActor actor = workers.register(new Ride(rideNames[r], 4, operator, new VisitorQueue(false, 0)));
+                List<Visitor> arrivals = new ArrayList<>();
+                for (int i = 0; i < 6 + r; i++) {
+                    arrivals.add(new Visitor("Guest " + i, 20, "000-000-0000", "TICKET" + (r + i), "2025-12-01"));
+                }
+                actor.addVisitorsToQueue(arrivals);
+            }
+
+            workers.runOneCycleEverywhere().join();
+            System.out.println("Visitors who have ridden: " + workers.totalVisitors().join());
+            System.out.println("Visitors still waiting: " + workers.totalQueueLength().join());
+            System.out.println("Rides taken by TICKET2: " + workers.ridesTakenBy("TICKET2").join());
+        }
+    }
+
+    /**
+     * Checkpoints the park to park.snapshot while a ride keeps running, then restarts from the snapshot
+     * The restored ride has the same operator, queue and history, and its history is read from the mapped file
+     */
+    public void snapshotPark() {
+        Path snapshotFile = Paths.get("park.snapshot");
+        Ride thunderbolt = new Ride("Thunderbolt", 2, new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster"));
+        thunderbolt.addVisitorToQueue(new Visitor("Jane Smith", 28, "987-654-3210", "TICKET001", "2025-12-01"));
+        thunderbolt.addVisitorToQueue(new Visitor("Tom Lee", 12, "111-222-3333", "TICKET002", "2025-12-01"));
+        thunderbolt.addVisitorToQueue(new Visitor("Amy Chen", 34, "444-555-6666", "TICKET003", "2025-12-01"));
+        thunderbolt.runOneCycle();
+
+        CompletableFuture<Long> snapshot = ParkSnapshot.writeInBackground(snapshotFile, Collections.singletonList(thunderbolt));
+        thunderbolt.runOneCycle(); // Not held up by the snapshot
+        try {
+            System.out.println("Snapshot written: " + snapshot.join() + " bytes");
+            Ride restarted = ParkSnapshot.load(snapshotFile).get(0);
+            System.out.println("Restored " + restarted + " with " + restarted.getQueue().size() + " waiting");
+            restarted.printRideHistory();
+        } catch (CompletionException | IOException e) {
+            System.out.println("Error: Could not use park snapshot " + snapshotFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The main method (program entry point)
+     * Used for initial testing of core classes and verifying basic functionality
+     * @param args Command line arguments (not used in this initial test)
+     */
+    public static void main(String[] args) {
+        // Create an instance of the assignment class to access test methods
+        AssignmentTwo assignment = new AssignmentTwo();
+
+        // Temporary test: Verify whether the code in Part 1 is running normally
+        System.out.println("Part 1 Test: Classes created successfully!");
+
+        // Test the Employee class
+        // Create a new Employee object with sample data
+        Employee operator = new Employee("John Doe", 35, "123-456-7890", "EMP001", "Roller Coaster");
+        // Print the employee details using the overridden toString() method
+        System.out.println(operator);
+
+        // Test the Visitor class
+        // Create a new Visitor object with sample data
+        Visitor visitor = new Visitor("Jane Smith", 28, "987-654-3210", "TICKET001", "2025-11-28");
+        // Print the visitor details using the overridden toString() method
+        System.out.println(visitor);
+
+        // Test the Ride class
+        // Create a new Ride object with sample data (Thunderbolt roller coaster)
+        Ride rollerCoaster = new Ride("Thunderbolt", 4, operator);
+        // Print the ride details using the overridden toString() method
+        System.out.println(rollerCoaster);
+    }
+}
\ No newline at end of file
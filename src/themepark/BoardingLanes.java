@@ -0,0 +1,384 @@
+package themepark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * BoardingLanes class - Priority boarding lanes layered on a Ride's queue
+ *   - Fast-pass lane: a separate FIFO queue for fast-pass holders
+ *   - Regular lane: the ride's existing queue (addVisitorToQueue())
+ *   - Virtual queue: reservations for a return time slot, indexed by slot start in a TreeMap;
+ *     a reservation can board once its slot has started, so guests wait elsewhere instead of in line
+ * Each cycle fills the ride's seats from the lanes by a configurable mix (e.g. 50% fast pass, 25% virtual,
+ * the rest regular). Lanes earn seat credit every cycle in proportion to their share and spend it when their
+ * visitors board (deficit round robin), so small rides still follow the mix over several cycles;
+ * seats a lane cannot use go to the others (fast pass first, then virtual, then regular), so no seat is left empty
+ * while anyone is waiting. A lane's credit is dropped when it runs empty, so an idle lane cannot bank seats, and
+ * seats another lane takes over from it are not charged, so the busy lanes do not owe them back later
+ * Finding due reservations and looking up a slot are O(log n) TreeMap operations; no lane is ever scanned
+ * Time is read from a clock (System.currentTimeMillis() by default; a simulation can supply its own) and
+ * slots are slotLength units long in that clock's units
+ * For wait-time metrics a reservation counts as waiting from the moment it could board (its slot start, or the
+ * booking time if the slot had already started), never for the time the guest spent elsewhere
+ * Reservations and boarding are synchronized; the fast-pass lane uses the same queue mode as the regular lane
+ */
+public class BoardingLanes {
+    public static final long DEFAULT_SLOT_LENGTH = 15 * 60 * 1000L; // 15 minutes in milliseconds
+
+    private final VisitorQueue regular;   // The ride's own queue
+    private final VisitorQueue fastPass;  // Fast-pass holders
+    private final TreeMap<Long, ArrayDeque<Reservation>> virtualSlots; // Slot start -> reservations in booking order
+    private int virtualCount;             // Reservations across all slots
+    private volatile double fastPassShare;
+    private volatile double virtualShare;
+    private volatile long slotLength;     // Slot length in clock units
+    private volatile int slotCapacity;    // Maximum reservations per slot (0 = unlimited)
+    private volatile LongSupplier clock;  // Current time, in the same units as slotLength
+    private volatile long clockUnitNanos; // Length of one clock unit in nanoseconds (for wait-time metrics)
+    private double fastPassCredit;        // Seats each lane is owed (guarded by this)
+    private double virtualCredit;
+    private double regularCredit;
+
+    /**
+     * Parameterized constructor
+     * Created by Ride.enableLanes(); the regular lane is the ride's queue
+     * @param regular The ride's queue
+     * @param fastPassShare Share of each cycle's seats for fast-pass holders (0.0 - 1.0)
+     * @param virtualShare Share of each cycle's seats for due virtual-queue reservations (0.0 - 1.0)
+     */
+    BoardingLanes(VisitorQueue regular, double fastPassShare, double virtualShare) {
+        this.regular = regular;
+        this.fastPass = new VisitorQueue(regular.isConcurrent(), regular.getCapacity());
+        this.virtualSlots = new TreeMap<>();
+        this.slotLength = DEFAULT_SLOT_LENGTH;
+        this.clock = System::currentTimeMillis;
+        this.clockUnitNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        setMix(fastPassShare, virtualShare);
+    }
+
+    /**
+     * Set the share of each cycle's seats that goes to each lane; the regular lane gets the rest
+     * Prints an error message and keeps the old mix if a share is negative or they add up to more than 1
+     * @param fastPassShare Share for fast-pass holders (e.g. 0.5)
+     * @param virtualShare Share for due virtual-queue reservations (e.g. 0.25)
+     */
+    public void setMix(double fastPassShare, double virtualShare) {
+        if (fastPassShare < 0 || virtualShare < 0 || fastPassShare + virtualShare > 1.0) {
+            System.out.println("Error: Lane shares must be non-negative and add up to at most 1");
+            return;
+        }
+        this.fastPassShare = fastPassShare;
+        this.virtualShare = virtualShare;
+    }
+
+    /**
+     * Get the share of seats reserved for fast-pass holders
+     * @return double: Fast-pass share (0.0 - 1.0)
+     */
+    public double getFastPassShare() {
+        return fastPassShare;
+    }
+
+    /**
+     * Get the share of seats reserved for virtual-queue reservations
+     * @return double: Virtual-queue share (0.0 - 1.0)
+     */
+    public double getVirtualShare() {
+        return virtualShare;
+    }
+
+    /**
+     * Set the length of a virtual-queue time slot
+     * Only possible while there are no reservations, since existing ones are filed under the old slots
+     * @param slotLength Slot length in clock units (e.g. milliseconds for the default clock; must be ≥ 1)
+     */
+    public synchronized void setSlotLength(long slotLength) {
+        if (slotLength < 1) {
+            System.out.println("Error: Slot length must be at least 1");
+        } else if (virtualCount > 0) {
+            System.out.println("Error: Cannot change the slot length while there are virtual-queue reservations");
+        } else {
+            this.slotLength = slotLength;
+        }
+    }
+
+    /**
+     * Get the length of a virtual-queue time slot
+     * @return long: Slot length in clock units
+     */
+    public long getSlotLength() {
+        return slotLength;
+    }
+
+    /**
+     * Limit how many reservations a single time slot accepts
+     * @param slotCapacity Maximum reservations per slot (0 for no limit)
+     */
+    public void setSlotCapacity(int slotCapacity) {
+        this.slotCapacity = Math.max(0, slotCapacity);
+    }
+
+    /**
+     * Get the maximum number of reservations per slot
+     * @return int: Slot capacity (0 = unlimited)
+     */
+    public int getSlotCapacity() {
+        return slotCapacity;
+    }
+
+    /**
+     * Set the clock used to decide which reservations are due
+     * @param clock Supplier of the current time, in the same units as the slot length
+     */
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Set the clock used to decide which reservations are due, and the unit it counts in
+     * The unit is only used to convert virtual-queue waits into the ride's wait-time metrics
+     * @param clock Supplier of the current time, in the same units as the slot length
+     * @param unit Unit of the clock (MILLISECONDS for the default clock)
+     */
+    public void setClock(LongSupplier clock, TimeUnit unit) {
+        this.clock = clock;
+        this.clockUnitNanos = unit.toNanos(1);
+    }
+
+    /**
+     * Get the clock currently used to decide which reservations are due
+     * @return LongSupplier: Current clock
+     */
+    LongSupplier getClock() {
+        return clock;
+    }
+
+    /**
+     * Get the length of one clock unit
+     * @return long: Clock unit in nanoseconds
+     */
+    long getClockUnitNanos() {
+        return clockUnitNanos;
+    }
+
+    /**
+     * Put back a clock and unit read with getClock() and getClockUnitNanos() (used by ParkSimulation after a run)
+     * @param clock Supplier of the current time
+     * @param clockUnitNanos Length of one clock unit in nanoseconds
+     */
+    void restoreClock(LongSupplier clock, long clockUnitNanos) {
+        this.clock = clock;
+        this.clockUnitNanos = clockUnitNanos;
+    }
+
+    /**
+     * Add a visitor to the back of the fast-pass lane
+     * @param visitor Fast-pass holder
+     * @param queuedAtNanos System.nanoTime() at which the visitor joined (0 = not timed)
+     * @return boolean: True if the visitor joined the lane, false if it is full
+     */
+    boolean offerFastPass(Visitor visitor, long queuedAtNanos) {
+        return fastPass.offer(visitor, queuedAtNanos);
+    }
+
+    /**
+     * Reserve a virtual-queue place in the time slot containing the given return time
+     * @param visitor Visitor making the reservation
+     * @param returnTime Time the visitor wants to come back (clock units)
+     * @return boolean: True if the reservation was made, false if that slot is full
+     */
+    synchronized boolean reserve(Visitor visitor, long returnTime) {
+        long slotStart = slotStart(returnTime);
+        ArrayDeque<Reservation> slot = virtualSlots.get(slotStart);
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            virtualSlots.put(slotStart, slot);
+        } else if (slotCapacity > 0 && slot.size() >= slotCapacity) {
+            return false;
+        }
+        slot.add(new Reservation(visitor, clock.getAsLong()));
+        virtualCount++;
+        return true;
+    }
+
+    /**
+     * Get the number of reservations in the slot containing a given time
+     * @param time Any time within the slot (clock units)
+     * @return int: Reservations in that slot (O(log n))
+     */
+    public synchronized int getReservations(long time) {
+        ArrayDeque<Reservation> slot = virtualSlots.get(slotStart(time));
+        return (slot != null) ? slot.size() : 0;
+    }
+
+    /**
+     * Get the start of the earliest slot that still has reservations
+     * @return long: Slot start (clock units), or -1 if there are no reservations
+     */
+    public synchronized long getNextSlotStart() {
+        return virtualSlots.isEmpty() ? -1 : virtualSlots.firstKey();
+    }
+
+    /**
+     * Get the number of visitors in the fast-pass lane
+     * @return int: Fast-pass lane length
+     */
+    public int getFastPassLength() {
+        return fastPass.size();
+    }
+
+    /**
+     * Get the number of virtual-queue reservations not yet boarded (due or not)
+     * @return int: Reservations across all slots
+     */
+    public synchronized int getVirtualCount() {
+        return virtualCount;
+    }
+
+    /**
+     * Copy the fast-pass lane (used by ParkSnapshot; safe from any thread, see VisitorQueue.copy())
+     * @return List: Fast-pass holders, front of the lane first
+     */
+    List<Visitor> copyFastPass() {
+        return fastPass.copy();
+    }
+
+    /**
+     * Copy the virtual-queue reservations (used by ParkSnapshot)
+     * @return TreeMap: Slot start -> reservations in booking order
+     */
+    synchronized TreeMap<Long, List<Visitor>> copyReservations() {
+        TreeMap<Long, List<Visitor>> copy = new TreeMap<>();
+        for (Map.Entry<Long, ArrayDeque<Reservation>> slot : virtualSlots.entrySet()) {
+            List<Visitor> visitors = new ArrayList<>(slot.getValue().size());
+            for (Reservation reservation : slot.getValue()) {
+                visitors.add(reservation.visitor);
+            }
+            copy.put(slot.getKey(), visitors);
+        }
+        return copy;
+    }
+
+    /**
+     * Check whether any visitor could board now: someone in the fast-pass or regular lane, or a due reservation
+     * @return boolean: True if a cycle would board at least one visitor
+     */
+    public boolean hasBoardable() {
+        return !fastPass.isEmpty() || !regular.isEmpty() || hasDueReservation(clock.getAsLong());
+    }
+
+    /**
+     * Fill up to the given number of seats from the lanes according to the mix
+     * Called by Ride.boardOneCycle() once per cycle
+     * @param target Collection receiving the boarding visitors
+     * @param seats Seats in this cycle (the ride's maxCapacity)
+     * @param queuedAtNanos Receives the join time of the i-th boarded visitor at index i (null = not needed);
+     *                      for a reservation, the System.nanoTime() at which it could first board
+     * @return int: Number of visitors boarded
+     */
+    synchronized int drainTo(Collection<? super Visitor> target, int seats, long[] queuedAtNanos) {
+        long now = clock.getAsLong();
+        long nowNanos = (queuedAtNanos != null) ? System.nanoTime() : 0L;
+        double fastPassPart = fastPassShare;
+        double virtualPart = virtualShare;
+        fastPassCredit += fastPassPart * seats;
+        virtualCredit += virtualPart * seats;
+        regularCredit += (1.0 - fastPassPart - virtualPart) * seats;
+
+        // Each lane boards what its credit covers, in priority order
+        int boarded = 0;
+        int fromFastPass = fastPass.drainTo(target, Math.min(seats - boarded, wholeSeats(fastPassCredit)), queuedAtNanos, boarded);
+        boarded += fromFastPass;
+        int fromVirtual = drainDue(target, Math.min(seats - boarded, wholeSeats(virtualCredit)), now, nowNanos, queuedAtNanos, boarded);
+        boarded += fromVirtual;
+        int fromRegular = regular.drainTo(target, Math.min(seats - boarded, wholeSeats(regularCredit)), queuedAtNanos, boarded);
+        boarded += fromRegular;
+
+        // Seats a lane could not use go to whoever is waiting, fast pass first
+        int extra = fastPass.drainTo(target, seats - boarded, queuedAtNanos, boarded);
+        fromFastPass += extra;
+        boarded += extra;
+        extra = drainDue(target, seats - boarded, now, nowNanos, queuedAtNanos, boarded);
+        fromVirtual += extra;
+        boarded += extra;
+        extra = regular.drainTo(target, seats - boarded, queuedAtNanos, boarded);
+        fromRegular += extra;
+        boarded += extra;
+
+        // Seats taken beyond a lane's credit are paid back in later cycles only while every lane with a share still
+        // has visitors (rounding); seats a lane left because it ran empty are free, so the busy lanes build no debt
+        boolean fastPassWaiting = !fastPass.isEmpty();
+        boolean virtualWaiting = hasDueReservation(now);
+        boolean regularWaiting = !regular.isEmpty();
+        boolean noneRanEmpty = (fastPassWaiting || fastPassPart == 0) && (virtualWaiting || virtualPart == 0)
+                && (regularWaiting || fastPassPart + virtualPart >= 1.0);
+        fastPassCredit = !fastPassWaiting ? 0 : settle(fastPassCredit - fromFastPass, noneRanEmpty);
+        virtualCredit = !virtualWaiting ? 0 : settle(virtualCredit - fromVirtual, noneRanEmpty);
+        regularCredit = !regularWaiting ? 0 : settle(regularCredit - fromRegular, noneRanEmpty);
+        return boarded;
+    }
+
+    // Boards due reservations, earliest slot first, each slot in booking order
+    // (queuedAtNanos receives when each one became boardable, converted from clock units to System.nanoTime())
+    private int drainDue(Collection<? super Visitor> target, int maxVisitors, long now, long nowNanos,
+                         long[] queuedAtNanos, int offset) {
+        int drained = 0;
+        while (drained < maxVisitors && !virtualSlots.isEmpty()) {
+            Map.Entry<Long, ArrayDeque<Reservation>> earliest = virtualSlots.firstEntry();
+            long slotStart = earliest.getKey();
+            if (slotStart > now) {
+                break; // Earliest slot has not started yet
+            }
+            ArrayDeque<Reservation> slot = earliest.getValue();
+            while (drained < maxVisitors && !slot.isEmpty()) {
+                Reservation reservation = slot.poll();
+                target.add(reservation.visitor);
+                if (queuedAtNanos != null) {
+                    long waited = Math.max(0L, now - Math.max(slotStart, reservation.reservedAt));
+                    queuedAtNanos[offset + drained] = nowNanos - waited * clockUnitNanos;
+                }
+                drained++;
+            }
+            if (slot.isEmpty()) {
+                virtualSlots.remove(earliest.getKey());
+            }
+        }
+        virtualCount -= drained;
+        return drained;
+    }
+
+    private synchronized boolean hasDueReservation(long now) {
+        return !virtualSlots.isEmpty() && virtualSlots.firstKey() <= now;
+    }
+
+    private long slotStart(long time) {
+        long length = slotLength;
+        return Math.floorDiv(time, length) * length;
+    }
+
+    // Keeps a lane's debt only if it is owed to lanes that still have visitors waiting
+    private static double settle(double credit, boolean keepDebt) {
+        return (keepDebt || credit >= 0) ? credit : 0;
+    }
+
+    private static int wholeSeats(double credit) {
+        return (credit >= 1.0) ? (int) credit : 0;
+    }
+
+    // Virtual-queue place: the visitor and when the booking was made (clock units)
+    private static final class Reservation {
+        final Visitor visitor;
+        final long reservedAt;
+
+        Reservation(Visitor visitor, long reservedAt) {
+            this.visitor = visitor;
+            this.reservedAt = reservedAt;
+        }
+    }
+}
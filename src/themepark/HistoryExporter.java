@@ -0,0 +1,311 @@
+package themepark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HistoryExporter class - Streams ride history to a file (Part 6)
+ * Records are encoded straight into one reusable ByteBuffer and written through a FileChannel,
+ * so exporting does not build a large String, does not concatenate Strings per record,
+ * and only allocates the Visitor objects handed out by the history iterator
+ * Supported formats (see HistoryFormat):
+ *   - CSV: header line, then "name,age,contactNumber,ticketId,visitDate" per record (RFC 4180 quoting);
+ *     a null field is written empty and an empty string as "", so HistoryImporter can tell them apart
+ *   - BINARY: int magic, int version, then per record:
+ *       int recordLength (bytes after this field), string name, int age, string contactNumber,
+ *       string ticketId, string visitDate
+ *     where each string is an int byte length (-1 for null) followed by UTF-8 bytes; all ints are big-endian
+ * Either format can optionally be gzip-compressed
+ * An exporter reuses its buffer between exports, so it is not thread-safe; use one per thread
+ */
+public class HistoryExporter {
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024; // 256 KB: large sequential writes
+
+    private final HistoryFormat format; // Output file format
+    private final boolean gzip;         // True to gzip-compress the output
+    private final ByteBuffer buffer;    // Reusable encode buffer (heap-backed so gzip can read its array)
+    private FileChannel channel;        // Destination for uncompressed output during an export
+    private OutputStream gzipStream;    // Destination for compressed output during an export
+
+    /**
+     * Parameterized constructor
+     * @param format File format to write
+     * @param gzip True to gzip-compress the output
+     */
+    public HistoryExporter(HistoryFormat format, boolean gzip) {
+        this(format, gzip, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Parameterized constructor with an explicit buffer size
+     * @param format File format to write
+     * @param gzip True to gzip-compress the output
+     * @param bufferSize Size of the reusable encode buffer in bytes (at least 64)
+     */
+    public HistoryExporter(HistoryFormat format, boolean gzip, int bufferSize) {
+        this.format = format;
+        this.gzip = gzip;
+        this.buffer = ByteBuffer.allocate(Math.max(64, bufferSize));
+    }
+
+    /**
+     * Get the file format this exporter writes
+     * @return HistoryFormat: CSV or BINARY
+     */
+    public HistoryFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Check whether this exporter gzip-compresses its output
+     * @return boolean: True if output is gzip-compressed
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Export history records to a file, replacing any existing file
+     * @param history Records to export, in the order they should appear in the file
+     * @param file Destination file
+     * @return long: Number of records written
+     * @throws IOException If the file cannot be written
+     */
+    public long export(Iterable<Visitor> history, Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel = fileChannel;
+            gzipStream = gzip ? new GZIPOutputStream(Channels.newOutputStream(fileChannel), 64 * 1024) : null;
+            buffer.clear();
+            long records = 0;
+            writeFileHeader();
+            for (Visitor visitor : history) {
+                if (format == HistoryFormat.CSV) {
+                    writeCsvRecord(visitor);
+                } else {
+                    writeBinaryRecord(visitor);
+                }
+                records++;
+            }
+            flushBuffer();
+            if (gzipStream != null) {
+                gzipStream.close(); // Writes the gzip trailer (also closes the channel)
+            }
+            return records;
+        } finally {
+            channel = null;
+            gzipStream = null;
+        }
+    }
+
+    // Writes the CSV header line or the binary magic number and version
+    private void writeFileHeader() throws IOException {
+        if (format == HistoryFormat.CSV) {
+            writeText(HistoryFormat.CSV_HEADER);
+            writeByte('\n');
+        } else {
+            ensureRemaining(8);
+            buffer.putInt(HistoryFormat.BINARY_MAGIC);
+            buffer.putInt(HistoryFormat.BINARY_VERSION);
+        }
+    }
+
+    // Encodes one visitor as a CSV line
+    private void writeCsvRecord(Visitor visitor) throws IOException {
+        writeCsvField(visitor.getName());
+        writeByte(',');
+        writeDecimal(visitor.getAge());
+        writeByte(',');
+        writeCsvField(visitor.getContactNumber());
+        writeByte(',');
+        writeCsvField(visitor.getTicketId());
+        writeByte(',');
+        writeCsvField(visitor.getVisitDate());
+        writeByte('\n');
+    }
+
+    // Encodes one visitor as a length-prefixed binary record
+    private void writeBinaryRecord(Visitor visitor) throws IOException {
+        String name = visitor.getName();
+        String contactNumber = visitor.getContactNumber();
+        String ticketId = visitor.getTicketId();
+        String visitDate = visitor.getVisitDate();
+        int nameBytes = utf8Length(name);
+        int contactBytes = utf8Length(contactNumber);
+        int ticketBytes = utf8Length(ticketId);
+        int dateBytes = utf8Length(visitDate);
+        int recordLength = 4 * 5 + Math.max(0, nameBytes) + Math.max(0, contactBytes)
+                + Math.max(0, ticketBytes) + Math.max(0, dateBytes);
+        ensureRemaining(4);
+        buffer.putInt(recordLength);
+        writeBinaryString(name, nameBytes);
+        ensureRemaining(4);
+        buffer.putInt(visitor.getAge());
+        writeBinaryString(contactNumber, contactBytes);
+        writeBinaryString(ticketId, ticketBytes);
+        writeBinaryString(visitDate, dateBytes);
+    }
+
+    // Writes an int byte length (-1 for null) followed by the UTF-8 bytes of the string
+    private void writeBinaryString(String value, int utf8Bytes) throws IOException {
+        ensureRemaining(4);
+        buffer.putInt(utf8Bytes);
+        if (value != null) {
+            writeText(value);
+        }
+    }
+
+    // Writes a CSV field, quoting it only if it contains a comma, quote or line break
+    // RFC 4180 has no null, so null is an empty field and the empty string is quoted ("") to keep the two apart
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.isEmpty();
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = (c == ',' || c == '"' || c == '\n' || c == '\r');
+        }
+        if (!needsQuotes) {
+            writeText(value);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writeByte('"'); // Escape a quote by doubling it
+            }
+            writeChar(value, i, c);
+            if (isSurrogatePair(value, i)) {
+                i++; // The low surrogate was consumed by writeChar()
+            }
+        }
+        writeByte('"');
+    }
+
+    // Encodes a string as UTF-8 directly into the buffer, with an ASCII fast path
+    private void writeText(String value) throws IOException {
+        int length = value.length();
+        if (buffer.remaining() < length * 3) {
+            ensureRemaining(Math.min(length * 3, buffer.capacity()));
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80 && buffer.hasRemaining()) {
+                buffer.put((byte) c);
+            } else {
+                writeChar(value, i, c);
+                if (isSurrogatePair(value, i)) {
+                    i++; // The low surrogate was consumed by writeChar()
+                }
+            }
+        }
+    }
+
+    // Encodes one character (or surrogate pair starting at index) as UTF-8
+    private void writeChar(String value, int index, char c) throws IOException {
+        ensureRemaining(4);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (isSurrogatePair(value, index)) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?'); // Unpaired surrogate: same replacement String.getBytes() uses
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    // Writes a non-negative or negative int as decimal ASCII digits without creating a String
+    private void writeDecimal(int value) throws IOException {
+        ensureRemaining(11);
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.put((byte) ('0' + (remaining / divisor)));
+            remaining %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    // Checks whether the chars at index and index + 1 form a valid surrogate pair (one 4-byte UTF-8 code point)
+    private static boolean isSurrogatePair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    private void writeByte(char c) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) c);
+    }
+
+    // Flushes the buffer if fewer than the given number of bytes are free
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    // Writes the buffered bytes to the channel (or gzip stream) and clears the buffer for reuse
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        if (gzipStream != null) {
+            gzipStream.write(buffer.array(), buffer.arrayOffset(), buffer.limit());
+        } else {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Count the UTF-8 bytes of a string, using the same encoding as writeText()
+     * @param value String to measure (may be null)
+     * @return int: Number of UTF-8 bytes, or -1 for null
+     */
+    static int utf8Length(String value) {
+        if (value == null) {
+            return -1;
+        }
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (isSurrogatePair(value, i)) {
+                    bytes += 2; // 4 bytes for the pair of chars
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+}
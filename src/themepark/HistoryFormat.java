@@ -0,0 +1,27 @@
+package themepark;
+
+/**
+ * File formats supported for exporting and importing ride history (Parts 6 and 7)
+ * CSV: one "name,age,contactNumber,ticketId,visitDate" line per visitor, with a header line
+ *      (an empty field is null, a quoted empty field "" is an empty string)
+ * BINARY: a small file header followed by length-prefixed records (see HistoryExporter for the layout)
+ */
+public enum HistoryFormat {
+    CSV,
+    BINARY;
+
+    public static final String CSV_HEADER = "name,age,contactNumber,ticketId,visitDate"; // First line of CSV files
+    public static final int BINARY_MAGIC = 0x54504842; // "TPHB" - identifies a binary history file
+    public static final int BINARY_VERSION = 1;        // Binary layout version, written after the magic number
+
+    /**
+     * Choose a format from a file name
+     * Names ending in ".bin" or ".bin.gz" are binary, everything else is CSV
+     * @param fileName Name or path of the history file
+     * @return HistoryFormat: The format implied by the file extension
+     */
+    public static HistoryFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        return (lower.endsWith(".bin") || lower.endsWith(".bin.gz")) ? BINARY : CSV;
+    }
+}
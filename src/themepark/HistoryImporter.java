@@ -0,0 +1,557 @@
+package themepark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HistoryImporter class - Loads ride history files written by HistoryExporter (Part 7)
+ * The file is memory-mapped and split into record-aligned chunks:
+ *   - CSV chunks end just after a line break
+ *   - BINARY chunks end on a record boundary, found by hopping over the length prefixes
+ * Chunks are parsed in parallel on a ForkJoinPool straight into Visitor objects, then appended to the
+ * ride history chunk by chunk in file order, so the original record order is preserved
+ * Every bad line (or binary record) is reported with its line (record) number:
+ *   - Strict mode: the import fails with an IOException describing the first bad line, and nothing is added;
+ *     so every chunk's visitors are held until the whole file has been checked (heap for all records at once)
+ *   - Lenient mode: bad lines are skipped and listed in the ImportResult; each chunk is appended as soon as it and
+ *     the chunks before it are parsed and is then released, so only the chunks still in flight are on the heap
+ * Gzip-compressed files cannot be memory-mapped; they are decompressed into memory first (at most 2 GB decompressed,
+ * the largest byte array; bigger files must be decompressed on disk first) and then parsed the same way
+ * CSV fields follow the exporter's encoding: an empty field is null and a quoted empty field ("") is an empty string
+ * Limitation: CSV fields containing quoted line breaks are not supported, because chunks are split on line breaks
+ */
+public class HistoryImporter {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;    // 1 MB: smaller chunks are not worth a task
+    private static final long MAX_CHUNK_SIZE = 64L << 20;   // 64 MB: keeps each mapping and result list modest
+    private static final long WALK_WINDOW = 256L << 20;     // Mapping window used to hop over binary records
+    private static final int SCAN_WINDOW = 64 * 1024;       // Read size used to find the next line break
+    private static final int MAX_GUNZIP_SIZE = Integer.MAX_VALUE - 8; // Largest decompressed file held in memory
+
+    private final boolean strict;   // True to fail on the first bad line, false to skip bad lines
+    private final ForkJoinPool pool; // Pool that parses the chunks
+
+    /**
+     * Parameterized constructor
+     * Parses on the common ForkJoinPool, which has one worker per available core
+     * @param strict True to fail on the first bad line, false to skip and report bad lines
+     */
+    public HistoryImporter(boolean strict) {
+        this(strict, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parameterized constructor with an explicit pool
+     * @param strict True to fail on the first bad line, false to skip and report bad lines
+     * @param pool ForkJoinPool used to parse the chunks in parallel
+     */
+    public HistoryImporter(boolean strict, ForkJoinPool pool) {
+        this.strict = strict;
+        this.pool = pool;
+    }
+
+    /**
+     * Check whether this importer runs in strict mode
+     * @return boolean: True if a bad line fails the whole import
+     */
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * Import a history file into a ride's history
+     * The format is detected from the file contents (binary magic number, otherwise CSV), so the file name does not matter
+     * @param file History file to read (CSV or BINARY, optionally gzip-compressed)
+     * @param ride Ride whose history receives the records, appended in file order
+     * @return ImportResult: Number of records imported and the bad lines that were skipped
+     * @throws IOException If the file cannot be read, or (strict mode) if any line is bad
+     */
+    public ImportResult importHistory(Path file, Ride ride) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteSource source = isGzip(channel) ? new MemorySource(gunzip(channel)) : new MappedSource(channel);
+            HistoryFormat format = detectFormat(source);
+            List<String> errors = new ArrayList<>();
+            long headerEnd = (format == HistoryFormat.BINARY) ? 8 : skipCsvHeader(source);
+            List<ChunkParser> tasks = (format == HistoryFormat.BINARY)
+                    ? splitBinary(source, headerEnd, errors) : splitCsv(source, headerEnd);
+            for (ChunkParser task : tasks) {
+                pool.execute(task);
+            }
+
+            // Take the chunks in file order, turning chunk-local line numbers into file line numbers
+            // (prefix sum of lines per chunk)
+            List<String> lineErrors = new ArrayList<>();
+            List<List<Visitor>> held = new ArrayList<>(); // Strict mode: parsed chunks waiting for the rest of the file
+            long firstLine = (format == HistoryFormat.CSV && headerEnd > 0) ? 2 : 1; // The CSV header is line 1
+            long imported = 0;
+            for (int chunk = 0; chunk < tasks.size(); chunk++) {
+                ChunkResult result = tasks.get(chunk).join();
+                tasks.set(chunk, null); // The task keeps its result; drop it so the chunk can be collected
+                for (int i = 0; i < result.errorLines.size(); i++) {
+                    String unit = (format == HistoryFormat.BINARY) ? "Record " : "Line ";
+                    lineErrors.add(unit + (firstLine + result.errorLines.get(i)) + ": " + result.errorMessages.get(i));
+                }
+                firstLine += result.lines;
+                if (strict && !lineErrors.isEmpty()) {
+                    cancelRemaining(tasks);
+                    throw new IOException(lineErrors.get(0));
+                }
+                if (strict) {
+                    held.add(result.visitors);
+                } else {
+                    imported = append(ride, result.visitors, imported);
+                }
+            }
+            lineErrors.addAll(errors); // Walk errors (truncated binary file) come after every parsed record
+            if (strict && !lineErrors.isEmpty()) {
+                throw new IOException(lineErrors.get(0));
+            }
+            for (List<Visitor> visitors : held) {
+                imported = append(ride, visitors, imported);
+            }
+            return new ImportResult(imported, lineErrors);
+        }
+    }
+
+    /**
+     * ImportResult class - Outcome of one import
+     */
+    public static class ImportResult {
+        private final long recordsImported;   // Records appended to the ride history
+        private final List<String> errors;    // "Line N: reason" for every skipped line
+
+        ImportResult(long recordsImported, List<String> errors) {
+            this.recordsImported = recordsImported;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * Get the number of records appended to the ride history
+         * @return long: Number of imported records
+         */
+        public long getRecordsImported() {
+            return recordsImported;
+        }
+
+        /**
+         * Get the bad lines that were skipped (always empty after a successful strict import)
+         * @return List: Messages in the form "Line N: reason" (or "Record N: reason" for binary files)
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+
+    // Appends one parsed chunk to the ride and returns the new total of imported records
+    private static long append(Ride ride, List<Visitor> visitors, long imported) throws IOException {
+        if (!ride.addAllToHistory(visitors)) {
+            throw new IOException("Could not journal imported records; " + imported + " records were imported before the failure");
+        }
+        return imported + visitors.size();
+    }
+
+    // Stops the chunks not yet taken (a strict import has already failed)
+    private static void cancelRemaining(List<ChunkParser> tasks) {
+        for (ChunkParser task : tasks) {
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    // Splits a CSV file into chunks that each start at a line start and end just after a line break
+    private List<ChunkParser> splitCsv(ByteSource source, long firstRecord) throws IOException {
+        long size = source.size();
+        long chunkSize = chunkSize(size);
+        List<ChunkParser> tasks = new ArrayList<>();
+        long start = firstRecord;
+        while (start < size) {
+            long end = (size - start <= chunkSize) ? size : nextLineStart(source, start + chunkSize);
+            tasks.add(new ChunkParser(source, HistoryFormat.CSV, start, end));
+            start = end;
+        }
+        return tasks;
+    }
+
+    // Splits a binary file into chunks of whole records by hopping over the record length prefixes
+    private List<ChunkParser> splitBinary(ByteSource source, long firstRecord, List<String> errors) throws IOException {
+        long size = source.size();
+        long chunkSize = chunkSize(size);
+        List<ChunkParser> tasks = new ArrayList<>();
+        long chunkStart = firstRecord;
+        long position = chunkStart;
+        long record = 0;
+        ByteBuffer window = null;
+        long windowStart = 0;
+        try {
+            while (position < size) {
+                if (size - position < 4) {
+                    errors.add("Record " + (record + 1) + ": Truncated record length, " + (size - position) + " trailing bytes ignored");
+                    break;
+                }
+                if (window == null || position + 4 > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = source.slice(position, Math.min(size, position + WALK_WINDOW));
+                }
+                int recordLength = window.getInt((int) (position - windowStart));
+                long next = position + 4 + recordLength;
+                if (recordLength < 20 || next > size) {
+                    errors.add("Record " + (record + 1) + ": Corrupt record length " + recordLength
+                            + ", remaining " + (size - position) + " bytes ignored");
+                    break;
+                }
+                position = next;
+                record++;
+                if (position - chunkStart >= chunkSize) {
+                    tasks.add(new ChunkParser(source, HistoryFormat.BINARY, chunkStart, position));
+                    chunkStart = position;
+                }
+            }
+        } catch (IOException e) {
+            errors.add("Record " + (record + 1) + ": " + e.getMessage());
+        }
+        if (position > chunkStart) {
+            tasks.add(new ChunkParser(source, HistoryFormat.BINARY, chunkStart, position));
+        }
+        return tasks;
+    }
+
+    // Chooses a chunk size giving about four chunks per pool worker, within [MIN_CHUNK_SIZE, MAX_CHUNK_SIZE]
+    private long chunkSize(long fileSize) {
+        long perTask = fileSize / (pool.getParallelism() * 4L) + 1;
+        return Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, perTask));
+    }
+
+    // Returns the position after the CSV header line, or 0 if the file has no header
+    private long skipCsvHeader(ByteSource source) throws IOException {
+        byte[] header = HistoryFormat.CSV_HEADER.getBytes(StandardCharsets.UTF_8);
+        long size = source.size();
+        if (size < header.length) {
+            return 0;
+        }
+        ByteBuffer start = source.slice(0, Math.min(size, header.length + 2));
+        for (int i = 0; i < header.length; i++) {
+            if (start.get(i) != header[i]) {
+                return 0;
+            }
+        }
+        return nextLineStart(source, header.length);
+    }
+
+    // Returns the position just after the first line break at or after position (or the file size if there is none)
+    private static long nextLineStart(ByteSource source, long position) throws IOException {
+        long size = source.size();
+        while (position < size) {
+            ByteBuffer window = source.slice(position, Math.min(size, position + SCAN_WINDOW));
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += window.limit();
+        }
+        return size;
+    }
+
+    private static HistoryFormat detectFormat(ByteSource source) throws IOException {
+        if (source.size() >= 8) {
+            ByteBuffer start = source.slice(0, 8);
+            if (start.getInt(0) == HistoryFormat.BINARY_MAGIC) {
+                int version = start.getInt(4);
+                if (version != HistoryFormat.BINARY_VERSION) {
+                    throw new IOException("Unsupported binary history version " + version);
+                }
+                return HistoryFormat.BINARY;
+            }
+        }
+        return HistoryFormat.CSV;
+    }
+
+    private static boolean isGzip(FileChannel channel) throws IOException {
+        if (channel.size() < 2) {
+            return false;
+        }
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        channel.read(magic, 0);
+        return (magic.get(0) & 0xFF) == 0x1F && (magic.get(1) & 0xFF) == 0x8B;
+    }
+
+    // Decompresses the whole file into memory; fails cleanly instead of running out of array space past 2 GB
+    private static byte[] gunzip(FileChannel channel) throws IOException {
+        channel.position(0);
+        InputStream in = new GZIPInputStream(Channels.newInputStream(channel), 64 * 1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(256L << 20, channel.size() * 4));
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            if (read > MAX_GUNZIP_SIZE - out.size()) {
+                throw new IOException("Decompressed history is larger than 2 GB; decompress the file before importing it");
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Byte range access to the file being imported (memory-mapped file or decompressed bytes)
+     */
+    private interface ByteSource {
+        long size() throws IOException;
+
+        // Returns a buffer whose index 0 is position start and whose limit is end - start (end - start < 2 GB)
+        ByteBuffer slice(long start, long end) throws IOException;
+    }
+
+    private static final class MappedSource implements ByteSource {
+        private final FileChannel channel;
+        private final long size;
+
+        MappedSource(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public ByteBuffer slice(long start, long end) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+    }
+
+    private static final class MemorySource implements ByteSource {
+        private final byte[] bytes;
+
+        MemorySource(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long size() {
+            return bytes.length;
+        }
+
+        @Override
+        public ByteBuffer slice(long start, long end) {
+            return ByteBuffer.wrap(bytes, (int) start, (int) (end - start)).slice();
+        }
+    }
+
+    /**
+     * Parsed contents of one chunk
+     */
+    private static final class ChunkResult {
+        final List<Visitor> visitors = new ArrayList<>();     // Good records in file order
+        final List<Long> errorLines = new ArrayList<>();      // Chunk-local (0-based) line of each bad line
+        final List<String> errorMessages = new ArrayList<>(); // Reason for each bad line
+        long lines;                                           // Lines (records) in the chunk, good or bad
+
+        void error(long localLine, String message) {
+            errorLines.add(localLine);
+            errorMessages.add(message);
+        }
+    }
+
+    /**
+     * Parses one record-aligned chunk of the file into Visitor objects
+     */
+    private static final class ChunkParser extends RecursiveTask<ChunkResult> {
+        private static final long serialVersionUID = 1L; // ForkJoinTask is Serializable; parsers are never serialized
+
+        private final ByteSource source;
+        private final HistoryFormat format;
+        private final long start;
+        private final long end;
+        private byte[] line = new byte[256]; // Reusable copy of the current line / field (grows as needed)
+
+        ChunkParser(ByteSource source, HistoryFormat format, long start, long end) {
+            this.source = source;
+            this.format = format;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            ChunkResult result = new ChunkResult();
+            try {
+                ByteBuffer chunk = source.slice(start, end);
+                if (format == HistoryFormat.CSV) {
+                    parseCsv(chunk, result);
+                } else {
+                    parseBinary(chunk, result);
+                }
+            } catch (IOException e) {
+                result.error(result.lines, "Could not read chunk at byte " + start + ": " + e.getMessage());
+                result.lines++;
+            }
+            return result;
+        }
+
+        private void parseCsv(ByteBuffer chunk, ChunkResult result) {
+            int limit = chunk.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && chunk.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int next = lineEnd + 1;
+                if (lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                int length = lineEnd - lineStart;
+                if (length > 0) { // Blank lines are skipped but still counted
+                    if (line.length < length) {
+                        line = new byte[Math.max(length, line.length * 2)];
+                    }
+                    chunk.get(lineStart, line, 0, length);
+                    parseCsvLine(length, result);
+                }
+                result.lines++;
+                lineStart = next;
+            }
+        }
+
+        // Parses line[0, length) as "name,age,contactNumber,ticketId,visitDate"
+        private void parseCsvLine(int length, ChunkResult result) {
+            String[] fields = new String[5];
+            int field = 0;
+            int position = 0;
+            while (position <= length) {
+                if (field == fields.length) {
+                    result.error(result.lines, "Expected 5 fields but found more");
+                    return;
+                }
+                if (position < length && line[position] == '"') {
+                    // Quoted field: unescape doubled quotes in place, then expect a comma or end of line
+                    int write = position;
+                    int read = position + 1;
+                    boolean closed = false;
+                    while (read < length) {
+                        if (line[read] == '"') {
+                            if (read + 1 < length && line[read + 1] == '"') {
+                                line[write++] = '"';
+                                read += 2;
+                            } else {
+                                closed = true;
+                                read++;
+                                break;
+                            }
+                        } else {
+                            line[write++] = line[read++];
+                        }
+                    }
+                    if (!closed || (read < length && line[read] != ',')) {
+                        result.error(result.lines, "Malformed quoted field " + (field + 1));
+                        return;
+                    }
+                    fields[field++] = new String(line, position, write - position, StandardCharsets.UTF_8);
+                    position = read + 1;
+                } else {
+                    int comma = position;
+                    while (comma < length && line[comma] != ',') {
+                        comma++;
+                    }
+                    // An empty unquoted field is null; the exporter writes an empty string as ""
+                    fields[field++] = (comma == position) ? null : new String(line, position, comma - position, StandardCharsets.UTF_8);
+                    position = comma + 1;
+                }
+            }
+            if (field != fields.length) {
+                result.error(result.lines, "Expected 5 fields but found " + field);
+                return;
+            }
+            int age = parseAge(fields[1]);
+            if (age < 0) {
+                result.error(result.lines, "Invalid age '" + fields[1] + "'");
+                return;
+            }
+            result.visitors.add(new Visitor(fields[0], age, fields[2], fields[3], fields[4]));
+        }
+
+        // Parses a non-negative decimal age, or returns -1 if it is not one
+        private static int parseAge(String text) {
+            if (text == null || text.isEmpty() || text.length() > 9) {
+                return -1;
+            }
+            int age = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                age = age * 10 + (c - '0');
+            }
+            return age;
+        }
+
+        private void parseBinary(ByteBuffer chunk, ChunkResult result) {
+            int position = 0;
+            int limit = chunk.limit();
+            while (position < limit) {
+                int recordLength = chunk.getInt(position);
+                int recordEnd = position + 4 + recordLength; // Validated when the chunks were split
+                chunk.position(position + 4);
+                try {
+                    String name = readBinaryString(chunk, recordEnd);
+                    requireBytes(chunk, recordEnd, 4);
+                    int age = chunk.getInt();
+                    String contactNumber = readBinaryString(chunk, recordEnd);
+                    String ticketId = readBinaryString(chunk, recordEnd);
+                    String visitDate = readBinaryString(chunk, recordEnd);
+                    if (chunk.position() != recordEnd) {
+                        throw new IllegalArgumentException((recordEnd - chunk.position()) + " unexpected bytes after the last field");
+                    }
+                    if (age < 0) {
+                        throw new IllegalArgumentException("Invalid age " + age);
+                    }
+                    result.visitors.add(new Visitor(name, age, contactNumber, ticketId, visitDate));
+                } catch (IllegalArgumentException e) {
+                    result.error(result.lines, e.getMessage());
+                }
+                result.lines++;
+                position = recordEnd;
+            }
+        }
+
+        // Reads an int byte length (-1 for null) followed by that many UTF-8 bytes
+        private String readBinaryString(ByteBuffer chunk, int recordEnd) {
+            requireBytes(chunk, recordEnd, 4);
+            int length = chunk.getInt();
+            if (length == -1) {
+                return null;
+            }
+            if (length < 0) {
+                throw new IllegalArgumentException("Invalid string length " + length);
+            }
+            requireBytes(chunk, recordEnd, length);
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            chunk.get(line, 0, length);
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private static void requireBytes(ByteBuffer chunk, int recordEnd, int bytes) {
+            if (recordEnd - chunk.position() < bytes) {
+                throw new IllegalArgumentException("Field runs past the end of the record");
+            }
+        }
+    }
+}
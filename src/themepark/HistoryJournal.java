@@ -0,0 +1,493 @@
+package themepark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * HistoryJournal class - Durable, append-only log of ride history (write-ahead journal)
+ * Rides attached with Ride.setJournal() append every batch of boarded visitors (one record per runOneCycle()),
+ * so the history survives a crash and can be rebuilt at startup with replay()
+ * File layout (all ints big-endian):
+ *   int magic, int version, then per batch:
+ *     int payloadLength, int CRC32C of the payload,
+ *     payload: string rideName, int visitorCount, then per visitor:
+ *       string name, int age, string contactNumber, string ticketId, int visitEpochDay
+ *       (followed by string visitDate only if visitEpochDay is VisitDates.INVALID)
+ *   where each string is an int byte length (-1 for null) followed by UTF-8 bytes
+ * Group commit: appends only copy the encoded batch into an in-memory buffer; one background flusher thread
+ * writes the buffer and calls fsync (FileChannel.force) for everything appended since the last flush,
+ * so one disk flush covers many cycles from many rides
+ *   - Default mode: append() returns at once and data is fsynced within the flush interval
+ *   - syncOnAppend mode: append() waits until its batch is fsynced; concurrent appends share the same fsync
+ * A crash can leave a partly written last batch; its length or CRC no longer matches, so replay() stops there
+ * and opening the journal again cuts it off before appending
+ * Thread-safe: many rides may append at once
+ */
+public class HistoryJournal implements Closeable {
+    public static final int MAGIC = 0x54504A4C;                     // "TPJL" - identifies a history journal
+    public static final int VERSION = 1;                            // Journal layout version
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;    // Longest a batch waits for fsync (default mode)
+    private static final int HEADER_BYTES = 8;                      // Magic and version
+    private static final int RECORD_HEADER_BYTES = 8;               // Payload length and CRC
+    private static final int MAX_RECORD_BYTES = 64 << 20;           // Larger lengths can only be corruption
+    private static final int MAX_PENDING_BYTES = 32 << 20;          // Appenders wait if the flusher falls this far behind
+    private static final int INITIAL_BUFFER_BYTES = 256 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean syncOnAppend;       // True if append() waits for its batch to be fsynced
+    private final long flushIntervalMillis;   // How long the flusher gathers batches before an fsync
+    private final Thread flusher;             // Background thread doing all writes and fsyncs
+    private final CRC32C crc = new CRC32C();  // Used under the lock by append()
+
+    private ByteBuffer pending;       // Encoded batches waiting to be written (guarded by this)
+    private ByteBuffer writing;       // Buffer being written by the flusher (swapped with pending)
+    private long appendedSequence;    // Number of batches appended
+    private long durableSequence;     // Number of batches written and fsynced
+    private int syncWaiters;          // Appenders waiting for fsync; the flusher skips gathering while > 0
+    private boolean closed;
+    private IOException failure;      // First write or fsync error; the journal rejects appends after one
+
+    /**
+     * Parameterized constructor
+     * Opens (or creates) a journal in the default mode: appends return at once and are fsynced within 10 ms
+     * @param file Journal file
+     * @throws IOException If the file cannot be opened or is not a history journal
+     */
+    public HistoryJournal(Path file) throws IOException {
+        this(file, false, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Parameterized constructor
+     * An existing journal is kept and appended to; an incomplete batch at its end (from a crash) is cut off
+     * @param file Journal file
+     * @param syncOnAppend True to make append() wait until its batch is fsynced
+     * @param flushIntervalMillis How long to gather batches before an fsync when nobody is waiting (at least 1)
+     * @throws IOException If the file cannot be opened or is not a history journal
+     */
+    public HistoryJournal(Path file, boolean syncOnAppend, long flushIntervalMillis) throws IOException {
+        this.file = file;
+        this.syncOnAppend = syncOnAppend;
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            openForAppend();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        this.writing = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        this.flusher = new Thread(this::flushLoop, "history-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Get the journal file
+     * @return Path: File this journal appends to
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Check whether append() waits for fsync
+     * @return boolean: True in syncOnAppend mode
+     */
+    public boolean isSyncOnAppend() {
+        return syncOnAppend;
+    }
+
+    /**
+     * Append one batch of boarded visitors (called by rides attached with Ride.setJournal())
+     * Waiting (backpressure or syncOnAppend) is not cut short by an interrupt; the thread's interrupt flag is kept
+     * @param ride Ride the visitors boarded (identified by name on replay)
+     * @param batch Visitors in boarding order (must not contain null)
+     * @throws IOException If the journal is closed or an earlier write failed, or (syncOnAppend) the fsync fails
+     */
+    public void append(Ride ride, Collection<Visitor> batch) throws IOException {
+        long sequence;
+        synchronized (this) {
+            boolean interrupted = false;
+            while (!closed && failure == null && pending.position() > MAX_PENDING_BYTES) {
+                interrupted |= waitRecordingInterrupt(0); // Backpressure: the disk cannot keep up
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            checkOpen();
+            boolean wasEmpty = pending.position() == 0;
+            encodeBatch(ride.getRideName(), batch);
+            sequence = ++appendedSequence;
+            if (wasEmpty || syncOnAppend) {
+                notifyAll(); // Wake the flusher
+            }
+            if (syncOnAppend) {
+                awaitDurable(sequence);
+            }
+        }
+    }
+
+    /**
+     * Wait until every batch appended so far has been written and fsynced (e.g. at closing time)
+     * @throws IOException If the journal has failed
+     */
+    public synchronized void sync() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        notifyAll();
+        awaitDurable(appendedSequence);
+    }
+
+    /**
+     * Flush and fsync everything appended, stop the flusher and close the file
+     * @throws IOException If the final flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Replay a journal into the history of the given rides, in the order the batches were appended
+     * Batches are matched to rides by ride name; batches of rides not in the list are skipped and reported
+     * Replayed visitors are added with Ride.restoreHistory(), so they are not journaled a second time
+     * Replay before attaching the journal with Ride.setJournal() (and before the rides run)
+     * Reading stops at the first incomplete or corrupt batch (e.g. the last batch of a crash)
+     * @param file Journal file to read
+     * @param rides Rides whose history should be rebuilt
+     * @return long: Number of visitors restored
+     * @throws IOException If the file cannot be read or is not a history journal
+     */
+    public static long replay(Path file, Collection<Ride> rides) throws IOException {
+        Map<String, Ride> ridesByName = new HashMap<>();
+        for (Ride ride : rides) {
+            ridesByName.put(ride.getRideName(), ride);
+        }
+        Map<String, Integer> skipped = new HashMap<>();
+        long restored = 0;
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordReader reader = new RecordReader(readChannel);
+            ByteBuffer payload;
+            while ((payload = reader.next()) != null) {
+                String rideName = getString(payload);
+                int count = payload.getInt();
+                Ride ride = ridesByName.get(rideName);
+                if (ride == null) {
+                    skipped.merge(rideName, count, Integer::sum);
+                    continue;
+                }
+                List<Visitor> batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    batch.add(getVisitor(payload));
+                }
+                ride.restoreHistory(batch);
+                restored += count;
+            }
+            if (reader.validEnd < readChannel.size()) {
+                System.out.println("Error: Ignored " + (readChannel.size() - reader.validEnd)
+                        + " bytes of incomplete journal data at the end of " + file);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : skipped.entrySet()) {
+            System.out.println("Error: Skipped " + entry.getValue() + " journaled visitors of unknown ride " + entry.getKey());
+        }
+        return restored;
+    }
+
+    // Writes the file header of a new journal, or checks an existing one and cuts off an incomplete last batch
+    private void openForAppend() throws IOException {
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+            channel.position(HEADER_BYTES);
+            return;
+        }
+        RecordReader reader = new RecordReader(channel);
+        while (reader.next() != null) {
+            // Scan to the end of the last complete batch
+        }
+        if (reader.validEnd < channel.size()) {
+            channel.truncate(reader.validEnd);
+            channel.force(false);
+        }
+        channel.position(reader.validEnd);
+    }
+
+    // Flusher thread: swaps buffers under the lock, then writes and fsyncs outside it
+    private void flushLoop() {
+        boolean interrupted = false;
+        while (true) {
+            long target;
+            synchronized (this) {
+                while (!closed && pending.position() == 0) {
+                    interrupted |= waitRecordingInterrupt(0);
+                }
+                if (pending.position() == 0) {
+                    break; // Closed and fully flushed
+                }
+                if (!closed && syncWaiters == 0) {
+                    interrupted |= waitRecordingInterrupt(flushIntervalMillis); // Gather more batches into this fsync
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                pending.clear();
+                target = appendedSequence;
+                notifyAll(); // Appenders held back by backpressure can continue
+            }
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+                writing.clear();
+                synchronized (this) {
+                    durableSequence = target;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Waits (holding the lock) until the given batch is durable
+    private void awaitDurable(long sequence) throws IOException {
+        boolean interrupted = false;
+        syncWaiters++;
+        try {
+            while (durableSequence < sequence && failure == null) {
+                if (closed && !flusher.isAlive()) {
+                    throw new IOException("History journal " + file + " closed before the batch was written");
+                }
+                interrupted |= waitRecordingInterrupt(0);
+            }
+        } finally {
+            syncWaiters--;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (durableSequence < sequence) {
+            throw failure;
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("History journal " + file + " is closed");
+        }
+    }
+
+    // Waits on the lock once; an interrupt is reported instead of re-set, so the caller's loop keeps waiting
+    // (re-setting the flag here would make every later wait() throw at once and the loop spin) and the caller
+    // restores the flag once after its loop, as close() does
+    private boolean waitRecordingInterrupt(long millis) {
+        try {
+            wait(millis);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    // Encodes one batch record at the end of the pending buffer (called under the lock)
+    private void encodeBatch(String rideName, Collection<Visitor> batch) {
+        ensurePending(RECORD_HEADER_BYTES);
+        int start = pending.position();
+        pending.position(start + RECORD_HEADER_BYTES);
+        putString(rideName);
+        ensurePending(4);
+        pending.putInt(batch.size());
+        for (Visitor visitor : batch) {
+            putString(visitor.getName());
+            ensurePending(4);
+            pending.putInt(visitor.getAge());
+            putString(visitor.getContactNumber());
+            putString(visitor.getTicketId());
+            int epochDay = visitor.getVisitEpochDay();
+            ensurePending(4);
+            pending.putInt(epochDay);
+            if (epochDay == VisitDates.INVALID) {
+                putString(visitor.getVisitDate());
+            }
+        }
+        int payloadLength = pending.position() - start - RECORD_HEADER_BYTES;
+        crc.reset();
+        crc.update(pending.array(), start + RECORD_HEADER_BYTES, payloadLength);
+        pending.putInt(start, payloadLength);
+        pending.putInt(start + 4, (int) crc.getValue());
+    }
+
+    // Writes an int byte length (-1 for null) and the UTF-8 bytes, copying ASCII strings char by char
+    private void putString(String value) {
+        int length = HistoryExporter.utf8Length(value);
+        ensurePending(4 + Math.max(0, length));
+        pending.putInt(length);
+        if (value == null) {
+            return;
+        }
+        if (length == value.length()) {
+            for (int i = 0; i < length; i++) {
+                pending.put((byte) value.charAt(i));
+            }
+        } else {
+            pending.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Grows the pending buffer (doubling) so that at least the given number of bytes fit
+    private void ensurePending(int bytes) {
+        if (pending.remaining() < bytes) {
+            int newCapacity = Math.max(pending.capacity() * 2, pending.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(newCapacity);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return value;
+    }
+
+    private static Visitor getVisitor(ByteBuffer payload) {
+        String name = getString(payload);
+        int age = payload.getInt();
+        String contactNumber = getString(payload);
+        String ticketId = getString(payload);
+        int epochDay = payload.getInt();
+        String visitDate = (epochDay == VisitDates.INVALID) ? getString(payload) : VisitDates.format(epochDay);
+        return new Visitor(name, age, contactNumber, ticketId, visitDate, epochDay);
+    }
+
+    /**
+     * Sequential reader of journal records through a reusable heap buffer
+     * Checks the file header, then hands out each complete, CRC-valid payload; validEnd is the file offset
+     * just after the last good record
+     */
+    private static final class RecordReader {
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        private long bufferStart;   // File offset of buffer index 0
+        private boolean endOfFile;
+        private final CRC32C crc = new CRC32C();
+        long validEnd;
+
+        RecordReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            buffer.flip();
+            if (!fill(HEADER_BYTES) || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a history journal");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported history journal version " + version);
+            }
+            validEnd = HEADER_BYTES;
+        }
+
+        // Returns the next good payload (positioned at its start), or null at the end or at the first bad record
+        ByteBuffer next() throws IOException {
+            if (!fill(RECORD_HEADER_BYTES)) {
+                return null;
+            }
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > MAX_RECORD_BYTES || !fill(length)) {
+                return null;
+            }
+            int start = buffer.position();
+            crc.reset();
+            crc.update(buffer.array(), start, length);
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+            ByteBuffer payload = buffer.slice(start, length);
+            buffer.position(start + length);
+            validEnd = bufferStart + buffer.position();
+            return payload;
+        }
+
+        // Makes sure at least the given number of unread bytes are buffered; false if the file ends first
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            bufferStart += buffer.position();
+            if (buffer.capacity() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Integer.highestOneBit(bytes) << 1);
+                grown.put(buffer);
+                buffer = grown;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes && !endOfFile) {
+                if (channel.read(buffer, bufferStart + buffer.position()) < 0) {
+                    endOfFile = true;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+    }
+}
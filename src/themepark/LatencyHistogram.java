@@ -0,0 +1,128 @@
+package themepark;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram class - Lock-free, fixed-size histogram of non-negative long values (e.g. nanoseconds)
+ * Uses HDR-style log-linear buckets: every power of two is split into 32 equal sub-buckets,
+ * so any recorded value is reported with at most about 3% relative error, from 1 up to Long.MAX_VALUE
+ * record() only does atomic increments on a preallocated array: no locks and no allocation,
+ * so it can be called from many threads on hot paths
+ * Readers (percentiles, mean, max) may run concurrently with writers and see a nearly-current view
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;                    // 2^5 = 32 sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS; // Covers every non-negative long
+
+    private final AtomicLongArray counts; // Number of recorded values per bucket
+    private final LongAdder totalCount;   // Number of recorded values
+    private final LongAdder sum;          // Sum of recorded values, for the mean
+    private final AtomicLong max;         // Largest recorded value
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Creates an empty histogram
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.totalCount = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record one value
+     * @param value Value to record (negative values are recorded as 0)
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketIndex(clamped));
+        totalCount.increment();
+        sum.add(clamped);
+        long currentMax = max.get();
+        while (clamped > currentMax && !max.compareAndSet(currentMax, clamped)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Get the number of recorded values
+     * @return long: Count of values
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Get the largest recorded value
+     * @return long: Maximum (0 if nothing was recorded)
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the average of the recorded values
+     * @return double: Mean (0 if nothing was recorded)
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return (count > 0) ? (double) sum.sum() / count : 0.0;
+    }
+
+    /**
+     * Get the value below which the given percentage of recorded values fall
+     * @param percentile Percentile between 0 and 100 (e.g. 99.9)
+     * @return long: Upper bound of the bucket holding the percentile (never above getMax()), or 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(bucket), max.get());
+            }
+        }
+        return max.get(); // Counts were still being updated while reading
+    }
+
+    /**
+     * Remove all recorded values
+     * Not atomic with respect to concurrent record() calls; values recorded during a reset may be partly kept
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // Values below 32 get their own bucket; above that, 32 buckets per power of two
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + ((1L << shift) - 1);
+    }
+}
@@ -0,0 +1,204 @@
+package themepark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MappedHistory class - The records of one ride's history as stored in a ParkSnapshot, read in place
+ * The history section of the snapshot file is memory-mapped and never decoded as a whole: record columns are read
+ * with absolute int reads, and names, contact numbers and ticket IDs are only turned into Strings when a record
+ * is materialized. Ticket lookups probe an open-addressing hash table written into the section, so opening a
+ * history costs the same whether it holds a hundred records or a hundred million
+ * Section layout (offsets relative to the section start, ints big-endian):
+ *   int profileCount P, int recordCount N, int indexSlots S (0 or a power of two), int rawDateCount R
+ *   int[P] profile ages
+ *   int[N] record profile codes, int[N] record dates (encoded as in RideHistory)
+ *   int[S] ticket index: latest profile code + 1 of the ticket hashed to the slot (0 = empty, linear probing)
+ *   int[S] rides taken by the ticket in the matching index slot
+ *   strings: R raw visit dates, then per profile: ticket ID, name, contact number
+ *   int[P] offset of each profile's strings
+ * where each string is an int byte length (-1 for null) followed by UTF-8 bytes
+ * Immutable and safe to read from any number of threads
+ */
+class MappedHistory {
+    static final int HEADER_BYTES = 16;
+
+    private final ByteBuffer section;   // Mapped history section (only absolute reads are used)
+    private final int profileCount;
+    private final int recordCount;
+    private final int indexMask;        // indexSlots - 1, or -1 if there is no index
+    private final int agesAt;
+    private final int recordProfilesAt;
+    private final int recordDatesAt;
+    private final int indexAt;
+    private final int indexRidesAt;
+    private final int offsetsAt;
+    private final List<String> rawDates;
+
+    /**
+     * Parameterized constructor
+     * Reads the section header and the raw visit dates; everything else stays in the file until asked for
+     * @param section Mapped history section
+     * @throws IOException If the header does not fit the section (corrupt or truncated snapshot)
+     */
+    MappedHistory(ByteBuffer section) throws IOException {
+        this.section = section;
+        int length = section.limit();
+        if (length < HEADER_BYTES) {
+            throw new IOException("History section is truncated");
+        }
+        this.profileCount = section.getInt(0);
+        this.recordCount = section.getInt(4);
+        int indexSlots = section.getInt(8);
+        int rawDateCount = section.getInt(12);
+        long stringsAt = HEADER_BYTES + 4L * profileCount + 8L * recordCount + 8L * indexSlots;
+        if (profileCount < 0 || recordCount < 0 || rawDateCount < 0 || indexSlots < 0
+                || (indexSlots & (indexSlots - 1)) != 0 || stringsAt + 4L * profileCount > length) {
+            throw new IOException("History section header is corrupt");
+        }
+        this.indexMask = indexSlots - 1;
+        this.agesAt = HEADER_BYTES;
+        this.recordProfilesAt = agesAt + 4 * profileCount;
+        this.recordDatesAt = recordProfilesAt + 4 * recordCount;
+        this.indexAt = recordDatesAt + 4 * recordCount;
+        this.indexRidesAt = indexAt + 4 * indexSlots;
+        this.offsetsAt = length - 4 * profileCount;
+
+        List<String> dates = new ArrayList<>(rawDateCount);
+        int position = (int) stringsAt;
+        for (int i = 0; i < rawDateCount; i++) {
+            int bytes = stringBytes(position);
+            dates.add(readString(position, bytes));
+            position += 4 + Math.max(0, bytes);
+        }
+        this.rawDates = Collections.unmodifiableList(dates);
+    }
+
+    /**
+     * Get the number of records in the section
+     * @return int: Record count
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Get the number of profiles in the section
+     * @return int: Profile count (codes 0 .. count-1)
+     */
+    int getProfileCount() {
+        return profileCount;
+    }
+
+    /**
+     * Get the visit dates that are not canonical "YYYY-MM-DD"
+     * @return List: Raw dates, indexed by (encoded date - VisitDates.INVALID)
+     */
+    List<String> getRawDates() {
+        return rawDates;
+    }
+
+    int recordProfile(int position) {
+        return section.getInt(recordProfilesAt + 4 * position);
+    }
+
+    int recordDate(int position) {
+        return section.getInt(recordDatesAt + 4 * position);
+    }
+
+    int profileAge(int profile) {
+        return section.getInt(agesAt + 4 * profile);
+    }
+
+    String profileTicket(int profile) {
+        return readString(section.getInt(offsetsAt + 4 * profile));
+    }
+
+    String profileName(int profile) {
+        return readString(skipString(section.getInt(offsetsAt + 4 * profile)));
+    }
+
+    String profileContact(int profile) {
+        return readString(skipString(skipString(section.getInt(offsetsAt + 4 * profile))));
+    }
+
+    /**
+     * Get the number of records of a ticket
+     * Probes the section's hash index and compares the stored ticket bytes, without creating Strings
+     * @param ticketId Ticket ID to look up (must not be null)
+     * @return int: Rides taken by the ticket (0 if it is not in the section)
+     */
+    int countRides(String ticketId) {
+        if (indexMask < 0) {
+            return 0;
+        }
+        byte[] key = null;
+        for (int slot = indexSlot(ticketId, indexMask); ; slot = (slot + 1) & indexMask) {
+            int entry = section.getInt(indexAt + 4 * slot);
+            if (entry == 0) {
+                return 0;
+            }
+            if (key == null) {
+                key = ticketId.getBytes(StandardCharsets.UTF_8);
+            }
+            if (sameBytes(section.getInt(offsetsAt + 4 * (entry - 1)), key)) {
+                return section.getInt(indexRidesAt + 4 * slot);
+            }
+        }
+    }
+
+    /**
+     * Get the home slot of a ticket in an index of the given size (shared with the snapshot writer)
+     * Mixes String.hashCode() (murmur3 finalizer), which String caches, so similar ticket IDs spread out
+     * @param ticketId Ticket ID
+     * @param mask Number of index slots - 1
+     * @return int: Slot to start probing at
+     */
+    static int indexSlot(String ticketId, int mask) {
+        int hash = ticketId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash & mask;
+    }
+
+    private boolean sameBytes(int position, byte[] key) {
+        if (section.getInt(position) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (section.get(position + 4 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int stringBytes(int position) {
+        return section.getInt(position);
+    }
+
+    // Returns the position just after the string at the given position
+    private int skipString(int position) {
+        return position + 4 + Math.max(0, stringBytes(position));
+    }
+
+    private String readString(int position) {
+        return readString(position, stringBytes(position));
+    }
+
+    private String readString(int position, int bytes) {
+        if (bytes < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[bytes];
+        section.get(position + 4, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,366 @@
+package themepark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * ParkSimulation class - Discrete-event simulation of a park day for capacity planning
+ * Replays visitor arrivals and ride cycles in simulated time instead of real time:
+ *   - Arrival events put a Visitor into a ride's queue (addVisitorToQueue)
+ *   - Cycle events board up to maxCapacity visitors (the work of runOneCycle) and schedule the next cycle
+ * Events are taken from a priority queue ordered by time, so the simulation jumps straight from one event to the next
+ * Each visitor arrives at exactly one ride, which makes the rides independent of each other:
+ * every ride is simulated with its own event queue, and the rides run in parallel across cores
+ * The Ride objects are used as-is, so their queues and histories hold the simulated day afterwards
+ * (a ride with a bounded queue turns arriving visitors away while its queue is full)
+ * Rides with boarding lanes are supported: setLaneUsage() decides how many visitors use the fast-pass lane or the
+ * virtual queue, and the lanes' clock is switched to the simulated time (in simulated milliseconds, so slot lengths
+ * keep their meaning) for the run and switched back afterwards, even if the run fails; reservations still waiting
+ * at the end of the day keep their simulated slot times
+ */
+public class ParkSimulation {
+    private final double dayLength;   // Length of the park day in minutes (e.g. 720 for 12 hours)
+    private final long seed;          // Seed for repeatable runs
+    private final List<SimulatedRide> rides;
+    private ArrivalDistribution arrivals;
+    private double fastPassUsage;     // Share of visitors using the fast-pass lane (rides with lanes only)
+    private double virtualUsage;      // Share of visitors reserving a virtual-queue slot (rides with lanes only)
+    private double returnMinutes;     // How long after arriving a virtual-queue visitor wants to come back
+
+    /**
+     * Parameterized constructor
+     * Arrivals default to a midday peak; use setArrivalDistribution() to change them
+     * @param dayLength Length of the park day in minutes (must be > 0)
+     * @param seed Random seed; the same seed and configuration always produce the same report
+     */
+    public ParkSimulation(double dayLength, long seed) {
+        this.dayLength = (dayLength > 0) ? dayLength : 720.0;
+        this.seed = seed;
+        this.rides = new ArrayList<>();
+        this.arrivals = ArrivalDistribution.peak(0.5);
+    }
+
+    /**
+     * Add a ride to the simulation
+     * @param ride Ride to simulate (needs an operator, otherwise it never boards anyone)
+     * @param cycleMinutes Time one ride cycle takes, in minutes (must be > 0)
+     * @param popularity Relative share of visitors choosing this ride (must be > 0)
+     */
+    public void addRide(Ride ride, double cycleMinutes, double popularity) {
+        if (ride == null || cycleMinutes <= 0 || popularity <= 0) {
+            System.out.println("Error: A simulated ride needs a ride, a positive cycle time and a positive popularity");
+            return;
+        }
+        rides.add(new SimulatedRide(ride, cycleMinutes, popularity));
+    }
+
+    /**
+     * Set how visitor arrivals are spread over the day
+     * @param arrivals Arrival time distribution (e.g. ArrivalDistribution.uniform())
+     */
+    public void setArrivalDistribution(ArrivalDistribution arrivals) {
+        if (arrivals != null) {
+            this.arrivals = arrivals;
+        }
+    }
+
+    /**
+     * Set how visitors of rides with boarding lanes pick a lane; everyone else joins the regular queue
+     * A virtual-queue visitor reserves the slot containing (arrival + returnMinutes) and joins the regular queue
+     * instead if that slot is full
+     * Prints an error message and keeps the old setting if a share is negative, the shares add up to more than 1
+     * or returnMinutes is negative
+     * @param fastPassUsage Share of visitors holding a fast pass (e.g. 0.2)
+     * @param virtualUsage Share of visitors reserving a virtual-queue slot (e.g. 0.3)
+     * @param returnMinutes Minutes after arrival that a virtual-queue visitor comes back
+     */
+    public void setLaneUsage(double fastPassUsage, double virtualUsage, double returnMinutes) {
+        if (fastPassUsage < 0 || virtualUsage < 0 || fastPassUsage + virtualUsage > 1.0 || returnMinutes < 0) {
+            System.out.println("Error: Lane usage shares must be non-negative and add up to at most 1, "
+                    + "and the return time must not be negative");
+            return;
+        }
+        this.fastPassUsage = fastPassUsage;
+        this.virtualUsage = virtualUsage;
+        this.returnMinutes = returnMinutes;
+    }
+
+    /**
+     * Simulate one park day
+     * @param visitorCount Number of visitors arriving during the day
+     * @return SimulationReport: Throughput, queue length and wait time figures per ride and for the whole park
+     */
+    public SimulationReport run(int visitorCount) {
+        if (rides.isEmpty()) {
+            return new SimulationReport(dayLength, new ArrayList<>());
+        }
+
+        // Sample every visitor's ride and arrival time up front, sequentially, so results do not depend on thread timing
+        double[] cumulative = new double[rides.size()];
+        double total = 0;
+        for (int i = 0; i < rides.size(); i++) {
+            total += rides.get(i).popularity;
+            cumulative[i] = total;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (SimulatedRide ride : rides) {
+            ride.reset(visitorCount / rides.size() + 16);
+        }
+        for (int i = 0; i < visitorCount; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            int rideIndex = Math.min(rides.size() - 1, (index >= 0) ? index + 1 : -index - 1);
+            Visitor visitor = new Visitor("Guest " + i, 8 + random.nextInt(60), "Unknown", "SIM" + i, "Simulated");
+            double arrivalTime = arrivals.sampleArrivalTime(random, dayLength);
+            int lane = SimulatedRide.REGULAR;
+            if (fastPassUsage + virtualUsage > 0) {
+                double choice = random.nextDouble();
+                if (choice < fastPassUsage) {
+                    lane = SimulatedRide.FAST_PASS;
+                } else if (choice < fastPassUsage + virtualUsage) {
+                    lane = SimulatedRide.VIRTUAL;
+                }
+            }
+            rides.get(rideIndex).addArrival(arrivalTime, visitor, lane);
+        }
+
+        List<SimulationReport.RideStats> stats = rides.parallelStream()
+                .map(ride -> ride.simulate(dayLength, returnMinutes))
+                .collect(Collectors.toList());
+        return new SimulationReport(dayLength, stats);
+    }
+
+    /**
+     * One ride taking part in the simulation, with its own arrivals and event queue
+     */
+    private static final class SimulatedRide {
+        private static final int ARRIVAL = 0;
+        private static final int CYCLE = 1;
+        static final byte REGULAR = 0;
+        static final byte FAST_PASS = 1;
+        static final byte VIRTUAL = 2;
+        private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+        final Ride ride;
+        final double cycleMinutes;
+        final double popularity;
+        private double[] arrivalTimes;
+        private Visitor[] arrivingVisitors;
+        private byte[] arrivalLanes;
+        private int arrivalCount;
+        private double now;     // Simulated time of the event being processed (read by the lanes' clock)
+
+        SimulatedRide(Ride ride, double cycleMinutes, double popularity) {
+            this.ride = ride;
+            this.cycleMinutes = cycleMinutes;
+            this.popularity = popularity;
+        }
+
+        void reset(int expectedArrivals) {
+            arrivalTimes = new double[expectedArrivals];
+            arrivingVisitors = new Visitor[expectedArrivals];
+            arrivalLanes = new byte[expectedArrivals];
+            arrivalCount = 0;
+        }
+
+        void addArrival(double time, Visitor visitor, int lane) {
+            if (arrivalCount == arrivalTimes.length) {
+                arrivalTimes = Arrays.copyOf(arrivalTimes, arrivalCount * 2);
+                arrivingVisitors = Arrays.copyOf(arrivingVisitors, arrivalCount * 2);
+                arrivalLanes = Arrays.copyOf(arrivalLanes, arrivalCount * 2);
+            }
+            arrivalTimes[arrivalCount] = time;
+            arrivingVisitors[arrivalCount] = visitor;
+            arrivalLanes[arrivalCount] = (byte) lane;
+            arrivalCount++;
+        }
+
+        /**
+         * Run this ride's events in time order until the end of the day
+         * The queue and the fast-pass lane are FIFO, and due reservations board earliest slot first in booking order,
+         * so the join times of waiting visitors are kept in one FIFO per lane (per slot for reservations);
+         * after each cycle, the drop in each lane's length says how many join times to take from the front
+         * A reservation counts as waiting from the moment it could board (its slot start, or its booking if later)
+         */
+        SimulationReport.RideStats simulate(double dayLength, double returnMinutes) {
+            PriorityQueue<Event> events = new PriorityQueue<>(arrivalCount + 2);
+            long sequence = 0;
+            for (int i = 0; i < arrivalCount; i++) {
+                events.add(new Event(arrivalTimes[i], ARRIVAL, i, sequence++));
+            }
+            events.add(new Event(0.0, CYCLE, -1, sequence++));
+
+            BoardingLanes lanes = ride.getLanes();
+            now = 0;
+            if (lanes == null) {
+                return runEvents(dayLength, returnMinutes, events, sequence, null);
+            }
+            LongSupplier originalClock = lanes.getClock();
+            long originalUnitNanos = lanes.getClockUnitNanos();
+            lanes.setClock(() -> toClock(now), TimeUnit.MILLISECONDS);
+            try {
+                return runEvents(dayLength, returnMinutes, events, sequence, lanes);
+            } finally {
+                lanes.restoreClock(originalClock, originalUnitNanos);
+            }
+        }
+
+        // The event loop of simulate(), run while the lanes (if any) are on the simulated clock
+        private SimulationReport.RideStats runEvents(double dayLength, double returnMinutes, PriorityQueue<Event> events,
+                                                     long sequence, BoardingLanes lanes) {
+            // Visitors already waiting before opening are treated as waiting since time 0
+            // (or since their slot start for reservations)
+            int alreadyWaiting = ride.getQueue().size();
+            JoinTimes regular = new JoinTimes(ride.getQueue().size() + arrivalCount + 1);
+            JoinTimes fastPass = new JoinTimes((lanes != null) ? lanes.getFastPassLength() + arrivalCount + 1 : 0);
+            TreeMap<Long, ArrayDeque<Double>> reserved = new TreeMap<>(); // Slot start (clock) -> boardable since
+            int reservedCount = 0;
+            for (int i = ride.getQueue().size(); i > 0; i--) {
+                regular.add(0.0);
+            }
+            if (lanes != null) {
+                for (int i = lanes.getFastPassLength(); i > 0; i--) {
+                    fastPass.add(0.0);
+                }
+                for (Map.Entry<Long, List<Visitor>> slot : lanes.copyReservations().entrySet()) {
+                    ArrayDeque<Double> since = new ArrayDeque<>();
+                    for (int i = slot.getValue().size(); i > 0; i--) {
+                        since.add(Math.max(0.0, slot.getKey() / MILLIS_PER_MINUTE));
+                    }
+                    reserved.put(slot.getKey(), since);
+                    reservedCount += since.size();
+                }
+                alreadyWaiting += fastPass.size() + reservedCount;
+            }
+
+            double[] waits = new double[alreadyWaiting + arrivalCount + 1];
+            int turnedAway = 0;
+            int boardedTotal = 0;
+            int cycles = 0;
+            int seatsOffered = 0;
+            int maxQueue = regular.size() + fastPass.size();
+            double queueArea = 0;   // Integral of queue length over time (both lanes in line), for the average
+            double lastTime = 0;
+
+            while (!events.isEmpty()) {
+                Event event = events.poll();
+                if (event.time >= dayLength) {
+                    break;
+                }
+                queueArea += (regular.size() + fastPass.size()) * (event.time - lastTime);
+                lastTime = event.time;
+                now = event.time;
+                if (event.type == ARRIVAL) {
+                    Visitor visitor = arrivingVisitors[event.arrival];
+                    int lane = (lanes != null) ? arrivalLanes[event.arrival] : REGULAR;
+                    if (lane == VIRTUAL) {
+                        long returnTime = toClock(event.time + returnMinutes);
+                        if (ride.reserveVirtualQueue(visitor, returnTime)) {
+                            long slotLength = lanes.getSlotLength();
+                            long slotStart = Math.floorDiv(returnTime, slotLength) * slotLength;
+                            reserved.computeIfAbsent(slotStart, start -> new ArrayDeque<>())
+                                    .add(Math.max(event.time, slotStart / MILLIS_PER_MINUTE));
+                            reservedCount++;
+                            continue;
+                        }
+                        lane = REGULAR; // Slot is full: join the line instead
+                    }
+                    JoinTimes line = (lane == FAST_PASS) ? fastPass : regular;
+                    boolean joined = (lane == FAST_PASS) ? ride.tryAddVisitorToFastPass(visitor) : ride.tryAddVisitorToQueue(visitor);
+                    if (joined) {
+                        line.add(event.time);
+                        maxQueue = Math.max(maxQueue, regular.size() + fastPass.size());
+                    } else {
+                        turnedAway++; // Bounded queue is full
+                    }
+                } else {
+                    ride.boardOneCycle();
+                    for (int i = regular.size() - ride.getQueue().size(); i > 0; i--) {
+                        waits[boardedTotal++] = event.time - regular.poll();
+                    }
+                    if (lanes != null) {
+                        for (int i = fastPass.size() - lanes.getFastPassLength(); i > 0; i--) {
+                            waits[boardedTotal++] = event.time - fastPass.poll();
+                        }
+                        for (int i = reservedCount - lanes.getVirtualCount(); i > 0; i--) {
+                            Map.Entry<Long, ArrayDeque<Double>> earliest = reserved.firstEntry();
+                            waits[boardedTotal++] = event.time - earliest.getValue().poll();
+                            if (earliest.getValue().isEmpty()) {
+                                reserved.remove(earliest.getKey());
+                            }
+                            reservedCount--;
+                        }
+                    }
+                    cycles++;
+                    seatsOffered += ride.getMaxCapacity();
+                    events.add(new Event(event.time + cycleMinutes, CYCLE, -1, sequence++));
+                }
+            }
+            queueArea += (regular.size() + fastPass.size()) * (dayLength - lastTime);
+            int leftWaiting = regular.size() + fastPass.size() + reservedCount;
+            return new SimulationReport.RideStats(ride.getRideName(), arrivalCount, turnedAway, boardedTotal, leftWaiting,
+                    cycles, seatsOffered, maxQueue, queueArea / dayLength, Arrays.copyOf(waits, boardedTotal));
+        }
+
+        // Simulated minutes -> lanes' clock (simulated milliseconds)
+        private static long toClock(double minutes) {
+            return (long) Math.floor(minutes * MILLIS_PER_MINUTE);
+        }
+    }
+
+    /**
+     * FIFO of the times (simulated minutes) at which the visitors waiting in one lane joined it
+     */
+    private static final class JoinTimes {
+        private final double[] times;
+        private int head;
+        private int tail;
+
+        JoinTimes(int capacity) {
+            this.times = new double[capacity];
+        }
+
+        void add(double time) {
+            times[tail++] = time;
+        }
+
+        double poll() {
+            return times[head++];
+        }
+
+        int size() {
+            return tail - head;
+        }
+    }
+
+    /**
+     * Scheduled event; ordered by time, then by scheduling order so simultaneous events run deterministically
+     */
+    private static final class Event implements Comparable<Event> {
+        final double time;
+        final int type;
+        final int arrival;   // Index into the ride's arrivals (ARRIVAL events only)
+        final long sequence;
+
+        Event(double time, int type, int arrival, long sequence) {
+            this.time = time;
+            this.type = type;
+            this.arrival = arrival;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Double.compare(time, other.time);
+            return (byTime != 0) ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
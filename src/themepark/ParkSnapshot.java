@@ -0,0 +1,507 @@
+package themepark;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ParkSnapshot class - Checkpoint of the whole park (rides, operators, queues, lanes and full histories)
+ * in one versioned binary file, for restarting mid-day without re-importing history files
+ *   - write() / writeInBackground(): captures each ride between two of its cycles and streams it to the file;
+ *     rides keep running (runOneCycle() never waits for the snapshot), and a ride that is mid-cycle is simply
+ *     captured again a moment later. Each ride is consistent on its own: every visitor is either in a queue or
+ *     in the history, never both or neither
+ *   - load(): reads the rides' settings and queues, and memory-maps each history section. Histories are not
+ *     decoded: records stay in the file and Visitor objects are only built when a record is read (see MappedHistory),
+ *     so loading takes about as long for a million records as for ten
+ * The file is written under a temporary name and renamed when complete, so a crash never leaves a partial snapshot
+ * File layout (ints and longs big-endian):
+ *   int magic, int version, long time taken (epoch milliseconds), int rideCount, then per ride:
+ *     long settings length, settings:
+ *       string rideName, int maxCapacity,
+ *       byte hasOperator, then string name, int age, string contactNumber, string employeeId, string rideSpecialization
+ *       byte concurrentQueue, int queueCapacity, int queueLength, visitors
+ *       byte hasLanes, then double fastPassShare, double virtualShare, long slotLength, int slotCapacity,
+ *         int fastPassLength, visitors, int slotCount, per slot: long slotStart, int reservationCount, visitors
+ *     long history length, history section (layout in MappedHistory; at most 2 GB per ride)
+ *   visitor: string name, int age, string contactNumber, string ticketId, int visitEpochDay
+ *     (followed by string visitDate only if visitEpochDay is VisitDates.INVALID)
+ *   where each string is an int byte length (-1 for null) followed by UTF-8 bytes
+ */
+public final class ParkSnapshot {
+    public static final int MAGIC = 0x5450534E;      // "TPSN" - identifies a park snapshot
+    public static final int VERSION = 1;             // Snapshot layout version
+    private static final int HEADER_BYTES = 20;      // Magic, version, time taken and ride count
+    private static final int BUFFER_BYTES = 1 << 20; // Write buffer size
+    private static final int YIELDING_ATTEMPTS = 100; // Capture attempts before waiting 1 ms between them
+
+    private ParkSnapshot() {
+        // Utility class: not instantiated
+    }
+
+    /**
+     * Write a snapshot of the given rides, replacing the file if it exists
+     * Rides may keep running while the snapshot is written
+     * @param file Snapshot file
+     * @param rides Rides to include (ride names should be unique)
+     * @return long: Size of the snapshot in bytes
+     * @throws IOException If the file cannot be written, or a ride's history section would exceed 2 GB
+     */
+    public static long write(Path file, Collection<Ride> rides) throws IOException {
+        List<Ride> snapshotRides = new ArrayList<>(rides);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(System.currentTimeMillis());
+            out.putInt(snapshotRides.size());
+            for (Ride ride : snapshotRides) {
+                writeRide(out, capture(ride));
+            }
+            out.flush();
+            channel.force(true);
+            size = channel.size();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp); // The previous snapshot (if any) stays in place
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    /**
+     * Write a snapshot on a background thread
+     * @param file Snapshot file
+     * @param rides Rides to include
+     * @return CompletableFuture: Completed with the snapshot size in bytes, or exceptionally if writing fails
+     */
+    public static CompletableFuture<Long> writeInBackground(Path file, Collection<Ride> rides) {
+        List<Ride> snapshotRides = new ArrayList<>(rides);
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        Thread writer = new Thread(() -> {
+            try {
+                result.complete(write(file, snapshotRides));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, "park-snapshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return result;
+    }
+
+    /**
+     * Load the rides in a snapshot
+     * Rides come back with their operator, queue (same mode and capacity), lanes and history; histories stay
+     * memory-mapped and grow on the heap from there. Ticket registries, journals and metrics are not part of
+     * the snapshot and can be attached again afterwards
+     * @param file Snapshot file
+     * @return List: Rides in the order they were written
+     * @throws IOException If the file cannot be read, is not a park snapshot or is truncated
+     */
+    public static List<Ride> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES, file);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a park snapshot");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has snapshot version " + version + ", expected " + VERSION);
+            }
+            header.getLong(); // Time taken
+            int rideCount = header.getInt();
+            List<Ride> rides = new ArrayList<>(Math.max(0, rideCount));
+            long position = HEADER_BYTES;
+            for (int i = 0; i < rideCount; i++) {
+                int settingsLength = sectionLength(channel, position, file);
+                ByteBuffer settings = readFully(channel, position + 8, settingsLength, file);
+                position += 8 + settingsLength;
+                int historyLength = sectionLength(channel, position, file);
+                MappedByteBuffer history = channel.map(FileChannel.MapMode.READ_ONLY, position + 8, historyLength);
+                position += 8 + historyLength;
+                rides.add(readRide(settings, new MappedHistory(history), file));
+            }
+            return rides;
+        }
+    }
+
+    /**
+     * Copy one ride's state at a moment when none of its cycles is in flight
+     * Retries (yielding, then waiting 1 ms) while a cycle runs; the ride itself is never paused
+     * @param ride Ride to capture
+     * @return RideState: Consistent copy of the ride's queues and a view of its history
+     */
+    private static RideState capture(Ride ride) {
+        for (int attempt = 0; ; attempt++) {
+            long finished = ride.getCyclesFinished();
+            long started = ride.getCyclesStarted();
+            if (started == finished) {
+                RideState state = new RideState(ride);
+                if (ride.getCyclesStarted() == started) {
+                    return state;
+                }
+            }
+            if (attempt < YIELDING_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }
+    }
+
+    private static void writeRide(Output out, RideState state) throws IOException {
+        long settingsAt = out.position();
+        out.putLong(0); // Length, filled in below
+        out.putString(state.rideName);
+        out.putInt(state.maxCapacity);
+        Employee operator = state.operator;
+        out.putByte(operator != null ? 1 : 0);
+        if (operator != null) {
+            out.putString(operator.getName());
+            out.putInt(operator.getAge());
+            out.putString(operator.getContactNumber());
+            out.putString(operator.getEmployeeId());
+            out.putString(operator.getRideSpecialization());
+        }
+        out.putByte(state.concurrentQueue ? 1 : 0);
+        out.putInt(state.queueCapacity);
+        putVisitors(out, state.queue);
+        out.putByte(state.lanes != null ? 1 : 0);
+        if (state.lanes != null) {
+            out.putDouble(state.lanes.getFastPassShare());
+            out.putDouble(state.lanes.getVirtualShare());
+            out.putLong(state.lanes.getSlotLength());
+            out.putInt(state.lanes.getSlotCapacity());
+            putVisitors(out, state.fastPass);
+            out.putInt(state.reservations.size());
+            for (Map.Entry<Long, List<Visitor>> slot : state.reservations.entrySet()) {
+                out.putLong(slot.getKey());
+                putVisitors(out, slot.getValue());
+            }
+        }
+        out.patchLength(settingsAt, state.rideName);
+
+        long historyAt = out.position();
+        out.putLong(0);
+        writeHistory(out, state.history, state.rideName);
+        out.patchLength(historyAt, state.rideName);
+    }
+
+    // Writes a history section in the layout MappedHistory reads
+    private static void writeHistory(Output out, RideHistory.Image history, String rideName) throws IOException {
+        int profileCount = history.getProfileCount();
+        int recordCount = history.getRecordCount();
+        List<String> rawDates = history.getRawDates();
+
+        // Ticket index: each ticket's slot holds its latest profile and its number of records
+        int indexSlots = (profileCount == 0) ? 0 : Integer.highestOneBit(Math.max(1, profileCount * 2 - 1)) << 1;
+        int mask = indexSlots - 1;
+        String[] tickets = new String[profileCount];
+        int[] ticketSlots = new int[profileCount];
+        int[] indexProfiles = new int[indexSlots];
+        int[] indexRides = new int[indexSlots];
+        for (int profile = 0; profile < profileCount; profile++) {
+            String ticketId = history.profileTicket(profile);
+            tickets[profile] = ticketId;
+            if (ticketId == null) {
+                ticketSlots[profile] = -1;
+                continue;
+            }
+            int slot = MappedHistory.indexSlot(ticketId, mask);
+            while (indexProfiles[slot] != 0 && !tickets[indexProfiles[slot] - 1].equals(ticketId)) {
+                slot = (slot + 1) & mask;
+            }
+            indexProfiles[slot] = profile + 1;
+            ticketSlots[profile] = slot;
+        }
+        for (int position = 0; position < recordCount; position++) {
+            int slot = ticketSlots[history.recordProfile(position)];
+            if (slot >= 0) {
+                indexRides[slot]++;
+            }
+        }
+
+        long sectionStart = out.position();
+        out.putInt(profileCount);
+        out.putInt(recordCount);
+        out.putInt(indexSlots);
+        out.putInt(rawDates.size());
+        for (int profile = 0; profile < profileCount; profile++) {
+            out.putInt(history.profileAge(profile));
+        }
+        for (int position = 0; position < recordCount; position++) {
+            out.putInt(history.recordProfile(position));
+        }
+        for (int position = 0; position < recordCount; position++) {
+            out.putInt(history.recordDate(position));
+        }
+        for (int entry : indexProfiles) {
+            out.putInt(entry);
+        }
+        for (int rides : indexRides) {
+            out.putInt(rides);
+        }
+        for (String rawDate : rawDates) {
+            out.putString(rawDate);
+        }
+        int[] offsets = ticketSlots; // Slots are no longer needed; reuse the array for string offsets
+        for (int profile = 0; profile < profileCount; profile++) {
+            long offset = out.position() - sectionStart;
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("History of " + rideName + " is too large for a snapshot");
+            }
+            offsets[profile] = (int) offset;
+            out.putString(tickets[profile]);
+            out.putString(history.profileName(profile));
+            out.putString(history.profileContact(profile));
+        }
+        for (int profile = 0; profile < profileCount; profile++) {
+            out.putInt(offsets[profile]);
+        }
+    }
+
+    private static Ride readRide(ByteBuffer settings, MappedHistory history, Path file) throws IOException {
+        try {
+            String rideName = getString(settings);
+            int maxCapacity = settings.getInt();
+            Employee operator = null;
+            if (settings.get() != 0) {
+                operator = new Employee(getString(settings), settings.getInt(), getString(settings),
+                        getString(settings), getString(settings));
+            }
+            boolean concurrentQueue = settings.get() != 0;
+            VisitorQueue queue = new VisitorQueue(concurrentQueue, settings.getInt());
+            for (Visitor visitor : getVisitors(settings)) {
+                queue.offer(visitor);
+            }
+            Ride ride = new Ride(rideName, maxCapacity, operator, queue, new RideHistory(history));
+            if (settings.get() != 0) {
+                BoardingLanes lanes = ride.enableLanes(settings.getDouble(), settings.getDouble());
+                lanes.setSlotLength(settings.getLong());
+                lanes.setSlotCapacity(settings.getInt());
+                for (Visitor visitor : getVisitors(settings)) {
+                    lanes.offerFastPass(visitor, 0L);
+                }
+                int slotCount = settings.getInt();
+                for (int i = 0; i < slotCount; i++) {
+                    long slotStart = settings.getLong();
+                    for (Visitor visitor : getVisitors(settings)) {
+                        lanes.reserve(visitor, slotStart);
+                    }
+                }
+            }
+            return ride;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Ride settings in " + file + " are truncated");
+        }
+    }
+
+    // Reads a section length and checks that the section fits in the file and in one mapping
+    private static int sectionLength(FileChannel channel, long position, Path file) throws IOException {
+        long length = readFully(channel, position, 8, file).getLong();
+        if (length < 0 || length > Integer.MAX_VALUE || position + 8 + length > channel.size()) {
+            throw new IOException("Snapshot " + file + " is truncated or corrupt at byte " + position);
+        }
+        return (int) length;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Snapshot " + file + " is truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void putVisitors(Output out, List<Visitor> visitors) throws IOException {
+        out.putInt(visitors.size());
+        for (Visitor visitor : visitors) {
+            out.putString(visitor.getName());
+            out.putInt(visitor.getAge());
+            out.putString(visitor.getContactNumber());
+            out.putString(visitor.getTicketId());
+            int epochDay = visitor.getVisitEpochDay();
+            out.putInt(epochDay);
+            if (epochDay == VisitDates.INVALID) {
+                out.putString(visitor.getVisitDate());
+            }
+        }
+    }
+
+    private static List<Visitor> getVisitors(ByteBuffer settings) throws IOException {
+        int count = settings.getInt();
+        if (count < 0) {
+            throw new IOException("Negative visitor count in snapshot");
+        }
+        List<Visitor> visitors = new ArrayList<>(Math.min(count, settings.remaining()));
+        for (int i = 0; i < count; i++) {
+            String name = getString(settings);
+            int age = settings.getInt();
+            String contactNumber = getString(settings);
+            String ticketId = getString(settings);
+            int epochDay = settings.getInt();
+            String visitDate = (epochDay == VisitDates.INVALID) ? getString(settings) : VisitDates.format(epochDay);
+            visitors.add(new Visitor(name, age, contactNumber, ticketId, visitDate, epochDay));
+        }
+        return visitors;
+    }
+
+    private static String getString(ByteBuffer settings) throws IOException {
+        int length = settings.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > settings.remaining()) {
+            throw new IOException("String runs past the end of the ride settings");
+        }
+        String value = new String(settings.array(), settings.arrayOffset() + settings.position(), length, StandardCharsets.UTF_8);
+        settings.position(settings.position() + length);
+        return value;
+    }
+
+    /**
+     * Copy of one ride's state, taken while none of its cycles was in flight
+     * Queues and lanes are copied; the history is a view of the records present at that moment
+     */
+    private static final class RideState {
+        final String rideName;
+        final int maxCapacity;
+        final Employee operator;
+        final boolean concurrentQueue;
+        final int queueCapacity;
+        final List<Visitor> queue;
+        final BoardingLanes lanes;
+        final List<Visitor> fastPass;
+        final TreeMap<Long, List<Visitor>> reservations;
+        final RideHistory.Image history;
+
+        RideState(Ride ride) {
+            this.rideName = ride.getRideName();
+            this.maxCapacity = ride.getMaxCapacity();
+            this.operator = ride.getOperator();
+            VisitorQueue rideQueue = ride.getQueue();
+            this.concurrentQueue = rideQueue.isConcurrent();
+            this.queueCapacity = rideQueue.getCapacity();
+            this.queue = new ArrayList<>(ride.getUnjournaled()); // A batch held back by a journal failure is first in line
+            queue.addAll(rideQueue.copy()); // Validated copy, so a change by the owning thread mid-copy is never seen half done
+            this.lanes = ride.getLanes();
+            this.fastPass = (lanes != null) ? lanes.copyFastPass() : null;
+            this.reservations = (lanes != null) ? lanes.copyReservations() : null;
+            this.history = ride.getHistory().capture();
+        }
+    }
+
+    /**
+     * Buffered writer over the snapshot file channel that knows its file position and can fill in
+     * section lengths after the section has been written
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        private long flushed; // Bytes already written to the channel
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        // Writes an int byte length (-1 for null) and the UTF-8 bytes, copying ASCII strings char by char
+        void putString(String value) throws IOException {
+            int length = HistoryExporter.utf8Length(value);
+            putInt(length);
+            if (value == null) {
+                return;
+            }
+            if (length > buffer.capacity()) {
+                flush();
+                write(ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)));
+                flushed += length;
+                return;
+            }
+            ensure(length);
+            if (length == value.length()) {
+                for (int i = 0; i < length; i++) {
+                    buffer.put((byte) value.charAt(i));
+                }
+            } else {
+                buffer.put(value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        // Fills in the long length field at lengthAt with the number of bytes written after it
+        void patchLength(long lengthAt, String rideName) throws IOException {
+            long length = position() - lengthAt - 8;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot section of " + rideName + " exceeds 2 GB");
+            }
+            flush();
+            ByteBuffer field = ByteBuffer.allocate(8).putLong(0, length);
+            while (field.hasRemaining()) {
+                channel.write(field, lengthAt + field.position());
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            flushed += buffer.remaining();
+            write(buffer);
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void write(ByteBuffer data) throws IOException {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package themepark;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * ParkWorkers class - Actor execution mode for a whole park
+ * Each registered Ride is owned by a RideActor and pinned to one of a fixed set of single-thread workers
+ * (round robin, so rides are spread evenly and a ride always runs on the same thread). Rides never share
+ * state, so per-ride work takes no cross-ride locks and throughput grows with the number of rides and cores
+ * (it is not lock-free: each message still takes the ride's own monitors, which only its worker ever holds)
+ * Questions about the whole park (total visitors, which rides a ticket has taken) are answered by
+ * scatter-gather: the query is sent to every ride as a message and the answers are combined when all arrive
+ * Close the workers when the park shuts down; messages sent afterwards are dropped
+ */
+public class ParkWorkers implements Closeable {
+    private final ExecutorService[] workers;          // One single-thread executor per worker
+    private final List<RideActor> actors;             // Registered rides in registration order (guarded by this)
+    private final Map<String, RideActor> actorsByName; // Ride name -> actor
+
+    /**
+     * Default constructor
+     * Creates one worker per available processor
+     */
+    public ParkWorkers() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parameterized constructor
+     * @param workerCount Number of worker threads (at least 1)
+     */
+    public ParkWorkers(int workerCount) {
+        this.workers = new ExecutorService[Math.max(1, workerCount)];
+        for (int i = 0; i < workers.length; i++) {
+            String threadName = "ride-worker-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.actors = new ArrayList<>();
+        this.actorsByName = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Hand a ride over to an actor on the next worker
+     * After this, the ride must only be used through the returned actor
+     * @param ride Ride to register
+     * @return RideActor: The ride's actor
+     * @throws IllegalArgumentException If a ride with the same name is already registered (the ride is not registered)
+     */
+    public synchronized RideActor register(Ride ride) {
+        if (actorsByName.containsKey(ride.getRideName())) {
+            throw new IllegalArgumentException("A ride named " + ride.getRideName() + " is already registered");
+        }
+        RideActor actor = new RideActor(ride, workers[actors.size() % workers.length]);
+        actors.add(actor);
+        actorsByName.put(ride.getRideName(), actor);
+        return actor;
+    }
+
+    /**
+     * Get the actor owning a ride
+     * @param rideName Name of the ride
+     * @return RideActor: The ride's actor, or null if no ride has that name
+     */
+    public RideActor getActor(String rideName) {
+        return actorsByName.get(rideName);
+    }
+
+    /**
+     * Get all actors in registration order
+     * @return List: Unmodifiable snapshot of the actors
+     */
+    public synchronized List<RideActor> getActors() {
+        return Collections.unmodifiableList(new ArrayList<>(actors));
+    }
+
+    /**
+     * Get the number of worker threads
+     * @return int: Worker count
+     */
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    /**
+     * Send a query to every ride and gather the answers
+     * @param query Function to run on each ride's worker thread
+     * @param <T> Type of each answer
+     * @return CompletableFuture: Completed with the answers in registration order once every ride has answered
+     */
+    public <T> CompletableFuture<List<T>> scatter(Function<Ride, T> query) {
+        List<RideActor> targets = getActors();
+        List<CompletableFuture<T>> answers = new ArrayList<>(targets.size());
+        for (RideActor actor : targets) {
+            answers.add(actor.ask(query));
+        }
+        return CompletableFuture.allOf(answers.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<T> gathered = new ArrayList<>(answers.size());
+            for (CompletableFuture<T> answer : answers) {
+                gathered.add(answer.join());
+            }
+            return gathered;
+        });
+    }
+
+    /**
+     * Get the total number of visitors in all ride histories
+     * @return CompletableFuture: Completed with the park-wide total
+     */
+    public CompletableFuture<Long> totalVisitors() {
+        return sum(scatter(Ride::numberOfVisitors));
+    }
+
+    /**
+     * Get the total number of visitors waiting in all ride queues
+     * @return CompletableFuture: Completed with the park-wide total
+     */
+    public CompletableFuture<Long> totalQueueLength() {
+        return sum(scatter(ride -> ride.getQueue().size()));
+    }
+
+    /**
+     * Find every ride a ticket has been used on
+     * @param ticketId Ticket ID to look up
+     * @return CompletableFuture: Completed with the names of the rides whose history contains the ticket
+     */
+    public CompletableFuture<List<String>> ridesTakenBy(String ticketId) {
+        return scatter(ride -> ride.getHistory().containsTicket(ticketId) ? ride.getRideName() : null)
+                .thenApply(names -> {
+                    List<String> taken = new ArrayList<>();
+                    for (String name : names) {
+                        if (name != null) {
+                            taken.add(name);
+                        }
+                    }
+                    return taken;
+                });
+    }
+
+    /**
+     * Run one cycle (without status messages) on every ride
+     * @return CompletableFuture: Completed with the number of visitors boarded across the park
+     */
+    public CompletableFuture<Long> runOneCycleEverywhere() {
+        return sum(scatter(Ride::boardOneCycle));
+    }
+
+    /**
+     * Stop the workers after the messages already sent have been processed
+     */
+    @Override
+    public void close() {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                    System.out.println("Error: A ride worker did not finish within 10 seconds");
+                    worker.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CompletableFuture<Long> sum(CompletableFuture<List<Integer>> counts) {
+        return counts.thenApply(values -> {
+            long total = 0;
+            for (int value : values) {
+                total += value;
+            }
+            return total;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package themepark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Renderable interface - Objects that can write their display text straight into a caller-supplied Appendable
+ * Status boards that refresh every second can reuse one StringBuilder (or write to a Writer/PrintStream)
+ * instead of building a new concatenated String per element; toString() produces the same text
+ * The static helpers append numbers without creating Strings
+ */
+public interface Renderable {
+    /**
+     * Append the same text as toString() to the given output
+     * @param out Destination (e.g. a reused StringBuilder, a Writer or System.out)
+     * @throws IOException If the destination fails to accept the text
+     */
+    void appendTo(Appendable out) throws IOException;
+
+    /**
+     * Render an object into a new String (used by toString() implementations)
+     * @param renderable Object to render
+     * @return String: Rendered text
+     */
+    static String render(Renderable renderable) {
+        StringBuilder text = new StringBuilder(128);
+        try {
+            renderable.appendTo(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return text.toString();
+    }
+
+    /**
+     * Append an int as decimal digits without creating a String
+     * @param out Destination
+     * @param value Value to append
+     * @throws IOException If the destination fails
+     */
+    static void appendInt(Appendable out, int value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value); // Already allocation-free
+            return;
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            out.append('-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            out.append((char) ('0' + remaining / divisor));
+            remaining %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Append a line separator (the same one println() uses)
+     * @param out Destination
+     * @throws IOException If the destination fails
+     */
+    static void appendLine(Appendable out) throws IOException {
+        out.append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,798 @@
+package themepark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Class representing amusement rides in a theme park (e.g., roller coaster, water ride, ferris wheel)
+ * Encapsulates core attributes of a ride and maintains an association with an Employee (ride operator)
+ * Serves as a foundational class for implementing queue management, ride cycles, and history tracking
+ */
+public class Ride implements RideInterface, Renderable {
+    private static final int PRINT_CHUNK_CHARS = 16 * 1024; // Rendered text is printed in chunks of about this size
+
+    // Core attributes of the amusement ride (encapsulated as private fields for data security)
+    private String rideName;       // Unique name of the ride (e.g., "Thunderbolt Roller Coaster")
+    private int maxCapacity;       // Maximum number of visitors the ride can accommodate per cycle (used in Part 5)
+    private volatile Employee operator; // Associated Employee object: Represents the staff member responsible for operating the ride
+    // Volatile because a StaffDispatcher may reassign it while another thread runs the ride
+    private VisitorQueue queue;    // Visitors waiting to take the ride (Part 3), standard or concurrent mode
+    private RideHistory history;   // Visitors who have taken the ride (Part 4), indexed by ticket ID
+    private volatile RideMetrics metrics; // Operational metrics, or null while metrics are disabled (the default)
+    private volatile TicketRegistry ticketRegistry; // Park-wide visitor registry, or null if the ride is standalone
+    private volatile HistoryJournal journal; // Durable log of boarded visitors, or null if history is in memory only
+    private volatile BoardingLanes lanes; // Fast-pass and virtual-queue lanes, or null if the queue is the only lane
+    private final AtomicLong cyclesStarted = new AtomicLong();  // Boarding cycles begun (see ParkSnapshot)
+    private final AtomicLong cyclesFinished = new AtomicLong(); // Boarding cycles whose visitors are in the history
+    private final Object cycleLock = new Object(); // Held for a whole boarding cycle: one thread boards the ride at a time
+    private volatile List<Visitor> unjournaled; // Boarded batch the journal could not log; boards first next cycle (null = none)
+    private long[] unjournaledQueuedAt;         // Queue join times of that batch (null if metrics were off; guarded by cycleLock)
+    private final ArrayList<Visitor> boardingScratch = new ArrayList<>(); // Reused by every cycle (guarded by cycleLock)
+    private long[] queuedAtScratch = new long[0]; // Join times of the visitors boarding, reused while metrics are on (guarded by cycleLock)
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Initializes ride attributes with default values when no parameters are provided
+     */
+    public Ride() {
+        this.rideName = "Unknown";          // Default name if not specified
+        this.maxCapacity = 2;               // Default capacity: 2 visitors per cycle
+        this.operator = null;               // No operator assigned initially
+        this.queue = new VisitorQueue();    // Standard single-threaded queue
+        this.history = new RideHistory();
+    }
+
+    /**
+     * Parameterized constructor
+     * Initializes all ride attributes with user-provided values, including data validation for capacity
+     * @param rideName Unique name of the ride (e.g., "Wave Pool")
+     * @param maxCapacity Maximum visitors per cycle (must be ≥ 1; defaults to 2 if invalid)
+     * @param operator Employee object assigned to operate the ride
+     */
+    public Ride(String rideName, int maxCapacity, Employee operator) {
+        this(rideName, maxCapacity, operator, new VisitorQueue());
+    }
+
+    /**
+     * Parameterized constructor with an explicit queue mode
+     * Use new VisitorQueue(true, capacity) when several entry scanners add visitors at the same time
+     * as the ride loop removes them; the ride itself then needs no external lock around its queue
+     * @param rideName Unique name of the ride (e.g., "Wave Pool")
+     * @param maxCapacity Maximum visitors per cycle (must be ≥ 1; defaults to 2 if invalid)
+     * @param operator Employee object assigned to operate the ride
+     * @param queue Queue implementation to use for waiting visitors (standard queue if null)
+     */
+    public Ride(String rideName, int maxCapacity, Employee operator, VisitorQueue queue) {
+        this(rideName, maxCapacity, operator, queue, new RideHistory());
+    }
+
+    /**
+     * Parameterized constructor with an existing history (used by ParkSnapshot.load())
+     * @param rideName Unique name of the ride
+     * @param maxCapacity Maximum visitors per cycle (must be ≥ 1; defaults to 2 if invalid)
+     * @param operator Employee object assigned to operate the ride
+     * @param queue Queue implementation to use for waiting visitors (standard queue if null)
+     * @param history History of the ride so far
+     */
+    Ride(String rideName, int maxCapacity, Employee operator, VisitorQueue queue, RideHistory history) {
+        this.rideName = rideName;
+        // Validation: Ensure capacity is at least 1 (use default 2 if invalid input)
+        this.maxCapacity = (maxCapacity >= 1) ? maxCapacity : 2;
+        this.operator = operator;
+        this.queue = (queue != null) ? queue : new VisitorQueue();
+        this.history = history;
+    }
+
+    // Getter and Setter methods (implement encapsulation: controlled access to private fields)
+
+    /**
+     * Get the unique name of the ride
+     * @return String: Ride name (e.g., "Ferris Wheel")
+     */
+    public String getRideName() {
+        return rideName;
+    }
+
+    /**
+     * Set a new name for the ride
+     * @param rideName New unique name to assign to the ride
+     */
+    public void setRideName(String rideName) {
+        this.rideName = rideName;
+    }
+
+    /**
+     * Get the maximum number of visitors the ride can accommodate per cycle
+     * @return int: Maximum capacity (≥ 1)
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Set the maximum capacity of the ride with data validation
+     * @param maxCapacity New maximum capacity (must be ≥ 1; error message printed if invalid)
+     */
+    public void setMaxCapacity(int maxCapacity) {
+        if (maxCapacity >= 1) {
+            this.maxCapacity = maxCapacity; // Update capacity only if validation passes
+        } else {
+            System.out.println("Error: Max capacity must be at least 1"); // Error feedback for invalid input
+        }
+    }
+
+    /**
+     * Get the employee assigned to operate the ride
+     * @return Employee: Operator of the ride (null if no operator is assigned)
+     */
+    public Employee getOperator() {
+        return operator;
+    }
+
+    /**
+     * Assign a new employee to operate the ride
+     * @param operator New Employee object to set as the ride's operator
+     */
+    public void setOperator(Employee operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * Get the queue of visitors waiting for the ride
+     * @return VisitorQueue: The ride's waiting line
+     */
+    public VisitorQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Get the history of visitors who have taken the ride
+     * @return RideHistory: The ride's history records
+     */
+    public RideHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Turn on operational metrics for this ride (queue counts, wait times, cycle latency, seat utilization)
+     * Metrics are off by default; while off, every queue and cycle operation pays only a null check
+     * @return RideMetrics: The ride's metrics (the same object if metrics were already enabled)
+     */
+    public synchronized RideMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new RideMetrics(this);
+        }
+        return metrics;
+    }
+
+    /**
+     * Turn off operational metrics and unregister them from JMX if they were registered
+     */
+    public synchronized void disableMetrics() {
+        if (metrics != null) {
+            metrics.unregisterMBean();
+            metrics = null;
+        }
+    }
+
+    /**
+     * Get the ride's operational metrics
+     * @return RideMetrics: Metrics, or null if metrics are disabled
+     */
+    public RideMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the park-wide ticket registry the ride reports to
+     * @return TicketRegistry: Registry, or null if none is attached
+     */
+    public TicketRegistry getTicketRegistry() {
+        return ticketRegistry;
+    }
+
+    /**
+     * Attach the ride to a park-wide ticket registry
+     * Visitors joining the queue are replaced by the registry's canonical instance for their ticket,
+     * and every visitor added to the history is recorded as having ridden this ride
+     * @param ticketRegistry Registry to report to (null to detach)
+     */
+    public void setTicketRegistry(TicketRegistry ticketRegistry) {
+        this.ticketRegistry = ticketRegistry;
+    }
+
+    /**
+     * Get the journal the ride logs its history to
+     * @return HistoryJournal: Journal, or null if none is attached
+     */
+    public HistoryJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Attach the ride to a durable history journal
+     * Every visitor added to the history (one batch per ride cycle) is appended to the journal first,
+     * so the history can be rebuilt with HistoryJournal.replay() after a restart
+     * If an append fails, the batch is not added to the history: the history never gets ahead of the journal
+     * @param journal Journal to append to (null to detach)
+     */
+    public void setJournal(HistoryJournal journal) {
+        this.journal = journal;
+    }
+
+    // Part Three: Queue-related methods
+
+    /**
+     * Add a visitor to the back of the queue
+     * Safe to call from several threads at once when the ride uses a concurrent queue
+     * Only failures are printed, because System.out is itself synchronized and would serialize the scanners
+     * @param visitor Visitor joining the queue
+     */
+    @Override
+    public void addVisitorToQueue(Visitor visitor) {
+        if (visitor == null) {
+            System.out.println("Error: Cannot add a null visitor to the queue");
+        } else if (!offerToQueue(visitor, false)) {
+            System.out.println("Error: Queue for " + rideName + " is full, " + visitor.getName() + " was not added");
+        }
+    }
+
+    /**
+     * Add a visitor to the back of the queue and report whether it was accepted
+     * Lets callers apply their own backpressure (e.g. ask the guest to come back later) when the queue is full
+     * @param visitor Visitor joining the queue
+     * @return boolean: True if the visitor joined the queue, false if it is null or the queue is full
+     */
+    public boolean tryAddVisitorToQueue(Visitor visitor) {
+        return visitor != null && offerToQueue(visitor, false);
+    }
+
+    /**
+     * Turn on priority boarding lanes: a fast-pass lane and time-slot virtual-queue reservations next to the queue
+     * Each cycle then fills its seats from the lanes by the given mix; the regular queue gets the remaining share
+     * @param fastPassShare Share of each cycle's seats for fast-pass holders (e.g. 0.5)
+     * @param virtualShare Share of each cycle's seats for due virtual-queue reservations (e.g. 0.25)
+     * @return BoardingLanes: The ride's lanes (if already enabled, the same lanes with the new mix)
+     */
+    public synchronized BoardingLanes enableLanes(double fastPassShare, double virtualShare) {
+        if (lanes == null) {
+            lanes = new BoardingLanes(queue, fastPassShare, virtualShare);
+        } else {
+            lanes.setMix(fastPassShare, virtualShare);
+        }
+        return lanes;
+    }
+
+    /**
+     * Get the ride's priority boarding lanes
+     * @return BoardingLanes: Lanes, or null if they are not enabled
+     */
+    public BoardingLanes getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Add a fast-pass holder to the back of the fast-pass lane
+     * Prints an error message if lanes are not enabled or the lane is full
+     * @param visitor Visitor with a fast pass
+     */
+    public void addVisitorToFastPass(Visitor visitor) {
+        BoardingLanes currentLanes = lanes;
+        if (visitor == null) {
+            System.out.println("Error: Cannot add a null visitor to the fast-pass lane");
+        } else if (currentLanes == null) {
+            System.out.println("Error: " + rideName + " has no fast-pass lane");
+        } else if (!offerToQueue(visitor, true)) {
+            System.out.println("Error: Fast-pass lane for " + rideName + " is full, " + visitor.getName() + " was not added");
+        }
+    }
+
+    /**
+     * Add a visitor to the back of the fast-pass lane and report whether it was accepted
+     * @param visitor Fast-pass holder
+     * @return boolean: True if the visitor joined the lane, false if it is null, lanes are not enabled or the lane is full
+     */
+    public boolean tryAddVisitorToFastPass(Visitor visitor) {
+        return visitor != null && lanes != null && offerToQueue(visitor, true);
+    }
+
+    /**
+     * Reserve a virtual-queue place for a visitor in the time slot containing the return time
+     * The visitor waits elsewhere in the park and can board once the slot has started
+     * With metrics enabled, the recorded wait runs from the moment the reservation could board until boarding
+     * @param visitor Visitor making the reservation
+     * @param returnTime Time the visitor will come back, in the lanes' clock units (milliseconds by default)
+     * @return boolean: True if the reservation was made, false if lanes are not enabled or the slot is full
+     */
+    public boolean reserveVirtualQueue(Visitor visitor, long returnTime) {
+        BoardingLanes currentLanes = lanes;
+        if (visitor == null || currentLanes == null) {
+            return false;
+        }
+        TicketRegistry registry = ticketRegistry;
+        if (registry != null) {
+            visitor = registry.canonicalize(visitor);
+        }
+        if (!currentLanes.reserve(visitor, returnTime)) {
+            return false;
+        }
+        RideMetrics currentMetrics = metrics;
+        if (currentMetrics != null) {
+            currentMetrics.recordEnqueue();
+        }
+        return true;
+    }
+
+    // Offers a visitor (its canonical instance if a registry is attached) to the queue or the fast-pass lane;
+    // when metrics are enabled the queue entry is stamped with the joining time, so the wait is per ride
+    private boolean offerToQueue(Visitor visitor, boolean fastPassLane) {
+        TicketRegistry registry = ticketRegistry;
+        if (registry != null) {
+            visitor = registry.canonicalize(visitor);
+        }
+        RideMetrics currentMetrics = metrics;
+        if (currentMetrics == null) {
+            return fastPassLane ? lanes.offerFastPass(visitor, 0L) : queue.offer(visitor);
+        }
+        long queuedAt = System.nanoTime();
+        if (fastPassLane ? lanes.offerFastPass(visitor, queuedAt) : queue.offer(visitor, queuedAt)) {
+            currentMetrics.recordEnqueue();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the visitor at the front of the queue
+     * Prints an error message if the queue is empty
+     */
+    @Override
+    public void removeVisitorFromQueue() {
+        Visitor removed = queue.poll();
+        if (removed == null) {
+            System.out.println("Error: Queue for " + rideName + " is empty, no visitor to remove");
+        } else {
+            RideMetrics currentMetrics = metrics;
+            if (currentMetrics != null) {
+                currentMetrics.recordDequeue(1);
+            }
+            System.out.println(removed.getName() + " has been removed from the queue of " + rideName);
+        }
+    }
+
+    /**
+     * Print all visitors in the queue in FIFO order
+     */
+    @Override
+    public void printQueue() {
+        if (queue.isEmpty()) {
+            System.out.println("The queue for " + rideName + " is empty");
+            return;
+        }
+        System.out.println("Queue for " + rideName + " (" + queue.size() + " visitors):");
+        StringBuilder chunk = new StringBuilder(PRINT_CHUNK_CHARS + 256);
+        try {
+            for (Visitor visitor : queue) {
+                appendVisitorLine(chunk, visitor);
+                printIfFull(chunk);
+            }
+        } catch (IOException e) {
+            System.out.println("Error: Could not render the queue of " + rideName + ": " + e.getMessage());
+        }
+        System.out.print(chunk);
+    }
+
+    /**
+     * Write one page of the queue in FIFO order, one "  <visitor>" line per visitor
+     * For status boards: render "the next 50" into a StringBuilder that is reused on every refresh,
+     * without building a String per visitor; only the requested page is formatted
+     * @param out Destination (e.g. a reused StringBuilder or a Writer)
+     * @param offset Number of visitors to skip from the front of the queue (they are walked, not formatted)
+     * @param limit Maximum number of visitors to write
+     * @return int: Number of visitors written (fewer than limit on the last page)
+     * @throws IOException If the destination fails
+     */
+    public int renderQueue(Appendable out, int offset, int limit) throws IOException {
+        Iterator<Visitor> iterator = queue.iterator();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        int written = 0;
+        while (written < limit && iterator.hasNext()) {
+            appendVisitorLine(out, iterator.next());
+            written++;
+        }
+        return written;
+    }
+
+    // Part Four: History-related methods
+
+    /**
+     * Add a visitor to the ride history
+     * @param visitor Visitor who has taken the ride
+     */
+    @Override
+    public void addVisitorToHistory(Visitor visitor) {
+        if (visitor == null) {
+            System.out.println("Error: Cannot add a null visitor to the history");
+            return;
+        }
+        if (!journalBatch(Collections.singletonList(visitor))) {
+            return;
+        }
+        history.add(visitor);
+        TicketRegistry registry = ticketRegistry;
+        if (registry != null) {
+            registry.recordRides(this, Collections.singletonList(visitor));
+        }
+    }
+
+    /**
+     * Add a whole batch of visitors to the ride history in one append
+     * Used by runOneCycle() so that boarding a full cycle is one history operation, not one per seat
+     * @param batch Visitors who have taken the ride, in boarding order (null entries are skipped)
+     * @return boolean: False if the attached journal could not log the batch (nothing is added then), otherwise true
+     */
+    public boolean addAllToHistory(Collection<Visitor> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return true;
+        }
+        if (batch.contains(null)) {
+            System.out.println("Error: Cannot add a null visitor to the history");
+            ArrayList<Visitor> valid = new ArrayList<>(batch.size());
+            for (Visitor visitor : batch) {
+                if (visitor != null) {
+                    valid.add(visitor);
+                }
+            }
+            batch = valid;
+        }
+        if (!journalBatch(batch)) {
+            return false;
+        }
+        restoreHistory(batch);
+        return true;
+    }
+
+    /**
+     * Add visitors to the history without journaling them (used by HistoryJournal.replay())
+     * @param batch Visitors to add, in boarding order (must not contain null)
+     */
+    void restoreHistory(Collection<Visitor> batch) {
+        history.addAll(batch);
+        TicketRegistry registry = ticketRegistry;
+        if (registry != null) {
+            registry.recordRides(this, batch);
+        }
+    }
+
+    // Appends a batch to the journal (if attached) before it reaches the in-memory history;
+    // false means the append failed and the batch must not be added to the history
+    private boolean journalBatch(Collection<Visitor> batch) {
+        HistoryJournal currentJournal = journal;
+        if (currentJournal == null) {
+            return true;
+        }
+        try {
+            currentJournal.append(this, batch);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error: Could not journal history of " + rideName + ", visitors were not added: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Check whether a visitor is in the ride history
+     * Looks the visitor's ticket ID up in the history index (Bloom filter, then hash map) rather than scanning
+     * @param visitor Visitor to look for
+     * @return boolean: True if a visitor with the same ticket ID has taken the ride
+     */
+    @Override
+    public boolean checkVisitorFromHistory(Visitor visitor) {
+        return history.contains(visitor);
+    }
+
+    /**
+     * Get the number of visitors in the ride history
+     * @return int: Number of history records
+     */
+    @Override
+    public int numberOfVisitors() {
+        return history.size();
+    }
+
+    /**
+     * Print all visitors in the ride history using an Iterator
+     */
+    @Override
+    public void printRideHistory() {
+        if (history.isEmpty()) {
+            System.out.println("No visitors have taken " + rideName + " yet");
+            return;
+        }
+        System.out.println("Ride history for " + rideName + " (" + history.size() + " visitors):");
+        StringBuilder chunk = new StringBuilder(PRINT_CHUNK_CHARS + 256);
+        Iterator<Visitor> iterator = history.iterator();
+        try {
+            while (iterator.hasNext()) {
+                appendVisitorLine(chunk, iterator.next());
+                printIfFull(chunk);
+            }
+        } catch (IOException e) {
+            System.out.println("Error: Could not render the history of " + rideName + ": " + e.getMessage());
+        }
+        System.out.print(chunk);
+    }
+
+    /**
+     * Write one page of the ride history in boarding order, one "  <visitor>" line per record
+     * Records are rendered straight from the compact history: no Visitor objects and no per-line Strings
+     * @param out Destination (e.g. a reused StringBuilder or a Writer)
+     * @param offset Position of the first record to write (records before it are not touched)
+     * @param limit Maximum number of records to write
+     * @return int: Number of records written (fewer than limit on the last page)
+     * @throws IOException If the destination fails
+     */
+    public int renderRideHistory(Appendable out, int offset, int limit) throws IOException {
+        int end = (int) Math.min((long) Math.max(0, offset) + Math.max(0, limit), history.size());
+        int written = 0;
+        for (int position = Math.max(0, offset); position < end; position++) {
+            out.append("  ");
+            history.appendRecord(out, position);
+            Renderable.appendLine(out);
+            written++;
+        }
+        return written;
+    }
+
+    // Appends "  <visitor>" and a line separator
+    private static void appendVisitorLine(Appendable out, Visitor visitor) throws IOException {
+        out.append("  ");
+        visitor.appendTo(out);
+        Renderable.appendLine(out);
+    }
+
+    // Prints and clears the chunk once it holds enough text, so big queues and histories go out in a few large writes
+    private static void printIfFull(StringBuilder chunk) {
+        if (chunk.length() >= PRINT_CHUNK_CHARS) {
+            System.out.print(chunk);
+            chunk.setLength(0);
+        }
+    }
+
+    // Part Six: Export method
+
+    /**
+     * Export the ride history to a file
+     * The format follows the file name: ".bin" for binary, otherwise CSV; a trailing ".gz" adds gzip compression
+     * Records are streamed from the history iterator, so the whole history is never held as text in memory
+     * @param fileName Path of the file to write (replaced if it exists)
+     */
+    public void exportRideHistory(String fileName) {
+        HistoryExporter exporter = new HistoryExporter(HistoryFormat.fromFileName(fileName),
+                fileName.toLowerCase().endsWith(".gz"));
+        try {
+            long records = exporter.export(history, Paths.get(fileName));
+            System.out.println("Exported " + records + " history records of " + rideName + " to " + fileName);
+        } catch (IOException e) {
+            System.out.println("Error: Could not export history of " + rideName + " to " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    // Part Seven: Import method
+
+    /**
+     * Import ride history from a file written by exportRideHistory()
+     * The file is memory-mapped and parsed in parallel; records are appended to the history in file order
+     * Bad lines are skipped and reported (lenient import); the format is detected from the file contents
+     * @param fileName Path of the file to read
+     */
+    public void importRideHistory(String fileName) {
+        HistoryImporter importer = new HistoryImporter(false);
+        try {
+            HistoryImporter.ImportResult result = importer.importHistory(Paths.get(fileName), this);
+            System.out.println("Imported " + result.getRecordsImported() + " history records into " + rideName + " from " + fileName);
+            for (String error : result.getErrors()) {
+                System.out.println("Error: Skipped " + error);
+            }
+        } catch (IOException e) {
+            System.out.println("Error: Could not import history into " + rideName + " from " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a sorted view of the ride history (Part 4B)
+     * The view is maintained incrementally as visitors are added, so repeated sorted queries cost no re-sorting;
+     * the same key function always gets the same view (see RideHistory.sortedView())
+     * @param sortKey Sort key extractor, e.g. SortedRideHistory.BY_NAME
+     * @param <K> Type of the sort key
+     * @return SortedRideHistory: History in sorted order, ties kept in boarding order
+     */
+    public <K extends Comparable<? super K>> SortedRideHistory<K> sortRideHistory(Function<Visitor, K> sortKey) {
+        return history.sortedView(sortKey);
+    }
+
+    /**
+     * Get a sorted view of the ride history by a numeric key, compared as primitive longs (Part 4B)
+     * Shared per key function like sortRideHistory(); detach() a view that is only needed once
+     * @param sortKey Numeric key extractor, e.g. SortedRideHistory.BY_VISIT_DATE or BY_AGE
+     * @return SortedRideHistory: History in sorted order, ties kept in boarding order
+     */
+    public SortedRideHistory<Long> sortRideHistoryByNumber(ToLongFunction<Visitor> sortKey) {
+        return history.numericSortedView(sortKey);
+    }
+
+    // Part Five: Run cycle method
+
+    /**
+     * Run one cycle of the ride
+     * Moves up to maxCapacity visitors from the front of the queue into the ride history
+     * Boarding is batched: one drainTo() on the queue and one addAllToHistory() on the history per cycle
+     * With lanes enabled, the seats are filled from the fast-pass lane, due virtual-queue reservations
+     * and the queue according to the lane mix
+     * The ride cannot run without an operator or with an empty queue
+     */
+    @Override
+    public void runOneCycle() {
+        if (operator == null) {
+            System.out.println("Error: " + rideName + " cannot run without an operator");
+            return;
+        }
+        if (!hasWaitingVisitors()) {
+            System.out.println("Error: " + rideName + " cannot run, no visitors in the queue");
+            return;
+        }
+        int boarded = boardOneCycle();
+        System.out.println(rideName + " completed one cycle with " + boarded + " visitors");
+    }
+
+    /**
+     * Board one cycle of the ride without printing status messages
+     * Does the work of runOneCycle(): moves up to maxCapacity visitors from the queue into the history
+     * Used by callers that run many cycles (e.g. ParkSimulation) and need the number of boarded visitors
+     * If the journal cannot log the batch, the batch is held at the front of the line and boards again,
+     * before anyone else, on the next cycle
+     * Cycles of one ride never overlap: a thread calling this while another thread's cycle is running waits
+     * for it to finish, so a held batch is taken and boarded exactly once
+     * @return int: Number of visitors boarded (0 if there is no operator, the queue is empty or journaling failed)
+     */
+    public int boardOneCycle() {
+        if (operator == null || !hasWaitingVisitors()) {
+            return 0;
+        }
+        synchronized (cycleLock) {
+            if (!hasWaitingVisitors()) {
+                return 0; // A cycle on another thread boarded them first
+            }
+            BoardingLanes currentLanes = lanes;
+            RideMetrics currentMetrics = metrics;
+            int seats = maxCapacity;
+            long start = (currentMetrics != null) ? System.nanoTime() : 0L;
+            List<Visitor> boarding = unjournaled;
+            long[] queuedAt;
+            int boarded;
+            cyclesStarted.incrementAndGet(); // Visitors are between queue and history until cyclesFinished catches up
+            try {
+                if (boarding != null) {
+                    queuedAt = unjournaledQueuedAt; // The held batch boards before anyone else
+                } else {
+                    boardingScratch.clear();
+                    boarding = boardingScratch;
+                    queuedAt = null;
+                    if (currentMetrics != null) {
+                        if (queuedAtScratch.length < seats) {
+                            queuedAtScratch = new long[seats]; // Only when the capacity grows
+                        }
+                        queuedAt = queuedAtScratch; // Join time of each boarding visitor
+                    }
+                    if (currentLanes != null) {
+                        currentLanes.drainTo(boarding, seats, queuedAt);
+                    } else {
+                        queue.drainTo(boarding, seats, queuedAt, 0);
+                    }
+                }
+                if (addAllToHistory(boarding)) {
+                    unjournaled = null;
+                    unjournaledQueuedAt = null;
+                    boarded = boarding.size();
+                } else if (boarding == boardingScratch) {
+                    // Rare failure path: the held batch gets its own copies, as the scratch space is reused
+                    unjournaledQueuedAt = (queuedAt != null) ? queuedAt.clone() : null;
+                    unjournaled = new ArrayList<>(boarding);
+                    boarded = 0;
+                } else {
+                    boarded = 0; // The held batch stays held
+                }
+            } finally {
+                boardingScratch.clear(); // Do not keep boarded visitors reachable until the next cycle
+                cyclesFinished.incrementAndGet();
+            }
+            if (currentMetrics != null) {
+                long now = System.nanoTime();
+                for (int i = 0; i < boarded && queuedAt != null; i++) {
+                    currentMetrics.recordBoarding(queuedAt[i], start);
+                }
+                currentMetrics.recordDequeue(boarded);
+                currentMetrics.recordCycle(boarded, seats, now - start);
+            }
+            return boarded;
+        }
+    }
+
+    /**
+     * Get the number of boarding cycles begun so far
+     * @return long: Cycles started
+     */
+    long getCyclesStarted() {
+        return cyclesStarted.get();
+    }
+
+    /**
+     * Get the number of boarding cycles completed so far (boarded visitors added to the history)
+     * A snapshot taken while no cycle is in flight, and with no cycle starting meanwhile, sees every visitor
+     * in exactly one of the queue and the history
+     * @return long: Cycles finished
+     */
+    long getCyclesFinished() {
+        return cyclesFinished.get();
+    }
+
+    /**
+     * Get the batch that boarded while the journal could not log it, held at the front of the line
+     * Only changes inside a cycle, so a snapshot taken between cycles sees it together with the queue
+     * @return List: Held visitors in boarding order, or an empty list if there are none
+     */
+    List<Visitor> getUnjournaled() {
+        List<Visitor> held = unjournaled;
+        return (held != null) ? held : Collections.emptyList();
+    }
+
+    // True if a cycle would board someone: a held batch, or the queue (or, with lanes, any lane with a boardable visitor)
+    private boolean hasWaitingVisitors() {
+        if (unjournaled != null) {
+            return true;
+        }
+        BoardingLanes currentLanes = lanes;
+        return (currentLanes != null) ? currentLanes.hasBoardable() : !queue.isEmpty();
+    }
+
+    /**
+     * Override toString() method
+     * Returns a human-readable string representation of the Ride object
+     * Includes ride name, capacity, and operator details (or "No operator assigned" if null)
+     * @return String: Formatted string with complete ride information
+     */
+    @Override
+    public String toString() {
+        return Renderable.render(this);
+    }
+
+    /**
+     * Appends the same text as toString() to the output without building intermediate Strings
+     * @param out Destination (e.g. a reused StringBuilder)
+     * @throws IOException If the destination fails
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append("Ride [Name: ").append(rideName).append(", Max Capacity: ");
+        Renderable.appendInt(out, maxCapacity);
+        out.append(", Operator: ");
+        Employee currentOperator = operator; // Read once: a StaffDispatcher may reassign it meanwhile
+        // Handle null operator case to avoid NullPointerExceptions
+        if (currentOperator != null) {
+            out.append(currentOperator.getName()).append(" (ID: ").append(currentOperator.getEmployeeId()).append(')');
+        } else {
+            out.append("No operator assigned");
+        }
+        out.append(']');
+    }
+}
\ No newline at end of file
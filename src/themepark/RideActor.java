@@ -0,0 +1,185 @@
+package themepark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * RideActor class - Owner of one Ride in the actor execution mode (see ParkWorkers)
+ * Every queue, boarding and history operation on the ride is sent to the actor as a message; messages are
+ * processed one at a time, in the order they were sent, always on the same worker thread,
+ * so the ride's state is only ever touched by one thread and needs no locking of its own
+ * (the ride can use the standard, non-concurrent VisitorQueue). The locks the ride takes anyway (its cycle lock
+ * and the RideHistory monitor) are still acquired per message, but never contended, since only the worker takes them
+ * Messages go into a lock-free mailbox; the worker drains up to MAX_BATCH messages per turn, so a burst of
+ * messages costs one hand-off to the worker instead of one per message, and busy rides cannot starve the
+ * other rides that share the worker
+ * Once a ride is owned by an actor, other threads must only use it through tell(), ask() and the helpers below
+ */
+public class RideActor {
+    public static final int MAX_BATCH = 256; // Messages processed per turn before yielding the worker
+
+    private final Ride ride;                                   // Ride owned by this actor
+    private final Executor worker;                             // Single-thread executor the ride is pinned to
+    private final ConcurrentLinkedQueue<Runnable> mailbox;     // Pending messages (multi-producer, single consumer)
+    private final AtomicBoolean scheduled;                     // True while a drain turn is queued or running
+    private final Runnable drain;                              // Reused drain task (no allocation per turn)
+
+    /**
+     * Parameterized constructor
+     * Created by ParkWorkers.register()
+     * @param ride Ride to own
+     * @param worker Single-thread executor that processes the ride's messages
+     */
+    RideActor(Ride ride, Executor worker) {
+        this.ride = ride;
+        this.worker = worker;
+        this.mailbox = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+        this.drain = this::drainMailbox;
+    }
+
+    /**
+     * Get the name of the owned ride (safe from any thread: the name is not changed by messages)
+     * @return String: Ride name
+     */
+    public String getRideName() {
+        return ride.getRideName();
+    }
+
+    /**
+     * Send a message that acts on the ride, without waiting for it
+     * @param message Operation to run on the ride's worker thread
+     */
+    public void tell(Consumer<Ride> message) {
+        post(() -> message.accept(ride));
+    }
+
+    /**
+     * Send a query to the ride and get its answer later
+     * @param query Function to run on the ride's worker thread
+     * @param <T> Type of the answer
+     * @return CompletableFuture: Completed with the answer, or exceptionally if the query throws (anything, Errors included)
+     */
+    public <T> CompletableFuture<T> ask(Function<Ride, T> query) {
+        CompletableFuture<T> answer = new CompletableFuture<>();
+        if (!post(() -> answer.complete(query.apply(ride)), answer)) {
+            answer.completeExceptionally(new RejectedExecutionException("Workers of " + ride.getRideName() + " are shut down"));
+        }
+        return answer;
+    }
+
+    /**
+     * Add a batch of visitors to the back of the ride's queue as one message
+     * @param visitors Visitors joining the queue, in order (copied, so the caller may reuse the collection)
+     */
+    public void addVisitorsToQueue(Collection<Visitor> visitors) {
+        List<Visitor> batch = new ArrayList<>(visitors);
+        tell(owned -> {
+            for (Visitor visitor : batch) {
+                owned.addVisitorToQueue(visitor);
+            }
+        });
+    }
+
+    /**
+     * Add one visitor to the back of the ride's queue
+     * @param visitor Visitor joining the queue
+     */
+    public void addVisitorToQueue(Visitor visitor) {
+        tell(owned -> owned.addVisitorToQueue(visitor));
+    }
+
+    /**
+     * Run ride cycles (without status messages) as one message
+     * @param cycles Number of cycles to run
+     * @return CompletableFuture: Completed with the number of visitors boarded
+     */
+    public CompletableFuture<Integer> runCycles(int cycles) {
+        return ask(owned -> {
+            int boarded = 0;
+            for (int i = 0; i < cycles; i++) {
+                boarded += owned.boardOneCycle();
+            }
+            return boarded;
+        });
+    }
+
+    private boolean post(Runnable message) {
+        return post(message, null);
+    }
+
+    // Adds a message to the mailbox and schedules a drain turn unless one is already pending
+    private boolean post(Runnable message, CompletableFuture<?> answer) {
+        Runnable queued = (answer == null) ? message : () -> {
+            try {
+                message.run();
+            } catch (Throwable e) {
+                answer.completeExceptionally(e); // The asker gets any failure; the actor carries on
+            }
+        };
+        mailbox.offer(queued);
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                worker.execute(drain);
+            } catch (RejectedExecutionException e) {
+                mailbox.remove(queued);
+                scheduled.set(false);
+                if (answer == null) {
+                    System.out.println("Error: Workers of " + ride.getRideName() + " are shut down, message dropped");
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One drain turn on the worker thread: up to MAX_BATCH messages, then reschedule if more arrived
+    // The reschedule is in a finally, so an Error thrown by a told message cannot leave the actor stalled
+    // with scheduled stuck at true (the Error still reaches the worker, which replaces its thread)
+    private void drainMailbox() {
+        try {
+            processBatch();
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    worker.execute(drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: finish the messages sent before close() here instead of rescheduling
+                    try {
+                        while (processBatch() > 0) {
+                            // Keep draining
+                        }
+                    } finally {
+                        scheduled.set(false);
+                    }
+                }
+            }
+        }
+    }
+
+    private int processBatch() {
+        int processed = 0;
+        while (processed < MAX_BATCH) {
+            Runnable message = mailbox.poll();
+            if (message == null) {
+                break;
+            }
+            processed++;
+            try {
+                message.run();
+            } catch (RuntimeException e) {
+                System.out.println("Error: Message to " + ride.getRideName() + " failed: " + e);
+            }
+        }
+        return processed;
+    }
+}
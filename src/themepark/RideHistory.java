@@ -0,0 +1,590 @@
+package themepark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * RideHistory class - Record of every visitor who has taken a Ride (Part 4)
+ * Stores history in a compact columnar form instead of keeping one Visitor object per ride:
+ *   - Each distinct visitor profile (ticket ID, name, age, contact number) is dictionary-encoded once to an int code
+ *   - Each history record is just two ints in primitive arrays: the profile code and the visit date as an epoch day
+ * A record therefore costs 8 bytes of heap instead of a full Visitor with four Strings,
+ * and Visitor objects are only materialized when the iterator (or get()) asks for them
+ * The ticket dictionary doubles as an index keyed by Visitor.getTicketId(), so "has this visitor ridden already?"
+ * is an O(1) hash lookup; a Bloom filter in front of it answers most negative checks without touching the map
+ * Visitors are identified by ticket ID, so two Visitor objects with the same ticket count as the same visitor
+ * Sorted views (see sortedView()) are updated as each record is appended, so sorted order never has to be recomputed;
+ * there is one view per sort key function, shared by everyone who asks for it, until it is detached
+ * A history loaded from a ParkSnapshot keeps the snapshot's records and profiles in the memory-mapped file
+ * (see MappedHistory) and only holds records appended after loading on the heap; a snapshot visitor who rides
+ * again gets a new heap profile, so the mapped part is never written to
+ * All methods are synchronized: the ride loop appends while gates check from other threads
+ */
+public class RideHistory implements Iterable<Visitor> {
+    private static final int INITIAL_RECORDS = 16;
+    private static final int RAW_DATE_BASE = VisitDates.INVALID; // Date codes from here up index rawDates
+
+    // Record columns (one entry per history record after the snapshot part, in insertion order)
+    private int[] recordProfiles;  // Profile code of the visitor in each record
+    private int[] recordDates;     // Visit date as an epoch day, or RAW_DATE_BASE + index into rawDates
+    private int recordCount;       // Number of records, including the snapshot part
+
+    // Profile dictionary (one entry per distinct ticket ID / name / age / contact combination after the snapshot part)
+    private String[] profileTickets;
+    private String[] profileNames;
+    private String[] profileContacts;
+    private int[] profileAges;
+    private int[] profileRideCounts; // Rides taken by the profile's ticket (cumulative across its profiles)
+    private int profileCount;      // Number of profile codes, including the snapshot part
+
+    private final HashMap<String, Integer> profileByTicket; // Ticket ID -> code of the latest profile for it
+    private final ArrayList<String> rawDates;               // Visit dates that are not canonical "YYYY-MM-DD"
+    private final HashMap<String, Integer> rawDateCodes;    // Raw visit date -> index into rawDates
+    private TicketBloomFilter bloomFilter;                  // Fast negative check in front of profileByTicket
+    private final LinkedHashMap<Object, SortedRideHistory<?>> sortedViews; // Sort key function -> view kept in sync with every appended record
+
+    // Snapshot part (records 0 .. baseRecords-1 and profile codes 0 .. baseProfiles-1), read from the mapped file
+    private final MappedHistory base; // Null if the history did not come from a snapshot
+    private final int baseRecords;
+    private final int baseProfiles;
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Creates an empty history
+     */
+    public RideHistory() {
+        this(null);
+    }
+
+    /**
+     * Parameterized constructor
+     * Creates a history whose first records are the ones in a snapshot (used by ParkSnapshot.load())
+     * @param base Records and profiles in the mapped snapshot file, or null for an empty history
+     */
+    RideHistory(MappedHistory base) {
+        this.base = base;
+        this.baseRecords = (base != null) ? base.getRecordCount() : 0;
+        this.baseProfiles = (base != null) ? base.getProfileCount() : 0;
+        this.recordCount = baseRecords;
+        this.profileCount = baseProfiles;
+        this.recordProfiles = new int[INITIAL_RECORDS];
+        this.recordDates = new int[INITIAL_RECORDS];
+        this.profileTickets = new String[INITIAL_RECORDS];
+        this.profileNames = new String[INITIAL_RECORDS];
+        this.profileContacts = new String[INITIAL_RECORDS];
+        this.profileAges = new int[INITIAL_RECORDS];
+        this.profileRideCounts = new int[INITIAL_RECORDS];
+        this.profileByTicket = new HashMap<>();
+        this.rawDates = new ArrayList<>();
+        this.rawDateCodes = new HashMap<>();
+        if (base != null) {
+            for (String rawDate : base.getRawDates()) {
+                rawDateCodes.put(rawDate, rawDates.size());
+                rawDates.add(rawDate);
+            }
+        }
+        this.bloomFilter = new TicketBloomFilter(TicketBloomFilter.INITIAL_EXPECTED_TICKETS);
+        this.sortedViews = new LinkedHashMap<>();
+    }
+
+    /**
+     * Add a visitor to the end of the history
+     * @param visitor Visitor who has taken the ride (must not be null)
+     */
+    public synchronized void add(Visitor visitor) {
+        ensureRecordCapacity(recordCount + 1);
+        append(visitor);
+    }
+
+    /**
+     * Add a batch of visitors to the end of the history, keeping their order
+     * @param batch Visitors who have taken the ride (must not contain null)
+     */
+    public synchronized void addAll(Collection<Visitor> batch) {
+        ensureRecordCapacity(recordCount + batch.size());
+        for (Visitor visitor : batch) {
+            append(visitor);
+        }
+    }
+
+    /**
+     * Get the sorted view of this history for a sort key, creating it on first use
+     * A new view is filled with the existing records straight away (O(n log n)) and then stays up to date as records
+     * are added; asking again with the same key function (e.g. the SortedRideHistory.BY_* constants) returns the
+     * same view at no cost. A view for a one-off key (e.g. a lambda built per call) should be detached when done
+     * @param sortKey Function extracting the sort key from a visitor (e.g. SortedRideHistory.BY_NAME)
+     * @param <K> Type of the sort key
+     * @return SortedRideHistory: The view for this key
+     */
+    @SuppressWarnings("unchecked") // The key function fixes K, so a view found under it has the caller's K
+    public synchronized <K extends Comparable<? super K>> SortedRideHistory<K> sortedView(Function<Visitor, K> sortKey) {
+        SortedRideHistory<?> existing = sortedViews.get(sortKey);
+        if (existing != null) {
+            return (SortedRideHistory<K>) existing;
+        }
+        return attachView(sortKey, new SortedRideHistory<>(this, sortKey, null));
+    }
+
+    /**
+     * Get the sorted view with a primitive numeric key (e.g. visit date as an epoch day, or age), creating it on first use
+     * Keys are compared as longs, with no boxing and no String comparison; views are shared per key function as in sortedView()
+     * @param sortKey Function extracting the key from a visitor (e.g. SortedRideHistory.BY_VISIT_DATE)
+     * @return SortedRideHistory: The view for this key
+     */
+    @SuppressWarnings("unchecked") // Only numeric views are stored under a ToLongFunction
+    public synchronized SortedRideHistory<Long> numericSortedView(ToLongFunction<Visitor> sortKey) {
+        SortedRideHistory<?> existing = sortedViews.get(sortKey);
+        if (existing != null) {
+            return (SortedRideHistory<Long>) existing;
+        }
+        return attachView(sortKey, new SortedRideHistory<Long>(this, null, sortKey));
+    }
+
+    /**
+     * Stop keeping a view up to date (called by SortedRideHistory.detach())
+     * The next request for its key creates a fresh view
+     * @param view View to detach
+     */
+    synchronized void detachView(SortedRideHistory<?> view) {
+        sortedViews.values().remove(view);
+    }
+
+    // Backfills a new view with the existing records and keeps it up to date from now on
+    private <K extends Comparable<? super K>> SortedRideHistory<K> attachView(Object sortKey, SortedRideHistory<K> view) {
+        for (int position = 0; position < recordCount; position++) {
+            view.insert(get(position), position);
+        }
+        sortedViews.put(sortKey, view);
+        return view;
+    }
+
+    /**
+     * Check whether a visitor is in the history, by ticket ID
+     * @param visitor Visitor to look for
+     * @return boolean: True if a visitor with the same ticket ID has taken the ride
+     */
+    public boolean contains(Visitor visitor) {
+        return visitor != null && containsTicket(visitor.getTicketId());
+    }
+
+    /**
+     * Check whether a ticket is in the history
+     * The Bloom filter rejects most unknown tickets; only possible hits reach the hash index
+     * @param ticketId Ticket ID to look for
+     * @return boolean: True if the ticket has taken the ride
+     */
+    public synchronized boolean containsTicket(String ticketId) {
+        if (ticketId == null) {
+            return false;
+        }
+        if (bloomFilter.mightContain(ticketId) && profileByTicket.containsKey(ticketId)) {
+            return true;
+        }
+        return base != null && base.countRides(ticketId) > 0;
+    }
+
+    /**
+     * Get the number of times a ticket has taken the ride
+     * @param ticketId Ticket ID to look for
+     * @return int: Number of history records for the ticket (0 if none)
+     */
+    public synchronized int countRides(String ticketId) {
+        if (ticketId == null) {
+            return 0;
+        }
+        Integer profile = bloomFilter.mightContain(ticketId) ? profileByTicket.get(ticketId) : null;
+        if (profile != null) {
+            return profileRideCounts[profile - baseProfiles]; // Includes rides from before the snapshot
+        }
+        return (base != null) ? base.countRides(ticketId) : 0;
+    }
+
+    /**
+     * Get the number of records in the history
+     * @return int: Number of history records (O(1))
+     */
+    public synchronized int size() {
+        return recordCount;
+    }
+
+    /**
+     * Check whether the history has no records
+     * @return boolean: True if nobody has taken the ride yet
+     */
+    public synchronized boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    /**
+     * Get the record at a position in the history
+     * Builds a new Visitor from the compact columns; the returned object is not the one originally added
+     * @param position Zero-based insertion position
+     * @return Visitor: The visitor recorded at that position
+     */
+    public synchronized Visitor get(int position) {
+        if (position < 0 || position >= recordCount) {
+            throw new IndexOutOfBoundsException("History position " + position + " out of range 0.." + (recordCount - 1));
+        }
+        int profile = recordProfile(position);
+        int encodedDate = recordDate(position);
+        return new Visitor(profileName(profile), profileAge(profile), profileContact(profile),
+                profileTicket(profile), dateString(encodedDate), isRawDate(encodedDate) ? VisitDates.INVALID : encodedDate);
+    }
+
+    /**
+     * Append the display text of one record (same as get(position).toString()) without building a Visitor
+     * The record's fields are read under the lock and written to the output after releasing it,
+     * so a slow destination never holds up the ride loop
+     * @param out Destination (e.g. a reused StringBuilder)
+     * @param position Zero-based insertion position
+     * @throws IOException If the destination fails
+     */
+    public void appendRecord(Appendable out, int position) throws IOException {
+        String name;
+        int age;
+        String contactNumber;
+        String ticketId;
+        String visitDate;
+        synchronized (this) {
+            if (position < 0 || position >= recordCount) {
+                throw new IndexOutOfBoundsException("History position " + position + " out of range 0.." + (recordCount - 1));
+            }
+            int profile = recordProfile(position);
+            name = profileName(profile);
+            age = profileAge(profile);
+            contactNumber = profileContact(profile);
+            ticketId = profileTicket(profile);
+            visitDate = dateString(recordDate(position));
+        }
+        Visitor.appendVisitor(out, name, age, contactNumber, ticketId, visitDate);
+    }
+
+    /**
+     * Returns an iterator over the history in insertion order
+     * Visitors are materialized one at a time as the iterator advances
+     * The iterator covers the records present when it was created; records appended later are not visited
+     * @return Iterator: Iterator from the first to the last record
+     */
+    @Override
+    public Iterator<Visitor> iterator() {
+        final int end = size();
+        return new Iterator<Visitor>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < end;
+            }
+
+            @Override
+            public Visitor next() {
+                if (position >= end) {
+                    throw new NoSuchElementException();
+                }
+                return get(position++);
+            }
+        };
+    }
+
+    /**
+     * Capture the records present now for ParkSnapshot, without copying them
+     * Records and profiles are only ever appended (growing replaces the arrays instead of changing them),
+     * so the captured arrays can be read after the lock is released while the ride keeps adding records
+     * @return Image: Read-only view of the current records
+     */
+    synchronized Image capture() {
+        return new Image(this);
+    }
+
+    /**
+     * Append one record (capacity must already be ensured)
+     * Reuses the ticket's latest profile when name, age and contact number still match; otherwise adds a new one
+     * @param visitor Visitor who has taken the ride
+     */
+    private void append(Visitor visitor) {
+        String ticketId = visitor.getTicketId();
+        Integer known = (ticketId != null) ? profileByTicket.get(ticketId) : null;
+        int profile;
+        if (known != null && sameProfile(known, visitor)) {
+            profile = known;
+        } else {
+            profile = addProfile(visitor);
+            if (ticketId != null) {
+                if (known != null) {
+                    profileRideCounts[profile - baseProfiles] = profileRideCounts[known - baseProfiles]; // Carry the ticket's count forward
+                } else {
+                    if (base != null) {
+                        profileRideCounts[profile - baseProfiles] = base.countRides(ticketId); // Rides before the snapshot
+                    }
+                    indexNewTicket(ticketId);
+                }
+                profileByTicket.put(ticketId, profile);
+            }
+        }
+        profileRideCounts[profile - baseProfiles]++;
+        recordProfiles[recordCount - baseRecords] = profile;
+        recordDates[recordCount - baseRecords] = encodeDate(visitor);
+        for (SortedRideHistory<?> view : sortedViews.values()) {
+            view.insert(visitor, recordCount);
+        }
+        recordCount++;
+    }
+
+    // Checks whether a stored heap profile still describes the visitor (same strings are usually the same references)
+    private boolean sameProfile(int profile, Visitor visitor) {
+        int index = profile - baseProfiles;
+        return profileAges[index] == visitor.getAge()
+                && equalStrings(profileNames[index], visitor.getName())
+                && equalStrings(profileContacts[index], visitor.getContactNumber());
+    }
+
+    // Column accessors: positions and profile codes below the base counts are read from the snapshot
+
+    private int recordProfile(int position) {
+        return (position < baseRecords) ? base.recordProfile(position) : recordProfiles[position - baseRecords];
+    }
+
+    private int recordDate(int position) {
+        return (position < baseRecords) ? base.recordDate(position) : recordDates[position - baseRecords];
+    }
+
+    private String profileTicket(int profile) {
+        return (profile < baseProfiles) ? base.profileTicket(profile) : profileTickets[profile - baseProfiles];
+    }
+
+    private String profileName(int profile) {
+        return (profile < baseProfiles) ? base.profileName(profile) : profileNames[profile - baseProfiles];
+    }
+
+    private String profileContact(int profile) {
+        return (profile < baseProfiles) ? base.profileContact(profile) : profileContacts[profile - baseProfiles];
+    }
+
+    private int profileAge(int profile) {
+        return (profile < baseProfiles) ? base.profileAge(profile) : profileAges[profile - baseProfiles];
+    }
+
+    private static boolean equalStrings(String a, String b) {
+        return (a == b) || (a != null && a.equals(b));
+    }
+
+    // Adds a new entry to the profile dictionary and returns its code
+    private int addProfile(Visitor visitor) {
+        int index = profileCount - baseProfiles;
+        if (index == profileTickets.length) {
+            int newLength = index * 2;
+            profileTickets = Arrays.copyOf(profileTickets, newLength);
+            profileNames = Arrays.copyOf(profileNames, newLength);
+            profileContacts = Arrays.copyOf(profileContacts, newLength);
+            profileAges = Arrays.copyOf(profileAges, newLength);
+            profileRideCounts = Arrays.copyOf(profileRideCounts, newLength);
+        }
+        profileTickets[index] = visitor.getTicketId();
+        profileNames[index] = visitor.getName();
+        profileContacts[index] = visitor.getContactNumber();
+        profileAges[index] = visitor.getAge();
+        return profileCount++;
+    }
+
+    // Grows the record columns (by 1.5x) so that at least the required number of records fit
+    private void ensureRecordCapacity(int required) {
+        required -= baseRecords; // Only records after the snapshot are held in the arrays
+        if (required > recordProfiles.length) {
+            int newLength = Math.max(required, recordProfiles.length + (recordProfiles.length >> 1));
+            recordProfiles = Arrays.copyOf(recordProfiles, newLength);
+            recordDates = Arrays.copyOf(recordDates, newLength);
+        }
+    }
+
+    /**
+     * Encode a visit date as an int
+     * Canonical "YYYY-MM-DD" dates are stored as the epoch day the Visitor already parsed; anything else
+     * (e.g. "Unknown") is kept verbatim in a small dictionary so that the original string is returned unchanged
+     * when the record is materialized
+     * @param visitor Visitor whose visit date is encoded
+     * @return int: Epoch day, or RAW_DATE_BASE + dictionary index
+     */
+    private int encodeDate(Visitor visitor) {
+        int epochDay = visitor.getVisitEpochDay();
+        if (epochDay != VisitDates.INVALID) {
+            return epochDay;
+        }
+        String visitDate = visitor.getVisitDate();
+        Integer index = rawDateCodes.get(visitDate);
+        if (index == null) {
+            index = rawDates.size();
+            rawDates.add(visitDate);
+            rawDateCodes.put(visitDate, index);
+        }
+        return RAW_DATE_BASE + index;
+    }
+
+    private boolean isRawDate(int encodedDate) {
+        return encodedDate < RAW_DATE_BASE + rawDates.size();
+    }
+
+    // Decodes an encoded date back to a String; "YYYY-MM-DD" strings are shared between records of the same day
+    private String dateString(int encodedDate) {
+        if (isRawDate(encodedDate)) {
+            return rawDates.get(encodedDate - RAW_DATE_BASE);
+        }
+        return VisitDates.format(encodedDate);
+    }
+
+    /**
+     * Add a first-time ticket to the Bloom filter
+     * Rebuilds the filter at double size once it holds more tickets than it was sized for,
+     * so its false-positive rate stays low as the history grows
+     * @param ticketId Ticket ID that has just ridden for the first time
+     */
+    private void indexNewTicket(String ticketId) {
+        if (profileByTicket.size() + 1 > bloomFilter.getExpectedTickets()) {
+            bloomFilter = new TicketBloomFilter(bloomFilter.getExpectedTickets() * 2);
+            for (String indexedTicket : profileByTicket.keySet()) {
+                bloomFilter.add(indexedTicket);
+            }
+        }
+        bloomFilter.add(ticketId);
+    }
+
+    /**
+     * Read-only view of a history's records at the moment capture() was called (used by ParkSnapshot)
+     * Shares the history's arrays; everything it reads was written before the capture and is never changed again
+     */
+    static final class Image {
+        private final MappedHistory base;
+        private final int baseRecords;
+        private final int baseProfiles;
+        private final int[] recordProfiles;
+        private final int[] recordDates;
+        private final int recordCount;
+        private final String[] profileTickets;
+        private final String[] profileNames;
+        private final String[] profileContacts;
+        private final int[] profileAges;
+        private final int profileCount;
+        private final List<String> rawDates;
+
+        // Called by capture() under the history's lock
+        private Image(RideHistory history) {
+            this.base = history.base;
+            this.baseRecords = history.baseRecords;
+            this.baseProfiles = history.baseProfiles;
+            this.recordProfiles = history.recordProfiles;
+            this.recordDates = history.recordDates;
+            this.recordCount = history.recordCount;
+            this.profileTickets = history.profileTickets;
+            this.profileNames = history.profileNames;
+            this.profileContacts = history.profileContacts;
+            this.profileAges = history.profileAges;
+            this.profileCount = history.profileCount;
+            this.rawDates = new ArrayList<>(history.rawDates);
+        }
+
+        int getRecordCount() {
+            return recordCount;
+        }
+
+        int getProfileCount() {
+            return profileCount;
+        }
+
+        // Visit dates that are not canonical "YYYY-MM-DD", indexed by (encoded date - VisitDates.INVALID)
+        List<String> getRawDates() {
+            return rawDates;
+        }
+
+        int recordProfile(int position) {
+            return (position < baseRecords) ? base.recordProfile(position) : recordProfiles[position - baseRecords];
+        }
+
+        int recordDate(int position) {
+            return (position < baseRecords) ? base.recordDate(position) : recordDates[position - baseRecords];
+        }
+
+        String profileTicket(int profile) {
+            return (profile < baseProfiles) ? base.profileTicket(profile) : profileTickets[profile - baseProfiles];
+        }
+
+        String profileName(int profile) {
+            return (profile < baseProfiles) ? base.profileName(profile) : profileNames[profile - baseProfiles];
+        }
+
+        String profileContact(int profile) {
+            return (profile < baseProfiles) ? base.profileContact(profile) : profileContacts[profile - baseProfiles];
+        }
+
+        int profileAge(int profile) {
+            return (profile < baseProfiles) ? base.profileAge(profile) : profileAges[profile - baseProfiles];
+        }
+    }
+
+    /**
+     * Bloom filter over ticket IDs
+     * Sized at 10 bits per expected ticket with 3 probes (about 1.7% false positives when full)
+     * Probe positions are derived from String.hashCode(), which String caches, so a check costs no hashing
+     * after the first time a ticket string is seen
+     */
+    private static final class TicketBloomFilter {
+        static final int INITIAL_EXPECTED_TICKETS = 1024; // Starting size; doubled as the history grows
+        private static final int BITS_PER_TICKET = 10;
+        private static final int PROBES = 3;
+
+        private final long[] bits;       // Bit set, 64 bits per word
+        private final int mask;          // Number of bits - 1 (bit count is a power of two)
+        private final int expectedTickets;
+
+        TicketBloomFilter(int expectedTickets) {
+            this.expectedTickets = expectedTickets;
+            int bitCount = Integer.highestOneBit(Math.max(64, expectedTickets * BITS_PER_TICKET - 1)) << 1;
+            this.bits = new long[bitCount >>> 6];
+            this.mask = bitCount - 1;
+        }
+
+        int getExpectedTickets() {
+            return expectedTickets;
+        }
+
+        void add(String ticketId) {
+            int hash = spread(ticketId.hashCode());
+            int step = (hash >>> 16) | 1; // Double hashing: odd step visits distinct positions
+            for (int i = 0; i < PROBES; i++) {
+                int bit = hash & mask;
+                bits[bit >>> 6] |= 1L << bit;
+                hash += step;
+            }
+        }
+
+        boolean mightContain(String ticketId) {
+            int hash = spread(ticketId.hashCode());
+            int step = (hash >>> 16) | 1;
+            for (int i = 0; i < PROBES; i++) {
+                int bit = hash & mask;
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+                hash += step;
+            }
+            return true;
+        }
+
+        // Mixes the bits of String.hashCode() (murmur3 finalizer) so similar ticket IDs spread out
+        private static int spread(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            hash ^= hash >>> 16;
+            return hash;
+        }
+    }
+}
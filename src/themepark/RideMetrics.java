@@ -0,0 +1,306 @@
+package themepark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * RideMetrics class - Operational metrics of one Ride
+ * Records enqueue/dequeue counts, the wait of every visitor between addVisitorToQueue and boarding,
+ * ride cycle latency, and seats filled versus maxCapacity
+ * Counters are LongAdders and timings go into lock-free LatencyHistograms, so recording never blocks
+ * and never allocates; metrics are off by default and cost one null check per operation until
+ * Ride.enableMetrics() is called
+ * Values can be read with snapshot() or over JMX after registerMBean()
+ */
+public class RideMetrics implements RideMetricsMXBean {
+    private final Ride ride;                     // Ride being measured (for its name and live queue length)
+    private final LongAdder enqueues = new LongAdder();
+    private final LongAdder dequeues = new LongAdder();
+    private final LongAdder boarded = new LongAdder();
+    private final LongAdder cycles = new LongAdder();
+    private final LongAdder seatsFilled = new LongAdder();
+    private final LongAdder seatsOffered = new LongAdder();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();     // Nanoseconds from queueing to boarding
+    private final LatencyHistogram cycleLatency = new LatencyHistogram();  // Nanoseconds per boardOneCycle()
+    private ObjectName registeredName;           // JMX name while registered, otherwise null
+
+    /**
+     * Parameterized constructor
+     * Created by Ride.enableMetrics()
+     * @param ride Ride being measured
+     */
+    RideMetrics(Ride ride) {
+        this.ride = ride;
+    }
+
+    // Recording (called by Ride; allocation-free)
+
+    void recordEnqueue() {
+        enqueues.increment();
+    }
+
+    void recordDequeue(int visitors) {
+        dequeues.add(visitors);
+    }
+
+    void recordBoarding(long queuedAtNanos, long nowNanos) {
+        if (queuedAtNanos != 0) {
+            waitTimes.record(nowNanos - queuedAtNanos);
+        }
+    }
+
+    void recordCycle(int boardedVisitors, int maxCapacity, long latencyNanos) {
+        cycles.increment();
+        boarded.add(boardedVisitors);
+        seatsFilled.add(boardedVisitors);
+        seatsOffered.add(maxCapacity);
+        cycleLatency.record(latencyNanos);
+    }
+
+    // JMX registration
+
+    /**
+     * Register these metrics with the platform MBean server as "themepark:type=RideMetrics,name=<ride name>"
+     * Prints an error message if registration fails (e.g. two rides with the same name)
+     */
+    public synchronized void registerMBean() {
+        if (registeredName != null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName("themepark:type=RideMetrics,name=" + ObjectName.quote(ride.getRideName()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            System.out.println("Error: Could not register metrics of " + ride.getRideName() + " with JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remove these metrics from the platform MBean server (no effect if not registered)
+     */
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+        } catch (JMException e) {
+            System.out.println("Error: Could not unregister metrics of " + ride.getRideName() + " from JMX: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    // RideMetricsMXBean attributes
+
+    @Override
+    public String getRideName() {
+        return ride.getRideName();
+    }
+
+    @Override
+    public long getEnqueueCount() {
+        return enqueues.sum();
+    }
+
+    @Override
+    public long getDequeueCount() {
+        return dequeues.sum();
+    }
+
+    @Override
+    public int getQueueLength() {
+        return ride.getQueue().size();
+    }
+
+    @Override
+    public long getBoardedCount() {
+        return boarded.sum();
+    }
+
+    @Override
+    public double getWaitTimeMeanMillis() {
+        return waitTimes.getMean() / 1_000_000.0;
+    }
+
+    @Override
+    public double getWaitTimeP50Millis() {
+        return waitTimes.getValueAtPercentile(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getWaitTimeP95Millis() {
+        return waitTimes.getValueAtPercentile(95) / 1_000_000.0;
+    }
+
+    @Override
+    public double getWaitTimeP99Millis() {
+        return waitTimes.getValueAtPercentile(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getWaitTimeMaxMillis() {
+        return waitTimes.getMax() / 1_000_000.0;
+    }
+
+    @Override
+    public long getCycleCount() {
+        return cycles.sum();
+    }
+
+    @Override
+    public double getCycleLatencyMeanMicros() {
+        return cycleLatency.getMean() / 1_000.0;
+    }
+
+    @Override
+    public double getCycleLatencyP99Micros() {
+        return cycleLatency.getValueAtPercentile(99) / 1_000.0;
+    }
+
+    @Override
+    public long getSeatsFilled() {
+        return seatsFilled.sum();
+    }
+
+    @Override
+    public long getSeatsOffered() {
+        return seatsOffered.sum();
+    }
+
+    @Override
+    public double getSeatUtilization() {
+        long offered = seatsOffered.sum();
+        return (offered > 0) ? (double) seatsFilled.sum() / offered : 0.0;
+    }
+
+    @Override
+    public void reset() {
+        enqueues.reset();
+        dequeues.reset();
+        boarded.reset();
+        cycles.reset();
+        seatsFilled.reset();
+        seatsOffered.reset();
+        waitTimes.reset();
+        cycleLatency.reset();
+    }
+
+    /**
+     * Get the histogram of visitor wait times (nanoseconds from addVisitorToQueue to boarding)
+     * @return LatencyHistogram: Live wait time histogram
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Get the histogram of ride cycle latencies (nanoseconds per cycle)
+     * @return LatencyHistogram: Live cycle latency histogram
+     */
+    public LatencyHistogram getCycleLatency() {
+        return cycleLatency;
+    }
+
+    /**
+     * Take a point-in-time copy of the metrics
+     * @return Snapshot: Current values
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Snapshot class - Immutable copy of a ride's metrics at one point in time
+     * Getters have the same meaning and units as the RideMetricsMXBean attributes
+     */
+    public static class Snapshot {
+        private final String rideName;
+        private final long enqueueCount;
+        private final long dequeueCount;
+        private final int queueLength;
+        private final long boardedCount;
+        private final long cycleCount;
+        private final double seatUtilization;
+        private final double waitTimeMeanMillis;
+        private final double waitTimeP95Millis;
+        private final double waitTimeMaxMillis;
+        private final double cycleLatencyMeanMicros;
+
+        Snapshot(RideMetrics metrics) {
+            this.rideName = metrics.getRideName();
+            this.enqueueCount = metrics.getEnqueueCount();
+            this.dequeueCount = metrics.getDequeueCount();
+            this.queueLength = metrics.getQueueLength();
+            this.boardedCount = metrics.getBoardedCount();
+            this.cycleCount = metrics.getCycleCount();
+            this.seatUtilization = metrics.getSeatUtilization();
+            this.waitTimeMeanMillis = metrics.getWaitTimeMeanMillis();
+            this.waitTimeP95Millis = metrics.getWaitTimeP95Millis();
+            this.waitTimeMaxMillis = metrics.getWaitTimeMaxMillis();
+            this.cycleLatencyMeanMicros = metrics.getCycleLatencyMeanMicros();
+        }
+
+        public String getRideName() {
+            return rideName;
+        }
+
+        public long getEnqueueCount() {
+            return enqueueCount;
+        }
+
+        public long getDequeueCount() {
+            return dequeueCount;
+        }
+
+        public int getQueueLength() {
+            return queueLength;
+        }
+
+        public long getBoardedCount() {
+            return boardedCount;
+        }
+
+        public long getCycleCount() {
+            return cycleCount;
+        }
+
+        public double getSeatUtilization() {
+            return seatUtilization;
+        }
+
+        public double getWaitTimeMeanMillis() {
+            return waitTimeMeanMillis;
+        }
+
+        public double getWaitTimeP95Millis() {
+            return waitTimeP95Millis;
+        }
+
+        public double getWaitTimeMaxMillis() {
+            return waitTimeMaxMillis;
+        }
+
+        public double getCycleLatencyMeanMicros() {
+            return cycleLatencyMeanMicros;
+        }
+
+        /**
+         * Returns a one-line summary of the snapshot
+         * @return String: Formatted metrics
+         */
+        @Override
+        public String toString() {
+            return String.format("RideMetrics [Ride: %s, Enqueued: %d, Dequeued: %d, Queue: %d, Boarded: %d, Cycles: %d, "
+                            + "Seat Utilization: %.0f%%, Avg Wait: %.3f ms, P95 Wait: %.3f ms, Max Wait: %.3f ms, Avg Cycle: %.1f us]",
+                    rideName, enqueueCount, dequeueCount, queueLength, boardedCount, cycleCount, seatUtilization * 100,
+                    waitTimeMeanMillis, waitTimeP95Millis, waitTimeMaxMillis, cycleLatencyMeanMicros);
+        }
+    }
+}
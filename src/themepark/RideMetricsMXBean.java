@@ -0,0 +1,31 @@
+package themepark;
+
+/**
+ * JMX management interface of RideMetrics
+ * Registered as "themepark:type=RideMetrics,name=<ride name>" so queue depth, wait times and cycle figures
+ * of every ride can be watched live from JConsole, VisualVM or any JMX monitoring agent
+ * Wait times are reported in milliseconds and cycle latencies in microseconds
+ */
+public interface RideMetricsMXBean {
+    String getRideName();
+
+    long getEnqueueCount();          // Visitors added to the queue
+    long getDequeueCount();          // Visitors removed from the queue (boarded or removed)
+    int getQueueLength();            // Current queue length
+
+    long getBoardedCount();          // Visitors boarded by ride cycles
+    double getWaitTimeMeanMillis();  // Time between addVisitorToQueue and boarding
+    double getWaitTimeP50Millis();
+    double getWaitTimeP95Millis();
+    double getWaitTimeP99Millis();
+    double getWaitTimeMaxMillis();
+
+    long getCycleCount();            // Ride cycles run
+    double getCycleLatencyMeanMicros();
+    double getCycleLatencyP99Micros();
+    long getSeatsFilled();           // Sum of boarded visitors over all cycles
+    long getSeatsOffered();          // Sum of maxCapacity over all cycles
+    double getSeatUtilization();     // Seats filled / seats offered (0.0 - 1.0)
+
+    void reset();                    // Clear all counters and histograms
+}
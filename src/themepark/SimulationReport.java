@@ -0,0 +1,244 @@
+package themepark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SimulationReport class - Results of one ParkSimulation run
+ * Holds per-ride statistics (throughput, queue length, wait times) and park-wide totals
+ * All times are in simulated minutes
+ */
+public class SimulationReport {
+    private final double dayLength;        // Simulated day length in minutes
+    private final List<RideStats> rides;   // Statistics for each simulated ride, in the order the rides were added
+
+    /**
+     * Parameterized constructor
+     * @param dayLength Simulated day length in minutes
+     * @param rides Statistics for each simulated ride
+     */
+    public SimulationReport(double dayLength, List<RideStats> rides) {
+        this.dayLength = dayLength;
+        this.rides = Collections.unmodifiableList(new ArrayList<>(rides));
+    }
+
+    /**
+     * Get the simulated day length
+     * @return double: Day length in minutes
+     */
+    public double getDayLength() {
+        return dayLength;
+    }
+
+    /**
+     * Get the statistics of every simulated ride
+     * @return List: One RideStats per ride
+     */
+    public List<RideStats> getRides() {
+        return rides;
+    }
+
+    /**
+     * Get the total number of visitors who boarded a ride during the day
+     * @return long: Boarded visitors across all rides
+     */
+    public long getTotalBoarded() {
+        long total = 0;
+        for (RideStats ride : rides) {
+            total += ride.getBoarded();
+        }
+        return total;
+    }
+
+    /**
+     * Get the park-wide throughput
+     * @return double: Boarded visitors per hour across all rides
+     */
+    public double getThroughputPerHour() {
+        return getTotalBoarded() * 60.0 / dayLength;
+    }
+
+    /**
+     * Get the average wait of all boarded visitors across the park
+     * @return double: Average wait in minutes (0 if nobody boarded)
+     */
+    public double getAverageWait() {
+        double totalWait = 0;
+        long boarded = 0;
+        for (RideStats ride : rides) {
+            totalWait += ride.getAverageWait() * ride.getBoarded();
+            boarded += ride.getBoarded();
+        }
+        return (boarded > 0) ? totalWait / boarded : 0.0;
+    }
+
+    /**
+     * Returns a human-readable summary: a park total line followed by one line per ride
+     * @return String: Formatted report
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Simulation Report [Day: %.0f min, Rides: %d, Boarded: %d, Throughput: %.1f/h, Avg Wait: %.1f min]%n",
+                dayLength, rides.size(), getTotalBoarded(), getThroughputPerHour(), getAverageWait()));
+        for (RideStats ride : rides) {
+            report.append("  ").append(ride).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * RideStats class - Statistics of one simulated ride
+     */
+    public static class RideStats {
+        private final String rideName;
+        private final int arrivals;        // Visitors who came to the ride
+        private final int turnedAway;      // Visitors rejected because the (bounded) queue was full
+        private final int boarded;         // Visitors who took the ride
+        private final int leftInQueue;     // Visitors still waiting at closing time
+        private final int cycles;          // Ride cycles run
+        private final long seatsOffered;   // cycles x maxCapacity
+        private final int maxQueueLength;
+        private final double averageQueueLength; // Time-weighted over the day
+        private final double[] sortedWaits;      // Wait of every boarded visitor, ascending
+
+        /**
+         * Parameterized constructor
+         * @param rideName Name of the ride
+         * @param arrivals Visitors who came to the ride
+         * @param turnedAway Visitors rejected by a full queue
+         * @param boarded Visitors who took the ride
+         * @param leftInQueue Visitors still waiting at closing time
+         * @param cycles Ride cycles run
+         * @param seatsOffered Seats offered over all cycles
+         * @param maxQueueLength Longest queue during the day
+         * @param averageQueueLength Time-weighted average queue length
+         * @param waits Wait time in minutes of every boarded visitor (sorted by this constructor)
+         */
+        public RideStats(String rideName, int arrivals, int turnedAway, int boarded, int leftInQueue, int cycles,
+                         long seatsOffered, int maxQueueLength, double averageQueueLength, double[] waits) {
+            this.rideName = rideName;
+            this.arrivals = arrivals;
+            this.turnedAway = turnedAway;
+            this.boarded = boarded;
+            this.leftInQueue = leftInQueue;
+            this.cycles = cycles;
+            this.seatsOffered = seatsOffered;
+            this.maxQueueLength = maxQueueLength;
+            this.averageQueueLength = averageQueueLength;
+            this.sortedWaits = waits.clone();
+            Arrays.sort(this.sortedWaits);
+        }
+
+        /**
+         * Get the name of the simulated ride
+         * @return String: Ride name
+         */
+        public String getRideName() {
+            return rideName;
+        }
+
+        /**
+         * Get the number of visitors who came to the ride
+         * @return int: Arrivals during the day
+         */
+        public int getArrivals() {
+            return arrivals;
+        }
+
+        /**
+         * Get the number of visitors rejected because the queue was full
+         * @return int: Visitors turned away
+         */
+        public int getTurnedAway() {
+            return turnedAway;
+        }
+
+        /**
+         * Get the number of visitors who took the ride
+         * @return int: Boarded visitors
+         */
+        public int getBoarded() {
+            return boarded;
+        }
+
+        /**
+         * Get the number of visitors still waiting at closing time
+         * @return int: Queue length at closing
+         */
+        public int getLeftInQueue() {
+            return leftInQueue;
+        }
+
+        /**
+         * Get the number of ride cycles run
+         * @return int: Cycles run during the day
+         */
+        public int getCycles() {
+            return cycles;
+        }
+
+        /**
+         * Get the share of offered seats that were filled
+         * @return double: Seat utilization between 0.0 and 1.0
+         */
+        public double getSeatUtilization() {
+            return (seatsOffered > 0) ? (double) boarded / seatsOffered : 0.0;
+        }
+
+        /**
+         * Get the longest queue seen during the day
+         * @return int: Maximum queue length
+         */
+        public int getMaxQueueLength() {
+            return maxQueueLength;
+        }
+
+        /**
+         * Get the queue length averaged over the day (weighted by time)
+         * @return double: Average queue length
+         */
+        public double getAverageQueueLength() {
+            return averageQueueLength;
+        }
+
+        /**
+         * Get the average wait of boarded visitors
+         * @return double: Average wait in minutes (0 if nobody boarded)
+         */
+        public double getAverageWait() {
+            double total = 0;
+            for (double wait : sortedWaits) {
+                total += wait;
+            }
+            return (sortedWaits.length > 0) ? total / sortedWaits.length : 0.0;
+        }
+
+        /**
+         * Get a wait time percentile of boarded visitors
+         * @param percentile Percentile between 0 and 100 (e.g. 95)
+         * @return double: Wait in minutes that the given share of visitors did not exceed (0 if nobody boarded)
+         */
+        public double getWaitPercentile(double percentile) {
+            if (sortedWaits.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100.0 * sortedWaits.length) - 1;
+            return sortedWaits[Math.max(0, index)];
+        }
+
+        /**
+         * Returns a one-line summary of the ride's statistics
+         * @return String: Formatted statistics
+         */
+        @Override
+        public String toString() {
+            return String.format("Ride [Name: %s, Arrivals: %d, Boarded: %d, Turned Away: %d, Left In Queue: %d, Cycles: %d, "
+                            + "Seat Utilization: %.0f%%, Avg Queue: %.1f, Max Queue: %d, Avg Wait: %.1f min, P95 Wait: %.1f min]",
+                    rideName, arrivals, boarded, turnedAway, leftInQueue, cycles, getSeatUtilization() * 100,
+                    averageQueueLength, maxQueueLength, getAverageWait(), getWaitPercentile(95));
+        }
+    }
+}
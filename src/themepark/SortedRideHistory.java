@@ -0,0 +1,264 @@
+package themepark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * SortedRideHistory class - Sorted view of a RideHistory that is kept up to date as visitors are added (Part 4B)
+ * Instead of sorting the whole history with a comparator every time the sorted order is needed (O(n log n) per request),
+ * each new history record is inserted into a skip list as it is added (O(log n) per record)
+ * The sort key is extracted from the Visitor once, when the record is added, so later comparisons never call
+ * getters again; records with equal keys stay in insertion order
+ * The view stores only (key, history position) pairs; Visitor objects are materialized from the history on demand
+ * Reads are lock-free (ConcurrentSkipListSet) and may run while the ride loop keeps adding records
+ * Numeric views (RideHistory.numericSortedView()) keep their key as a primitive long, so dates and ages are
+ * compared without boxing or String comparison; their K is Long
+ * String keys (e.g. BY_NAME) also get a primitive key: their first 8 characters packed into a long, so most
+ * comparisons are one long comparison, and String.compareTo() only runs when two names share that prefix
+ * @param <K> Type of the sort key (e.g. String for names, Long for numeric views)
+ */
+public class SortedRideHistory<K extends Comparable<? super K>> implements Iterable<Visitor> {
+    // Ready-made sort keys for the common Visitor fields
+    public static final ToLongFunction<Visitor> BY_VISIT_DATE = Visitor::getVisitEpochDay; // Numeric: pre-parsed epoch day
+    public static final ToLongFunction<Visitor> BY_AGE = Visitor::getAge;                  // Numeric
+    public static final Function<Visitor, String> BY_NAME = Visitor::getName;
+
+    private final RideHistory history;                  // History the view is attached to (materializes visitors)
+    private final Function<Visitor, K> sortKey;         // Extracts an object sort key from a new record (null for numeric views)
+    private final ToLongFunction<Visitor> numericKey;   // Extracts a primitive sort key from a new record (null for object views)
+    private final ConcurrentSkipListSet<Entry<K>> entries; // Sorted (key, position) pairs
+    private volatile int size;                          // Number of entries (ConcurrentSkipListSet.size() is O(n))
+
+    /**
+     * Package-private constructor: views are created through RideHistory.sortedView()
+     * so that the history can keep them up to date
+     * Exactly one of sortKey and numericKey is given
+     * @param history History the view is attached to
+     * @param sortKey Function extracting an object sort key from a visitor, or null
+     * @param numericKey Function extracting a primitive sort key from a visitor, or null
+     */
+    SortedRideHistory(RideHistory history, Function<Visitor, K> sortKey, ToLongFunction<Visitor> numericKey) {
+        this.history = history;
+        this.sortKey = sortKey;
+        this.numericKey = numericKey;
+        this.entries = new ConcurrentSkipListSet<>();
+    }
+
+    /**
+     * Record a newly added history record in the view
+     * Called by RideHistory (under its lock) for every record it appends
+     * @param visitor Visitor being added to the history
+     * @param position Insertion position of the record in the history
+     */
+    void insert(Visitor visitor, int position) {
+        if (numericKey != null) {
+            entries.add(new Entry<>(null, numericKey.applyAsLong(visitor), position));
+        } else {
+            entries.add(Entry.of(sortKey.apply(visitor), position));
+        }
+        size++;
+    }
+
+    /**
+     * Stop keeping this view up to date, so the history no longer pays for it on every added record
+     * The view keeps the records it already has and can still be read
+     */
+    public void detach() {
+        history.detachView(this);
+    }
+
+    /**
+     * Get the number of records in the view (same as the history size while attached)
+     * @return int: Number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get all visitors in sorted order
+     * @return List: Visitors sorted by key, ties in insertion order
+     */
+    public List<Visitor> toList() {
+        return materialize(entries);
+    }
+
+    /**
+     * Get the first N visitors in sorted order (e.g. a leaderboard)
+     * @param count Maximum number of visitors to return
+     * @return List: Up to count visitors with the smallest keys
+     */
+    public List<Visitor> first(int count) {
+        List<Visitor> result = new ArrayList<>(Math.max(0, Math.min(count, size)));
+        Iterator<Entry<K>> iterator = entries.iterator();
+        while (result.size() < count && iterator.hasNext()) {
+            result.add(history.get(iterator.next().position));
+        }
+        return result;
+    }
+
+    /**
+     * Write one page of the view in sorted order, one "  <visitor>" line per record (e.g. a top-10 board)
+     * Records are rendered straight from the history columns: no Visitor objects and no per-line Strings
+     * @param out Destination (e.g. a StringBuilder reused on every refresh)
+     * @param offset Number of records to skip from the smallest key
+     * @param limit Maximum number of records to write
+     * @return int: Number of records written (fewer than limit on the last page)
+     * @throws IOException If the destination fails
+     */
+    public int render(Appendable out, int offset, int limit) throws IOException {
+        Iterator<Entry<K>> iterator = entries.iterator();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        int written = 0;
+        while (written < limit && iterator.hasNext()) {
+            out.append("  ");
+            history.appendRecord(out, iterator.next().position);
+            Renderable.appendLine(out);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Get the visitors whose key lies in a range, e.g. "visitors between two dates"
+     * Runs in O(log n + k): one skip-list search for the start, then k steps along the bottom level
+     * @param fromKey Lowest key to include
+     * @param toKey Highest key to include
+     * @return List: Visitors with fromKey ≤ key ≤ toKey, in sorted order
+     */
+    public List<Visitor> range(K fromKey, K toKey) {
+        if (numericKey != null) {
+            return range(((Number) fromKey).longValue(), ((Number) toKey).longValue());
+        }
+        if (compareKeys(fromKey, toKey) > 0) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Entry<K>> slice = entries.subSet(
+                Entry.of(fromKey, Integer.MIN_VALUE), true, Entry.of(toKey, Integer.MAX_VALUE), true);
+        return materialize(slice);
+    }
+
+    /**
+     * Get the visitors whose numeric key lies in a range, e.g. visit dates as VisitDates.parse() epoch days
+     * Same as range(K, K) but without boxing the bounds
+     * @param fromKey Lowest key to include
+     * @param toKey Highest key to include
+     * @return List: Visitors with fromKey ≤ key ≤ toKey, in sorted order
+     * @throws IllegalStateException If this view does not have a numeric key
+     */
+    public List<Visitor> range(long fromKey, long toKey) {
+        if (numericKey == null) {
+            throw new IllegalStateException("Not a numeric view: use range(K, K)");
+        }
+        if (fromKey > toKey) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Entry<K>> slice = entries.subSet(
+                new Entry<>(null, fromKey, Integer.MIN_VALUE), true, new Entry<>(null, toKey, Integer.MAX_VALUE), true);
+        return materialize(slice);
+    }
+
+    /**
+     * Returns an iterator over the visitors in sorted order
+     * The iterator is weakly consistent: records added while iterating may or may not be visited
+     * @return Iterator: Iterator from the smallest to the largest key
+     */
+    @Override
+    public Iterator<Visitor> iterator() {
+        final Iterator<Entry<K>> iterator = entries.iterator();
+        return new Iterator<Visitor>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Visitor next() {
+                return history.get(iterator.next().position);
+            }
+        };
+    }
+
+    private List<Visitor> materialize(Iterable<Entry<K>> slice) {
+        List<Visitor> result = new ArrayList<>();
+        for (Entry<K> entry : slice) {
+            result.add(history.get(entry.position));
+        }
+        return result;
+    }
+
+    // Compares sort keys with null keys (e.g. a visitor without a name) ordered first
+    private static <K extends Comparable<? super K>> int compareKeys(K a, K b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        return a.compareTo(b);
+    }
+
+    // Packs the first 8 characters of a String key into a long that orders like String.compareTo(), e.g.
+    // prefix("Amy") < prefix("Tom"); equal prefixes only mean "compare the Strings"
+    // Each character takes one byte (unsigned), and shorter keys are padded with zero bytes. A character above
+    // 0xFE is stored as 0xFF and ends the prefix, so keys that differ only after it still compare as equal here
+    // Null and non-String keys get the smallest prefix and are always compared with compareKeys()
+    static long prefix(Object key) {
+        long packed = 0;
+        if (key instanceof String) {
+            String text = (String) key;
+            int length = Math.min(text.length(), 8);
+            for (int i = 0; i < length; i++) {
+                int c = text.charAt(i);
+                if (c >= 0xFF) {
+                    packed |= 0xFFL << (56 - 8 * i);
+                    break;
+                }
+                packed |= (long) c << (56 - 8 * i);
+            }
+        }
+        return packed ^ Long.MIN_VALUE; // Unsigned order as a signed long, so Long.compare() can be used
+    }
+
+    /**
+     * Skip-list element: precomputed sort key plus history position (which also breaks ties by insertion order)
+     * Numeric views leave key null and compare the primitive numericKey; object views keep the key and its
+     * packed prefix (see prefix()) in numericKey, and compare the keys themselves only when the prefixes tie
+     */
+    private static final class Entry<K extends Comparable<? super K>> implements Comparable<Entry<K>> {
+        final K key;
+        final long numericKey;
+        final int position;
+
+        Entry(K key, long numericKey, int position) {
+            this.key = key;
+            this.numericKey = numericKey;
+            this.position = position;
+        }
+
+        // Entry of an object view
+        static <K extends Comparable<? super K>> Entry<K> of(K key, int position) {
+            return new Entry<>(key, prefix(key), position);
+        }
+
+        @Override
+        public int compareTo(Entry<K> other) {
+            int byKey = Long.compare(numericKey, other.numericKey);
+            if (byKey == 0 && key != other.key) {
+                byKey = compareKeys(key, other.key); // Object views only: same prefix, so compare the keys
+            }
+            return (byKey != 0) ? byKey : Integer.compare(position, other.position);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package themepark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * StaffDispatcher class - Assigns Employees to Rides where the queues are
+ * Each ride is registered with a ride type, and an Employee may only operate rides whose type matches
+ * their rideSpecialization (compared ignoring case and surrounding spaces)
+ * A ride's demand is its backlog in cycles: live queue length / maxCapacity, so a queue of 40 at an 8-seat ride
+ * (5 cycles) outranks a queue of 60 at a 40-seat ride (1.5 cycles)
+ * Because every employee has exactly one specialization, the staff split into independent groups, one per ride
+ * type, and the best assignment within a group is simply "staff the highest-demand rides": the dispatcher keeps
+ * each group's staffed and unstaffed rides in two trees ordered by demand and only has to compare the busiest
+ * unstaffed ride with the quietest staffed one
+ * When a demand changes, the ride is re-keyed in O(log n) and operators are moved one at a time from the
+ * quietest staffed ride to the busiest unstaffed ride, so nothing is re-solved from scratch
+ * A move only happens if the unstaffed ride's demand exceeds the staffed one's by the hysteresis margin
+ * (any waiting queue beats an empty one), which stops operators bouncing between rides with similar queues
+ * Thread-safe: all methods are synchronized; operators are swapped with Ride.setOperator()
+ */
+public class StaffDispatcher {
+    public static final double DEFAULT_HYSTERESIS = 0.25; // Demand must be 25% higher to take an operator
+
+    private final IdentityHashMap<Ride, RideSlot> rides;          // Registered rides
+    private final IdentityHashMap<Employee, StaffSlot> employees;  // Registered staff -> their group and ride
+    private final HashMap<String, Group> groups;                  // Normalized specialization -> its rides and staff
+    private double hysteresis;                                    // Relative demand margin required for a move
+    private long reassignments;                                   // Operators moved between rides so far
+    private int nextSlotId;                                       // Tie-breaker for equal demands
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Creates a dispatcher with no rides or staff and the default hysteresis
+     */
+    public StaffDispatcher() {
+        this.rides = new IdentityHashMap<>();
+        this.employees = new IdentityHashMap<>();
+        this.groups = new HashMap<>();
+        this.hysteresis = DEFAULT_HYSTERESIS;
+    }
+
+    /**
+     * Set how much busier an unstaffed ride must be before an operator is moved to it
+     * @param hysteresis Relative margin (e.g. 0.25 = 25% more cycles of backlog; 0 moves on any improvement)
+     */
+    public synchronized void setHysteresis(double hysteresis) {
+        if (hysteresis < 0) {
+            System.out.println("Error: Hysteresis cannot be negative: " + hysteresis);
+            return;
+        }
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Get the relative demand margin required to move an operator
+     * @return double: Current hysteresis
+     */
+    public synchronized double getHysteresis() {
+        return hysteresis;
+    }
+
+    /**
+     * Register a ride with the dispatcher, which from now on decides its operator
+     * The ride's current operator is kept as its first operator if qualified and not already registered;
+     * otherwise the ride starts unstaffed and is given an idle qualified employee if one is available
+     * @param ride Ride to staff
+     * @param rideType Type of the ride, matched against Employee.getRideSpecialization() (e.g. "Roller Coaster")
+     */
+    public synchronized void addRide(Ride ride, String rideType) {
+        if (ride == null || rideType == null) {
+            System.out.println("Error: Cannot dispatch staff to a null ride or ride type");
+            return;
+        }
+        if (rides.containsKey(ride)) {
+            System.out.println("Error: " + ride.getRideName() + " is already registered with the dispatcher");
+            return;
+        }
+        Group group = groups.computeIfAbsent(normalize(rideType), key -> new Group());
+        RideSlot slot = new RideSlot(ride, group, nextSlotId++);
+        slot.demand = demandOf(ride);
+        rides.put(ride, slot);
+
+        Employee current = ride.getOperator();
+        if (current != null && !employees.containsKey(current) && group == groupOf(current)) {
+            employees.put(current, new StaffSlot(group, slot));
+            slot.operator = current;
+            group.staffed.add(slot);
+        } else {
+            ride.setOperator(null);
+            group.unstaffed.add(slot);
+        }
+        settle(group);
+    }
+
+    /**
+     * Stop dispatching staff to a ride; its operator (if any) becomes available for other rides
+     * The ride keeps no operator
+     * @param ride Ride to remove
+     */
+    public synchronized void removeRide(Ride ride) {
+        RideSlot slot = rides.remove(ride);
+        if (slot == null) {
+            return;
+        }
+        Group group = slot.group;
+        if (slot.operator != null) {
+            group.staffed.remove(slot);
+            employees.get(slot.operator).ride = null;
+            group.idle.add(slot.operator);
+            slot.operator = null;
+            ride.setOperator(null);
+        } else {
+            group.unstaffed.remove(slot);
+        }
+        settle(group);
+    }
+
+    /**
+     * Add an employee to the pool of available operators (e.g. at the start of a shift)
+     * The employee is placed on the busiest unstaffed ride of their specialization, if any
+     * @param employee Employee who can be dispatched
+     */
+    public synchronized void addEmployee(Employee employee) {
+        if (employee == null) {
+            System.out.println("Error: Cannot add a null employee to the dispatcher");
+            return;
+        }
+        if (employees.containsKey(employee)) {
+            return;
+        }
+        Group group = groups.computeIfAbsent(normalize(employee.getRideSpecialization()), key -> new Group());
+        employees.put(employee, new StaffSlot(group, null));
+        group.idle.add(employee);
+        settle(group);
+    }
+
+    /**
+     * Remove an employee from the pool (e.g. at the end of a shift or on a break)
+     * If they were operating a ride, an idle colleague takes over, or the ride is left unstaffed
+     * The employee is removed from the group they were added under, even if their specialization changed since
+     * @param employee Employee to remove
+     */
+    public synchronized void removeEmployee(Employee employee) {
+        StaffSlot staff = employees.remove(employee);
+        if (staff == null) {
+            return;
+        }
+        Group group = staff.group;
+        RideSlot slot = staff.ride;
+        if (slot != null) {
+            group.staffed.remove(slot);
+            slot.operator = null;
+            slot.ride.setOperator(null);
+            group.unstaffed.add(slot);
+        } else {
+            group.idle.remove(employee);
+        }
+        settle(group);
+    }
+
+    /**
+     * Re-read one ride's queue length and move operators if its demand now warrants it
+     * Call after a burst of arrivals or a ride cycle; costs O(log n) plus O(log n) per operator moved
+     * @param ride Ride whose queue has changed
+     * @return int: Number of operators moved
+     */
+    public synchronized int updateDemand(Ride ride) {
+        RideSlot slot = rides.get(ride);
+        if (slot == null) {
+            return 0;
+        }
+        long before = reassignments;
+        if (refresh(slot)) {
+            settle(slot.group);
+        }
+        return (int) (reassignments - before);
+    }
+
+    /**
+     * Re-read every ride's queue length and move operators where demand has shifted
+     * Rides whose demand did not change are not touched; only the groups that changed are re-settled
+     * @return int: Number of operators moved
+     */
+    public synchronized int rebalance() {
+        long before = reassignments;
+        List<Group> changed = new ArrayList<>();
+        for (RideSlot slot : rides.values()) {
+            if (refresh(slot) && !slot.group.dirty) {
+                slot.group.dirty = true;
+                changed.add(slot.group);
+            }
+        }
+        for (Group group : changed) {
+            group.dirty = false;
+            settle(group);
+        }
+        return (int) (reassignments - before);
+    }
+
+    /**
+     * Get the ride an employee is operating
+     * @param employee Registered employee
+     * @return Ride: Ride they operate, or null if idle or not registered
+     */
+    public synchronized Ride getAssignment(Employee employee) {
+        StaffSlot staff = employees.get(employee);
+        return (staff != null && staff.ride != null) ? staff.ride.ride : null;
+    }
+
+    /**
+     * Get the employees who are registered but not operating a ride
+     * @return List: Idle employees
+     */
+    public synchronized List<Employee> getIdleEmployees() {
+        List<Employee> idle = new ArrayList<>();
+        for (Group group : groups.values()) {
+            idle.addAll(group.idle);
+        }
+        return idle;
+    }
+
+    /**
+     * Get the registered rides that have no operator, busiest first
+     * These are rides for which every qualified employee is busy on a ride with at least similar demand
+     * @return List: Unstaffed rides
+     */
+    public synchronized List<Ride> getUnstaffedRides() {
+        List<RideSlot> slots = new ArrayList<>();
+        for (Group group : groups.values()) {
+            slots.addAll(group.unstaffed);
+        }
+        slots.sort(BY_DEMAND.reversed());
+        List<Ride> unstaffed = new ArrayList<>(slots.size());
+        for (RideSlot slot : slots) {
+            unstaffed.add(slot.ride);
+        }
+        return unstaffed;
+    }
+
+    /**
+     * Get the number of times an operator has been moved from one ride to another
+     * @return long: Reassignments since the dispatcher was created
+     */
+    public synchronized long getReassignmentCount() {
+        return reassignments;
+    }
+
+    // Updates a ride's demand, re-keying it in its tree; returns true if the demand changed
+    private boolean refresh(RideSlot slot) {
+        double demand = demandOf(slot.ride);
+        if (demand == slot.demand) {
+            return false;
+        }
+        TreeSet<RideSlot> tree = (slot.operator != null) ? slot.group.staffed : slot.group.unstaffed;
+        tree.remove(slot);
+        slot.demand = demand;
+        tree.add(slot);
+        return true;
+    }
+
+    // Gives idle staff to the busiest unstaffed rides, then moves operators while an unstaffed ride is clearly busier
+    private void settle(Group group) {
+        while (!group.idle.isEmpty() && !group.unstaffed.isEmpty()) {
+            RideSlot busiest = group.unstaffed.pollLast();
+            assign(group.idle.poll(), busiest);
+        }
+        while (!group.unstaffed.isEmpty() && !group.staffed.isEmpty()) {
+            RideSlot busiest = group.unstaffed.last();
+            RideSlot quietest = group.staffed.first();
+            if (!worthMoving(busiest.demand, quietest.demand)) {
+                break;
+            }
+            group.unstaffed.pollLast();
+            group.staffed.pollFirst();
+            Employee operator = quietest.operator;
+            quietest.operator = null;
+            quietest.ride.setOperator(null);
+            group.unstaffed.add(quietest);
+            assign(operator, busiest);
+            reassignments++;
+        }
+    }
+
+    private boolean worthMoving(double unstaffedDemand, double staffedDemand) {
+        if (staffedDemand == 0) {
+            return unstaffedDemand > 0;
+        }
+        return unstaffedDemand > staffedDemand * (1 + hysteresis);
+    }
+
+    // Puts a registered employee on a ride that is in neither tree, and files the ride under staffed
+    private void assign(Employee employee, RideSlot slot) {
+        slot.operator = employee;
+        slot.ride.setOperator(employee);
+        employees.get(employee).ride = slot;
+        slot.group.staffed.add(slot);
+    }
+
+    private Group groupOf(Employee employee) {
+        return groups.get(normalize(employee.getRideSpecialization()));
+    }
+
+    // Backlog in ride cycles: how many full cycles it would take to clear the current queue
+    private static double demandOf(Ride ride) {
+        return (double) ride.getQueue().size() / Math.max(1, ride.getMaxCapacity());
+    }
+
+    private static String normalize(String rideType) {
+        return (rideType != null) ? rideType.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static final Comparator<RideSlot> BY_DEMAND =
+            Comparator.<RideSlot>comparingDouble(slot -> slot.demand).thenComparingInt(slot -> slot.id);
+
+    /**
+     * Rides and staff of one specialization
+     */
+    private static final class Group {
+        final TreeSet<RideSlot> staffed = new TreeSet<>(BY_DEMAND);   // Rides with an operator, quietest first
+        final TreeSet<RideSlot> unstaffed = new TreeSet<>(BY_DEMAND); // Rides without one, busiest last
+        final ArrayDeque<Employee> idle = new ArrayDeque<>();          // Qualified staff not on a ride
+        boolean dirty;                                                 // Marked during rebalance()
+    }
+
+    /**
+     * Dispatcher state of one employee: the group they were added under and the ride they operate
+     * The group is fixed at registration, so a later change of rideSpecialization cannot strand them in another group
+     */
+    private static final class StaffSlot {
+        final Group group;
+        RideSlot ride; // Ride they operate, or null while idle
+
+        StaffSlot(Group group, RideSlot ride) {
+            this.group = group;
+            this.ride = ride;
+        }
+    }
+
+    /**
+     * Dispatcher state of one ride: its group, last seen demand and current operator
+     */
+    private static final class RideSlot {
+        final Ride ride;
+        final Group group;
+        final int id;
+        double demand;
+        Employee operator;
+
+        RideSlot(Ride ride, Group group, int id) {
+            this.ride = ride;
+            this.group = group;
+            this.id = id;
+        }
+    }
+}
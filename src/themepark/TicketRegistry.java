@@ -0,0 +1,166 @@
+package themepark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TicketRegistry class - Park-wide registry of visitors, keyed by ticket ID
+ * Hands out one canonical Visitor object per ticket, so the same guest is not held as separate copies
+ * in many rides' queues, and interns the visit date, which thousands of guests share, so each date string
+ * is stored once (names and contact numbers are nearly always unique, so interning them would only add overhead)
+ * Rides attached with Ride.setTicketRegistry() report every boarding here, which makes cross-ride
+ * questions such as "which rides has ticket X ridden today?" a single hash lookup
+ * Thread-safe: entry gates and ride loops may use the registry concurrently
+ */
+public class TicketRegistry {
+    private final ConcurrentHashMap<String, TicketRecord> tickets; // Ticket ID -> canonical visitor and rides taken
+    private final ConcurrentHashMap<String, String> values;        // Interned visit dates (a few distinct values)
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Creates an empty registry (e.g. one per park day)
+     */
+    public TicketRegistry() {
+        this.tickets = new ConcurrentHashMap<>();
+        this.values = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the canonical visitor for a ticket, creating it on first use
+     * @param name Full name of the visitor
+     * @param age Age of the visitor
+     * @param contactNumber Contact phone number
+     * @param ticketId Unique ticket ID
+     * @param visitDate Visit date in "YYYY-MM-DD" format
+     * @return Visitor: The registered visitor for the ticket (an existing one keeps its original details)
+     */
+    public Visitor register(String name, int age, String contactNumber, String ticketId, String visitDate) {
+        return recordFor(name, age, contactNumber, ticketId, visitDate).visitor;
+    }
+
+    /**
+     * Get the canonical visitor for the given visitor's ticket
+     * If the ticket is new, the registry registers its own copy of the visitor (with the interned visit date);
+     * the caller's Visitor object is never modified
+     * @param visitor Visitor to look up or register
+     * @return Visitor: The canonical visitor for the ticket (the argument itself only if it is null or has no ticket ID)
+     */
+    public Visitor canonicalize(Visitor visitor) {
+        if (visitor == null || visitor.getTicketId() == null) {
+            return visitor;
+        }
+        return recordFor(visitor).visitor;
+    }
+
+    /**
+     * Get the registered visitor for a ticket
+     * @param ticketId Ticket ID to look up
+     * @return Visitor: The canonical visitor, or null if the ticket is not registered
+     */
+    public Visitor lookup(String ticketId) {
+        TicketRecord record = (ticketId != null) ? tickets.get(ticketId) : null;
+        return (record != null) ? record.visitor : null;
+    }
+
+    /**
+     * Record that visitors have boarded a ride (called by rides attached to this registry)
+     * Tickets not yet registered are registered from the boarded visitor's details
+     * @param ride Ride the visitors boarded
+     * @param boarded Visitors who boarded
+     */
+    public void recordRides(Ride ride, Collection<Visitor> boarded) {
+        for (Visitor visitor : boarded) {
+            if (visitor == null || visitor.getTicketId() == null) {
+                continue;
+            }
+            recordFor(visitor).rides.add(ride); // The record returned, even if clear() runs meanwhile
+        }
+    }
+
+    /**
+     * Get the rides a ticket has ridden
+     * @param ticketId Ticket ID to look up
+     * @return List: Rides taken, in no particular order (empty if none or the ticket is unknown)
+     */
+    public List<Ride> ridesTaken(String ticketId) {
+        TicketRecord record = (ticketId != null) ? tickets.get(ticketId) : null;
+        return (record != null) ? new ArrayList<>(record.rides) : Collections.emptyList();
+    }
+
+    /**
+     * Check whether a ticket has ridden a ride (two O(1) hash lookups)
+     * @param ticketId Ticket ID to look up
+     * @param ride Ride to check
+     * @return boolean: True if the ticket has boarded the ride
+     */
+    public boolean hasRidden(String ticketId, Ride ride) {
+        TicketRecord record = (ticketId != null) ? tickets.get(ticketId) : null;
+        return record != null && record.rides.contains(ride);
+    }
+
+    /**
+     * Get the number of registered tickets
+     * @return int: Number of tickets
+     */
+    public int size() {
+        return tickets.size();
+    }
+
+    /**
+     * Remove all tickets and interned values (e.g. at the end of a park day)
+     */
+    public void clear() {
+        tickets.clear();
+        values.clear();
+    }
+
+    // Record of the visitor's ticket, registering the registry's own copy of the visitor if the ticket is new
+    private TicketRecord recordFor(Visitor visitor) {
+        TicketRecord record = tickets.get(visitor.getTicketId());
+        if (record != null) {
+            return record;
+        }
+        return recordFor(visitor.getName(), visitor.getAge(), visitor.getContactNumber(),
+                visitor.getTicketId(), visitor.getVisitDate());
+    }
+
+    // Record of a ticket, created atomically on first use
+    private TicketRecord recordFor(String name, int age, String contactNumber, String ticketId, String visitDate) {
+        TicketRecord record = tickets.get(ticketId);
+        if (record != null) {
+            return record;
+        }
+        return tickets.computeIfAbsent(ticketId,
+                id -> new TicketRecord(new Visitor(name, age, contactNumber, id, intern(visitDate))));
+    }
+
+    /**
+     * Get the shared instance of a field value
+     * @param value String to intern (may be null)
+     * @return String: An equal String shared by every caller, or null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = values.putIfAbsent(value, value);
+        return (shared != null) ? shared : value;
+    }
+
+    /**
+     * Canonical visitor of one ticket and the rides it has taken
+     * The rides are a concurrent hash set: lock-free lookups, and boarding adds to it without copying
+     */
+    private static final class TicketRecord {
+        final Visitor visitor;
+        final Set<Ride> rides = ConcurrentHashMap.newKeySet();
+
+        TicketRecord(Visitor visitor) {
+            this.visitor = visitor;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package themepark;
+
+import java.util.Comparator;
+
+/**
+ * VisitDates class - Conversion between "YYYY-MM-DD" visit date strings and int epoch days
+ * Visitor parses its visit date once with parse() and keeps the epoch day, so sorting, range filters and
+ * validity checks compare ints instead of re-parsing or comparing strings character by character
+ * parse() is pure arithmetic (no LocalDate, no allocation); format() keeps a small cache of the strings
+ * it has produced, because a park only ever sees a handful of distinct visit dates
+ */
+public final class VisitDates {
+    public static final int INVALID = Integer.MIN_VALUE; // Epoch day returned for strings that are not valid dates
+
+    /**
+     * Orders visitors by visit date (parsed epoch day); visitors without a valid date come first
+     */
+    public static final Comparator<Visitor> BY_VISIT_DATE = Comparator.comparingInt(Visitor::getVisitEpochDay);
+
+    private static final int CACHE_SIZE = 1024; // Direct-mapped format cache (power of two)
+    private static final FormattedDate[] CACHE = new FormattedDate[CACHE_SIZE];
+
+    private VisitDates() {
+        // Utility class: not instantiated
+    }
+
+    /**
+     * Parse a strict "YYYY-MM-DD" date (years 0000-9999) to a day count since 1970-01-01
+     * @param date Date string, e.g. "2025-12-01"
+     * @return int: Epoch day, or INVALID if the string is null, not in that exact format, or not a real date
+     */
+    public static int parse(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Format an epoch day as "YYYY-MM-DD"
+     * Recently formatted dates are served from a cache, so every record of the same day shares one String
+     * @param epochDay Day count since 1970-01-01 (years 0000-9999)
+     * @return String: Formatted date, or "Unknown" for INVALID
+     */
+    public static String format(int epochDay) {
+        if (epochDay == INVALID) {
+            return "Unknown";
+        }
+        int slot = epochDay & (CACHE_SIZE - 1);
+        FormattedDate cached = CACHE[slot];
+        if (cached != null && cached.epochDay == epochDay) {
+            return cached.text;
+        }
+        String text = formatUncached(epochDay);
+        CACHE[slot] = new FormattedDate(epochDay, text); // Racy but safe: entries are immutable
+        return text;
+    }
+
+    /**
+     * Check whether an epoch day lies within an inclusive range
+     * @param epochDay Day to test (INVALID is never in range)
+     * @param fromDay First day of the range
+     * @param toDay Last day of the range
+     * @return boolean: True if fromDay ≤ epochDay ≤ toDay
+     */
+    public static boolean isBetween(int epochDay, int fromDay, int toDay) {
+        return epochDay != INVALID && epochDay >= fromDay && epochDay <= toDay;
+    }
+
+    // Days from civil date (proleptic Gregorian), after Howard Hinnant's days_from_civil algorithm
+    private static int toEpochDay(int year, int month, int day) {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Inverse of toEpochDay (civil_from_days), writing four-digit years as LocalDate.toString() does for 0000-9999
+    private static String formatUncached(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth + (shiftedMonth < 10 ? 3 : -9);
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        char[] text = {
+            (char) ('0' + year / 1000 % 10), (char) ('0' + year / 100 % 10), (char) ('0' + year / 10 % 10), (char) ('0' + year % 10),
+            '-', (char) ('0' + month / 10), (char) ('0' + month % 10),
+            '-', (char) ('0' + day / 10), (char) ('0' + day % 10)
+        };
+        return new String(text);
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Reads the decimal digits in [from, to), or returns -1 if any character is not a digit
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Cache entry: an epoch day and its formatted string
+     */
+    private static final class FormattedDate {
+        final int epochDay;
+        final String text;
+
+        FormattedDate(int epochDay, String text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+}
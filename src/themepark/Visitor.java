@@ -1,84 +1,144 @@
-/**
- * Visitor class - Subclass of Person, representing visitors to the theme park
- * Inherits common human attributes (name, age, contact number) from the Person superclass
- * Adds visitor-specific attributes and behaviors tailored to theme park guest management
- */
-public class Visitor extends Person {
-    // Visitor-specific attributes (encapsulated as private fields for data integrity)
-    private String ticketId;    // Unique ticket identifier for the visitor (e.g., "TICK001")
-    // Serves as a primary key for visitor tracking in queues/history
-    private String visitDate;   // Date of the visitor's park entry (format: YYYY-MM-DD, e.g., "2025-12-01")
-    // Used for validating visit validity and sorting history records
-
-    /**
-     * Default constructor (no-argument constructor)
-     * Calls the superclass (Person) default constructor to initialize inherited attributes
-     * Sets visitor-specific attributes to default "Unknown" values
-     */
-    public Visitor() {
-        super(); // Invokes the no-arg constructor of the Person class
-        this.ticketId = "Unknown";  // Default ticket ID if not specified
-        this.visitDate = "Unknown"; // Default visit date if not specified
-    }
-
-    /**
-     * Parameterized constructor
-     * Initializes both inherited attributes (via superclass constructor) and visitor-specific attributes
-     * Ensures complete initialization of the Visitor object with user-provided data
-     * @param name Full name of the visitor (inherited from Person)
-     * @param age Age of the visitor (inherited from Person, with validation in superclass)
-     * @param contactNumber Contact phone number of the visitor (inherited from Person)
-     * @param ticketId Unique ticket ID (e.g., "TICK001")
-     * @param visitDate Entry date in "YYYY-MM-DD" format (e.g., "2025-12-01")
-     */
-    public Visitor(String name, int age, String contactNumber, String ticketId, String visitDate) {
-        super(name, age, contactNumber); // Passes inherited attributes to Person's parameterized constructor
-        this.ticketId = ticketId;        // Assigns unique ticket ID
-        this.visitDate = visitDate;      // Assigns visit date (format enforced by usage in other components)
-    }
-
-    // Getter and Setter methods (implement encapsulation: controlled access to private fields)
-
-    /**
-     * Retrieves the visitor's unique ticket ID
-     * @return String: Unique ticket identifier (e.g., "TICK001")
-     */
-    public String getTicketId() {
-        return ticketId;
-    }
-
-    /**
-     * Updates the visitor's ticket ID
-     * @param ticketId New unique ticket ID (should be system-generated to ensure uniqueness)
-     */
-    public void setTicketId(String ticketId) {
-        this.ticketId = ticketId;
-    }
-
-    /**
-     * Retrieves the visitor's park entry date
-     * @return String: Visit date in "YYYY-MM-DD" format (e.g., "2025-12-01")
-     */
-    public String getVisitDate() {
-        return visitDate;
-    }
-
-    /**
-     * Updates the visitor's park entry date
-     * @param visitDate New entry date (recommended format: "YYYY-MM-DD" for consistency)
-     */
-    public void setVisitDate(String visitDate) {
-        this.visitDate = visitDate;
-    }
-
-    /**
-     * Overrides the toString() method from the Person superclass
-     * Combines inherited attribute string (from Person) with visitor-specific details
-     * Provides a human-readable representation of the Visitor object for debugging/logging
-     * @return String: Formatted string with complete visitor information
-     */
-    @Override
-    public String toString() {
-        return super.toString() + " | Visitor [Ticket ID: " + ticketId + ", Visit Date: " + visitDate + "]";
-    }
+package themepark;
+
+import java.io.IOException;
+
+/**
+ * Visitor class - Subclass of Person, representing visitors to the theme park
+ * Inherits common human attributes (name, age, contact number) from the Person superclass
+ * Adds visitor-specific attributes and behaviors tailored to theme park guest management
+ */
+public class Visitor extends Person {
+    // Visitor-specific attributes (encapsulated as private fields for data integrity)
+    private String ticketId;    // Unique ticket identifier for the visitor (e.g., "TICK001")
+    // Serves as a primary key for visitor tracking in queues/history
+    private String visitDate;   // Date of the visitor's park entry (format: YYYY-MM-DD, e.g., "2025-12-01")
+    // Used for validating visit validity and sorting history records
+    private int visitEpochDay;  // visitDate parsed once to days since 1970-01-01 (VisitDates.INVALID if not "YYYY-MM-DD")
+    // Kept in sync by the constructors and setVisitDate() so date comparisons and range filters never re-parse the string
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Calls the superclass (Person) default constructor to initialize inherited attributes
+     * Sets visitor-specific attributes to default "Unknown" values
+     */
+    public Visitor() {
+        super(); // Invokes the no-arg constructor of the Person class
+        this.ticketId = "Unknown";  // Default ticket ID if not specified
+        this.visitDate = "Unknown"; // Default visit date if not specified
+        this.visitEpochDay = VisitDates.INVALID;
+    }
+
+    /**
+     * Parameterized constructor
+     * Initializes both inherited attributes (via superclass constructor) and visitor-specific attributes
+     * Ensures complete initialization of the Visitor object with user-provided data
+     * @param name Full name of the visitor (inherited from Person)
+     * @param age Age of the visitor (inherited from Person, with validation in superclass)
+     * @param contactNumber Contact phone number of the visitor (inherited from Person)
+     * @param ticketId Unique ticket ID (e.g., "TICK001")
+     * @param visitDate Entry date in "YYYY-MM-DD" format (e.g., "2025-12-01")
+     */
+    public Visitor(String name, int age, String contactNumber, String ticketId, String visitDate) {
+        super(name, age, contactNumber); // Passes inherited attributes to Person's parameterized constructor
+        this.ticketId = ticketId;        // Assigns unique ticket ID
+        this.visitDate = visitDate;      // Assigns visit date (format enforced by usage in other components)
+        this.visitEpochDay = VisitDates.parse(visitDate); // Parsed once here rather than on every comparison
+    }
+
+    /**
+     * Package-private constructor for visitors rebuilt from stored records whose visit date is already parsed
+     * Skips parsing the date string again
+     * @param name Full name of the visitor
+     * @param age Age of the visitor
+     * @param contactNumber Contact phone number of the visitor
+     * @param ticketId Unique ticket ID
+     * @param visitDate Entry date string
+     * @param visitEpochDay Entry date as an epoch day (must match visitDate; VisitDates.INVALID if it is not a date)
+     */
+    Visitor(String name, int age, String contactNumber, String ticketId, String visitDate, int visitEpochDay) {
+        super(name, age, contactNumber);
+        this.ticketId = ticketId;
+        this.visitDate = visitDate;
+        this.visitEpochDay = visitEpochDay;
+    }
+
+    // Getter and Setter methods (implement encapsulation: controlled access to private fields)
+
+    /**
+     * Retrieves the visitor's unique ticket ID
+     * @return String: Unique ticket identifier (e.g., "TICK001")
+     */
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    /**
+     * Updates the visitor's ticket ID
+     * @param ticketId New unique ticket ID (should be system-generated to ensure uniqueness)
+     */
+    public void setTicketId(String ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    /**
+     * Retrieves the visitor's park entry date
+     * @return String: Visit date in "YYYY-MM-DD" format (e.g., "2025-12-01")
+     */
+    public String getVisitDate() {
+        return visitDate;
+    }
+
+    /**
+     * Updates the visitor's park entry date
+     * @param visitDate New entry date (recommended format: "YYYY-MM-DD" for consistency)
+     */
+    public void setVisitDate(String visitDate) {
+        this.visitDate = visitDate;
+        this.visitEpochDay = VisitDates.parse(visitDate);
+    }
+
+    /**
+     * Retrieves the visitor's park entry date as a number, for fast comparisons and range checks
+     * @return int: Days since 1970-01-01, or VisitDates.INVALID if the visit date is not a valid "YYYY-MM-DD" date
+     */
+    public int getVisitEpochDay() {
+        return visitEpochDay;
+    }
+
+    /**
+     * Overrides the toString() method from the Person superclass
+     * Combines inherited attribute string (from Person) with visitor-specific details
+     * Provides a human-readable representation of the Visitor object for debugging/logging
+     * @return String: Formatted string with complete visitor information
+     */
+    @Override
+    public String toString() {
+        return Renderable.render(this);
+    }
+
+    /**
+     * Appends the same text as toString() to the output without building intermediate Strings
+     * @param out Destination (e.g. a reused StringBuilder)
+     * @throws IOException If the destination fails
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        appendVisitor(out, getName(), getAge(), getContactNumber(), ticketId, visitDate);
+    }
+
+    /**
+     * Appends a visitor's display text from raw field values (used to render stored history records directly)
+     * @param out Destination
+     * @param name Full name
+     * @param age Age
+     * @param contactNumber Contact phone number
+     * @param ticketId Ticket ID
+     * @param visitDate Visit date
+     * @throws IOException If the destination fails
+     */
+    static void appendVisitor(Appendable out, String name, int age, String contactNumber,
+                              String ticketId, String visitDate) throws IOException {
+        appendPerson(out, name, age, contactNumber);
+        out.append(" | Visitor [Ticket ID: ").append(ticketId).append(", Visit Date: ").append(visitDate).append(']');
+    }
 }
\ No newline at end of file
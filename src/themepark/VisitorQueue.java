@@ -0,0 +1,332 @@
+package themepark;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * VisitorQueue class - FIFO waiting line of visitors in front of a Ride
+ * Supports two modes:
+ *   - Standard mode: backed by a LinkedList, for use by one owning thread (the original behaviour), with no lock;
+ *     each add and removal bumps a change counter (two plain ordered stores), so copy() can still take a consistent
+ *     copy from another thread, such as the ParkSnapshot writer, by reading optimistically and retrying on a change
+ *   - Concurrent mode: backed by a lock-free ConcurrentLinkedQueue (Michael-Scott MPMC queue),
+ *     so many entry scanners can enqueue while the ride loop dequeues, without a shared lock
+ * Either mode can optionally be bounded: once the capacity is reached, offer() rejects new visitors
+ * (backpressure) instead of letting the line grow without limit
+ * While the ride measures wait times (metrics enabled), each entry also remembers when it joined this queue, so
+ * a visitor waiting in several rides' queues at once has one join time per queue; otherwise the queue holds the
+ * Visitor itself and an offer allocates nothing beyond the underlying list's node
+ */
+public class VisitorQueue implements Iterable<Visitor> {
+    public static final int UNBOUNDED = 0; // Capacity value meaning "no limit on queue length"
+
+    private final Queue<Object> visitors;  // Underlying FIFO storage of Visitor or Timed entries (LinkedList or ConcurrentLinkedQueue)
+    private final boolean concurrent;      // True if the queue is safe for multiple producers/consumers
+    private final int capacity;            // Maximum number of waiting visitors (UNBOUNDED = no limit)
+    private final AtomicInteger size;      // Number of reserved slots; O(1) size() even in concurrent mode
+    private long changes;                  // Standard mode: odd while the owning thread changes the list (see copy())
+
+    private static final VarHandle CHANGES; // Ordered access to changes without making it volatile
+    private static final int YIELDING_ATTEMPTS = 100; // copy() attempts before waiting 1 ms between them
+
+    static {
+        try {
+            CHANGES = MethodHandles.lookup().findVarHandle(VisitorQueue.class, "changes", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Default constructor (no-argument constructor)
+     * Creates an unbounded, standard (single-threaded) queue
+     */
+    public VisitorQueue() {
+        this(false, UNBOUNDED);
+    }
+
+    /**
+     * Parameterized constructor
+     * @param concurrent True to use the lock-free multi-producer/multi-consumer queue
+     * @param capacity Maximum number of waiting visitors (UNBOUNDED or a value ≥ 1; invalid values mean UNBOUNDED)
+     */
+    public VisitorQueue(boolean concurrent, int capacity) {
+        this.concurrent = concurrent;
+        this.capacity = (capacity >= 1) ? capacity : UNBOUNDED;
+        this.visitors = concurrent ? new ConcurrentLinkedQueue<>() : new LinkedList<>();
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Adds a visitor to the back of the queue without blocking
+     * In bounded mode a slot is reserved with a CAS loop first, so the capacity is never exceeded
+     * even when many threads enqueue at the same time
+     * @param visitor Visitor to enqueue (must not be null)
+     * @return boolean: True if the visitor joined the queue, false if the queue is full
+     */
+    public boolean offer(Visitor visitor) {
+        return offer(visitor, 0L);
+    }
+
+    /**
+     * Adds a visitor to the back of the queue without blocking, remembering when it joined
+     * Used by Ride when wait times are measured (see RideMetrics)
+     * @param visitor Visitor to enqueue (must not be null)
+     * @param queuedAtNanos System.nanoTime() at which the visitor joined (0 = not timed: the visitor is stored as is)
+     * @return boolean: True if the visitor joined the queue, false if the queue is full
+     */
+    boolean offer(Visitor visitor, long queuedAtNanos) {
+        if (capacity == UNBOUNDED) {
+            size.incrementAndGet();
+        } else {
+            int current;
+            do {
+                current = size.get();
+                if (current >= capacity) {
+                    return false; // Backpressure: queue is full
+                }
+            } while (!size.compareAndSet(current, current + 1));
+        }
+        Object entry = (queuedAtNanos != 0L) ? new Timed(visitor, queuedAtNanos) : visitor;
+        if (concurrent) {
+            visitors.offer(entry);
+        } else {
+            beginChange();
+            visitors.offer(entry);
+            endChange();
+        }
+        return true;
+    }
+
+    /**
+     * Adds a visitor to the back of the queue, waiting up to the given time for space to free up
+     * Uses a short park/retry loop rather than a lock, so waiting producers never block the consumer
+     * @param visitor Visitor to enqueue (must not be null)
+     * @param timeout Maximum time to wait
+     * @param unit Time unit of the timeout
+     * @return boolean: True if the visitor joined the queue, false if it was still full after the timeout
+     */
+    public boolean offer(Visitor visitor, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long backoff = 1_000L; // Start with 1 microsecond, double up to 1 millisecond
+        while (!offer(visitor)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.min(backoff, remaining));
+            backoff = Math.min(backoff * 2, 1_000_000L);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the visitor at the front of the queue
+     * @return Visitor: The first visitor in line, or null if the queue is empty
+     */
+    public Visitor poll() {
+        Object entry;
+        if (concurrent) {
+            entry = visitors.poll();
+        } else {
+            beginChange();
+            entry = visitors.poll();
+            endChange();
+        }
+        if (entry == null) {
+            return null;
+        }
+        size.decrementAndGet(); // Release the slot reserved in offer()
+        return visitorOf(entry);
+    }
+
+    /**
+     * Removes up to maxVisitors visitors from the front of the queue and adds them to the target collection
+     * The reserved-slot counter is updated once for the whole batch instead of once per visitor,
+     * so boarding a full ride cycle costs a single atomic size update
+     * @param target Collection receiving the visitors in FIFO order
+     * @param maxVisitors Maximum number of visitors to remove
+     * @return int: Number of visitors actually moved into the target
+     */
+    public int drainTo(Collection<? super Visitor> target, int maxVisitors) {
+        return drainTo(target, maxVisitors, null, 0);
+    }
+
+    /**
+     * Removes up to maxVisitors visitors from the front of the queue, also reporting when each one joined
+     * @param target Collection receiving the visitors in FIFO order
+     * @param maxVisitors Maximum number of visitors to remove
+     * @param queuedAtNanos Receives the join time of the i-th drained visitor at index offset + i
+     *                      (0 if it was not timed; null = not needed)
+     * @param offset Index in queuedAtNanos for the first drained visitor
+     * @return int: Number of visitors actually moved into the target
+     */
+    int drainTo(Collection<? super Visitor> target, int maxVisitors, long[] queuedAtNanos, int offset) {
+        if (concurrent) {
+            return drainEntries(target, maxVisitors, queuedAtNanos, offset);
+        }
+        beginChange(); // One change for the whole batch
+        try {
+            return drainEntries(target, maxVisitors, queuedAtNanos, offset);
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * Copy the waiting visitors, front of the queue first
+     * Safe to call from any thread while the queue is in use. Concurrent mode uses the lock-free weakly consistent
+     * iterator. Standard mode reads the list optimistically (like StampedLock.tryOptimisticRead()) and keeps the
+     * copy only if the change counter was even and unchanged around it; otherwise it retries, yielding and then
+     * waiting 1 ms between attempts. The owning thread never waits for a copy
+     * @return List: Waiting visitors in FIFO order
+     */
+    List<Visitor> copy() {
+        if (concurrent) {
+            return copyEntries();
+        }
+        for (int attempt = 0; ; attempt++) {
+            long before = (long) CHANGES.getAcquire(this);
+            if ((before & 1) == 0) {
+                List<Visitor> copy;
+                try {
+                    copy = copyEntries();
+                } catch (RuntimeException e) {
+                    copy = null; // The list changed under the walk; the counter check below rejects it anyway
+                }
+                VarHandle.loadLoadFence(); // Finish reading the list before re-reading the counter
+                if (copy != null && (long) CHANGES.getOpaque(this) == before) {
+                    return copy;
+                }
+            }
+            if (attempt < YIELDING_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }
+    }
+
+    // Standard mode, owning thread only: marks the list as changing (odd counter) before it is touched
+    private void beginChange() {
+        CHANGES.setOpaque(this, changes + 1);
+        VarHandle.storeStoreFence(); // The odd counter becomes visible before any change to the list
+    }
+
+    // Standard mode, owning thread only: publishes the finished change (even counter)
+    private void endChange() {
+        CHANGES.setRelease(this, changes + 1);
+    }
+
+    private List<Visitor> copyEntries() {
+        List<Visitor> copy = new ArrayList<>(Math.max(0, size.get()));
+        for (Object entry : visitors) {
+            copy.add(visitorOf(entry));
+        }
+        return copy;
+    }
+
+    private int drainEntries(Collection<? super Visitor> target, int maxVisitors, long[] queuedAtNanos, int offset) {
+        int drained = 0;
+        Object entry;
+        while (drained < maxVisitors && (entry = visitors.poll()) != null) {
+            if (entry instanceof Timed) {
+                Timed timed = (Timed) entry;
+                target.add(timed.visitor);
+                if (queuedAtNanos != null) {
+                    queuedAtNanos[offset + drained] = timed.queuedAtNanos;
+                }
+            } else {
+                target.add((Visitor) entry);
+                if (queuedAtNanos != null) {
+                    queuedAtNanos[offset + drained] = 0L;
+                }
+            }
+            drained++;
+        }
+        if (drained > 0) {
+            size.addAndGet(-drained); // Release all slots reserved in offer() at once
+        }
+        return drained;
+    }
+
+    /**
+     * Get the number of visitors currently in the queue
+     * In concurrent mode this may briefly include visitors whose offer() is still in progress
+     * @return int: Queue length
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Check whether the queue has no waiting visitors
+     * @return boolean: True if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * Check whether the queue is safe for concurrent producers and consumers
+     * @return boolean: True in concurrent mode
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Get the maximum queue length
+     * @return int: Capacity, or UNBOUNDED if the queue has no limit
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns an iterator over the waiting visitors in FIFO order
+     * In concurrent mode the iterator is weakly consistent and never throws ConcurrentModificationException;
+     * in standard mode it is for the thread that owns the queue (other threads use copy())
+     * @return Iterator: Iterator from the front to the back of the queue
+     */
+    @Override
+    public Iterator<Visitor> iterator() {
+        Iterator<Object> entries = visitors.iterator();
+        return new Iterator<Visitor>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Visitor next() {
+                return visitorOf(entries.next());
+            }
+        };
+    }
+
+    private static Visitor visitorOf(Object entry) {
+        return (entry instanceof Timed) ? ((Timed) entry).visitor : (Visitor) entry;
+    }
+
+    // Queue entry used only while wait times are measured: the visitor and when it joined this queue
+    private static final class Timed {
+        final Visitor visitor;
+        final long queuedAtNanos;
+
+        Timed(Visitor visitor, long queuedAtNanos) {
+            this.visitor = visitor;
+            this.queuedAtNanos = queuedAtNanos;
+        }
+    }
+}